@@ -0,0 +1,289 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package it.geosolutions.mapstore.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.MappingMatch;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.core.env.PropertiesPropertySource;
+import org.springframework.mock.web.MockHttpServletMapping;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletConfig;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import it.geosolutions.mapstore.servlets.VirtualThreadDispatcherServlet;
+import it.geosolutions.mapstore.utils.VirtualThreads;
+
+/**
+ * Compares the two execution models of the dispatcher servlets with many concurrent clients, through the
+ * <code>configs</code> servlet (<code>VirtualThreadDispatcherServlet</code> with the Spring MVC stack of the web application):
+ * <ul>
+ * <li>platform: the requests are handled by the connector pool of <code>maxThreads</code> threads (200 by default in Tomcat)</li>
+ * <li>virtual: the connector thread puts the request in asynchronous mode and the servlet handles it on a virtual thread,
+ * with at most <code>permits</code> requests at the same time (<code>virtual.threads.enabled</code>, needs JDK 21+)</li>
+ * </ul>
+ * Each benchmark thread is a client: it sends a request for a configuration (with the cache disabled, so it goes to the disk)
+ * and waits for the response to complete. The client takes <code>clientMillis</code> to receive the response, blocking the
+ * thread writing it, as a slow network does. The number of clients is set with <code>-t</code> (1000 by default).
+ * <p>
+ * The score is the latency of the requests, with its percentiles (p0.99...), the throughput is the number of clients
+ * divided by the mean latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1000)
+@Fork(1)
+public class ConcurrencyBenchmark {
+
+    @Param({ "platform", "virtual" })
+    public String model;
+
+    /**
+     * Threads of the connector.
+     */
+    @Param({ "200" })
+    public int maxThreads;
+
+    /**
+     * Requests handled at the same time in the virtual model.
+     */
+    @Param({ "1024" })
+    public int permits;
+
+    /**
+     * Time in milliseconds a client takes to receive a response.
+     */
+    @Param({ "20" })
+    public int clientMillis;
+
+    private File dataDir;
+    private MockServletContext servletContext;
+    private VirtualThreadDispatcherServlet servlet;
+    private ExecutorService connector;
+
+    /**
+     * The configuration of the <code>configs</code> servlet, as in <code>configs-servlet.xml</code>.
+     */
+    @Configuration
+    @EnableWebMvc
+    @ComponentScan("it.geosolutions.mapstore.controllers.configs")
+    static class ConfigsServletConfiguration {
+        @Bean
+        static PropertySourcesPlaceholderConfigurer placeholderConfigurer() {
+            return new PropertySourcesPlaceholderConfigurer();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, ServletException {
+        boolean virtual = "virtual".equals(model);
+        if (virtual && !VirtualThreads.isSupported()) {
+            throw new UnsupportedOperationException("The virtual model needs JDK 21 or later, running on " + Runtime.version());
+        }
+        dataDir = Files.createTempDirectory("datadir").toFile();
+        File configs = new File(dataDir, "configs");
+        configs.mkdirs();
+        Files.write(new File(configs, "localConfig.json").toPath(), ConfigGenerator.localConfig(50).getBytes(StandardCharsets.UTF_8));
+
+        Properties properties = new Properties();
+        properties.setProperty("datadir.location", dataDir.getAbsolutePath());
+        properties.setProperty("configs.cache.enabled", "false");
+        properties.setProperty("warmup.enabled", "false");
+        properties.setProperty("virtual.threads.enabled", String.valueOf(virtual));
+        properties.setProperty("virtual.threads.permits", String.valueOf(permits));
+        AnnotationConfigWebApplicationContext context = new AnnotationConfigWebApplicationContext();
+        context.register(ConfigsServletConfiguration.class);
+        context.getEnvironment().getPropertySources().addFirst(new PropertiesPropertySource("mapstore", properties));
+
+        servletContext = new MockServletContext();
+        servlet = new VirtualThreadDispatcherServlet();
+        servlet.setApplicationContext(context);
+        servlet.init(new MockServletConfig(servletContext, "configs"));
+        if (servlet.isVirtual() != virtual) {
+            throw new IllegalStateException("The servlet is not in the " + model + " model");
+        }
+        connector = Executors.newFixedThreadPool(maxThreads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        connector.shutdownNow();
+        servlet.destroy();
+        try (Stream<Path> files = Files.walk(dataDir.toPath())) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    public int request() throws Exception {
+        CompletableFuture<Integer> done = new CompletableFuture<>();
+        SlowClientResponse response = new SlowClientResponse(clientMillis);
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", "/configs/localConfig.json") {
+            @Override
+            public AsyncContext startAsync(ServletRequest servletRequest, ServletResponse servletResponse) {
+                AsyncContext async = super.startAsync(servletRequest, servletResponse);
+                async.addListener(new CompletionListener(done, response));
+                return async;
+            }
+        };
+        request.setServletPath("/configs");
+        request.setPathInfo("/localConfig.json");
+        request.setHttpServletMapping(new MockHttpServletMapping("localConfig.json", "/configs/*", "configs", MappingMatch.PATH));
+        request.setAsyncSupported(true);
+        connector.execute(() -> {
+            try {
+                servlet.service(request, response);
+                if (!request.isAsyncStarted()) {
+                    done.complete(response.getStatus());
+                }
+            } catch (IOException | ServletException | RuntimeException e) {
+                done.completeExceptionally(e);
+            }
+        });
+        return done.get();
+    }
+
+    /**
+     * Completes the request when the servlet completes the asynchronous processing.
+     */
+    private static final class CompletionListener implements AsyncListener {
+        private final CompletableFuture<Integer> done;
+        private final MockHttpServletResponse response;
+
+        CompletionListener(CompletableFuture<Integer> done, MockHttpServletResponse response) {
+            this.done = done;
+            this.response = response;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            done.complete(response.getStatus());
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            done.completeExceptionally(new IllegalStateException("Timeout"));
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            done.completeExceptionally(event.getThrowable());
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // not restarted
+        }
+    }
+
+    /**
+     * Response to a client that takes some time to receive it: the first write blocks the calling thread.
+     */
+    private static final class SlowClientResponse extends MockHttpServletResponse {
+        private final int clientMillis;
+        private ServletOutputStream outputStream;
+
+        SlowClientResponse(int clientMillis) {
+            this.clientMillis = clientMillis;
+        }
+
+        @Override
+        public synchronized ServletOutputStream getOutputStream() {
+            if (outputStream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    private boolean received;
+
+                    @Override
+                    public void write(int b) throws IOException {
+                        receive();
+                        delegate.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        receive();
+                        delegate.write(b, off, len);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        delegate.setWriteListener(listener);
+                    }
+
+                    private void receive() throws IOException {
+                        if (!received) {
+                            received = true;
+                            try {
+                                Thread.sleep(clientMillis);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                throw new IOException("Interrupted", e);
+                            }
+                        }
+                    }
+                };
+            }
+            return outputStream;
+        }
+    }
+}
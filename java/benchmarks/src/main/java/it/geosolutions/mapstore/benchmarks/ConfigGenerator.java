@@ -0,0 +1,135 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package it.geosolutions.mapstore.benchmarks;
+
+import java.util.Properties;
+
+/**
+ * Generates synthetic configuration files, shaped like the ones of a real deployment, to feed the benchmarks:
+ * <ul>
+ * <li>a <code>localConfig.json</code> with a given number of plugins</li>
+ * <li>a <code>pluginsConfig.json</code> with a given number of plugins</li>
+ * <li>a json-patch with a given number of operations on the plugins of the <code>localConfig.json</code></li>
+ * <li>overrides mappings, with their properties, targeting the plugins of the <code>localConfig.json</code></li>
+ * </ul>
+ * The output only depends on the arguments, so runs with the same parameters are comparable.
+ */
+final class ConfigGenerator {
+
+    private ConfigGenerator() {
+    }
+
+    /**
+     * Builds a <code>localConfig.json</code> with the given number of desktop plugins.
+     */
+    static String localConfig(int plugins) {
+        StringBuilder json = new StringBuilder("{\n  \"proxyUrl\": {\"url\": \"proxy/?url=\", \"useCORS\": []},\n")
+            .append("  \"geoStoreUrl\": \"rest/geostore/\",\n  \"initialMapFilter\": \"\",\n  \"plugins\": {\n    \"desktop\": [\n");
+        for (int i = 0; i < plugins; i++) {
+            if (i > 0) {
+                json.append(",\n");
+            }
+            appendPlugin(json, i);
+        }
+        return json.append("\n    ]\n  }\n}\n").toString();
+    }
+
+    /**
+     * Builds a <code>pluginsConfig.json</code> describing the given number of plugins.
+     */
+    static String pluginsConfig(int plugins) {
+        StringBuilder json = new StringBuilder("{\n  \"plugins\": [\n");
+        for (int i = 0; i < plugins; i++) {
+            if (i > 0) {
+                json.append(",\n");
+            }
+            json.append("    {\"name\": \"Plugin").append(i).append("\", \"glyph\": \"glyph-").append(i)
+                .append("\", \"title\": \"plugins.Plugin").append(i).append(".title\", \"description\": \"plugins.Plugin")
+                .append(i).append(".description\", \"dependencies\": [\"Toolbar\"], \"defaultConfig\": {\"position\": ")
+                .append(i).append(", \"visible\": true}}");
+        }
+        return json.append("\n  ]\n}\n").toString();
+    }
+
+    /**
+     * Builds a json-patch for the <code>localConfig.json</code> with the given number of plugins:
+     * replacements of plugin options, new plugin options and new plugins, in turn.
+     */
+    static String patch(int operations, int plugins) {
+        StringBuilder json = new StringBuilder("[\n");
+        for (int i = 0; i < operations; i++) {
+            if (i > 0) {
+                json.append(",\n");
+            }
+            int plugin = i % plugins;
+            switch (i % 3) {
+            case 0:
+                json.append("  {\"op\": \"replace\", \"path\": \"/plugins/desktop/").append(plugin)
+                    .append("/cfg/position\", \"value\": ").append(plugins + i).append('}');
+                break;
+            case 1:
+                json.append("  {\"op\": \"add\", \"path\": \"/plugins/desktop/").append(plugin)
+                    .append("/cfg/patched").append(i).append("\", \"value\": {\"enabled\": false}}");
+                break;
+            default:
+                json.append("  {\"op\": \"add\", \"path\": \"/plugins/desktop/-\", \"value\": ");
+                appendPlugin(json, plugins + i);
+                json.append('}');
+            }
+        }
+        return json.append("\n]\n").toString();
+    }
+
+    /**
+     * Builds the given number of overrides mappings (<code>json.path=propertyName</code>, comma separated),
+     * each one replacing the URL of a plugin of the <code>localConfig.json</code>.
+     */
+    static String mappings(int mappings, int plugins) {
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < mappings; i++) {
+            if (i > 0) {
+                value.append(',');
+            }
+            value.append("plugins.desktop.").append(i % plugins).append(".cfg.url=url").append(i);
+        }
+        return value.toString();
+    }
+
+    /**
+     * Builds the overrides properties referenced by {@link #mappings(int, int)}.
+     */
+    static Properties overrides(int mappings) {
+        Properties props = new Properties();
+        for (int i = 0; i < mappings; i++) {
+            props.setProperty("url" + i, "https://overrides.example.com/geoserver/wms?id=" + i);
+        }
+        return props;
+    }
+
+    /**
+     * Builds a <code>localConfig.json</code> of about the given size, in bytes.
+     */
+    static String localConfigOfSize(long size) {
+        StringBuilder json = new StringBuilder("{\n  \"proxyUrl\": {\"url\": \"proxy/?url=\", \"useCORS\": []},\n  \"plugins\": {\n    \"desktop\": [\n");
+        int i = 0;
+        while (json.length() < size) {
+            if (i > 0) {
+                json.append(",\n");
+            }
+            appendPlugin(json, i);
+            i++;
+        }
+        return json.append("\n    ]\n  }\n}\n").toString();
+    }
+
+    private static void appendPlugin(StringBuilder json, int i) {
+        json.append("      {\"name\": \"Plugin").append(i).append("\", \"cfg\": {\"enabled\": true, \"position\": ").append(i)
+            .append(", \"url\": \"https://example.com/geoserver/wms?layer=").append(i)
+            .append("\", \"labels\": [\"first\", \"second\", \"è unicode ").append(i).append("\"]}}");
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package it.geosolutions.mapstore.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import it.geosolutions.mapstore.utils.JsonUtils;
+
+/**
+ * Compares the ways of reading a configuration file into a JSON tree and back to bytes:
+ * <ul>
+ * <li>lines: the file is read as lines, joined in a String, parsed, then serialized to a String and encoded
+ * (the way configurations were read before)</li>
+ * <li>streaming: the file is parsed from its bytes and serialized to bytes, with the shared mapper</li>
+ * </ul>
+ * Run with <code>-prof gc</code> to compare also the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigParsingBenchmark {
+
+    /**
+     * Approximate size of the configuration, in KB.
+     */
+    @Param({ "64", "1024", "3072" })
+    public int sizeKb;
+
+    private File config;
+
+    private final ObjectMapper legacyMapper = new ObjectMapper();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        config = File.createTempFile("localConfig", ".json");
+        Files.write(config.toPath(), ConfigGenerator.localConfigOfSize(sizeKb * 1024L).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        config.delete();
+    }
+
+    @Benchmark
+    public byte[] lines() throws IOException {
+        try (Stream<String> stream = Files.lines(Paths.get(config.getAbsolutePath()), StandardCharsets.UTF_8)) {
+            StringBuilder contentBuilder = new StringBuilder();
+            stream.forEach(s -> contentBuilder.append(s).append("\n"));
+            JsonNode tree = legacyMapper.readTree(contentBuilder.toString());
+            return tree.toString().getBytes("UTF-8");
+        }
+    }
+
+    @Benchmark
+    public byte[] streaming() throws IOException {
+        return JsonUtils.getMapper().writeValueAsBytes(JsonUtils.readTree(config));
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package it.geosolutions.mapstore.benchmarks;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jsonpatch.JsonPatch;
+import com.github.fge.jsonpatch.JsonPatchException;
+
+import it.geosolutions.mapstore.controllers.configs.ConfigsController;
+import it.geosolutions.mapstore.utils.JsonUtils;
+import it.geosolutions.mapstore.utils.OverridesPlan;
+
+/**
+ * Measures each stage of the materialization of a configuration, as done by the <code>configs</code> service,
+ * on synthetic files (see {@link ConfigGenerator}):
+ * <ul>
+ * <li>read: the base file is parsed into a JSON tree</li>
+ * <li>patch: the json-patch is applied to the tree</li>
+ * <li>overrides: the overrides mappings are applied to (a copy of) the tree.
+ * The cost of the copy alone is measured by <code>copy</code></li>
+ * <li>toBytes: the tree is serialized, as sent to the client</li>
+ * <li>materialize: the whole pipeline, through the service, with the configurations cache disabled</li>
+ * <li>cached: the service, with the configurations cache enabled</li>
+ * <li>bootstrap: the <code>bootstrap</code> service (<code>localConfig</code> and <code>pluginsConfig</code> at once), with the cache enabled</li>
+ * </ul>
+ * Run with <code>-prof gc</code> to measure also the allocation rate of each stage.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigPipelineBenchmark {
+
+    /**
+     * Number of plugins of the configuration.
+     */
+    @Param({ "50", "500" })
+    public int plugins;
+
+    /**
+     * Number of operations of the patch.
+     */
+    @Param({ "10", "100" })
+    public int patchOperations;
+
+    /**
+     * Number of overrides mappings.
+     */
+    @Param({ "10", "100" })
+    public int mappings;
+
+    private File dataDir;
+    private File config;
+    private JsonNode tree;
+    private JsonNode patched;
+    private JsonPatch patch;
+    private OverridesPlan plan;
+    private ConfigsController service;
+    private ConfigsController cachedService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataDir = Files.createTempDirectory("datadir").toFile();
+        File configs = new File(dataDir, "configs");
+        configs.mkdirs();
+        config = new File(configs, "localConfig.json");
+        Files.write(config.toPath(), ConfigGenerator.localConfig(plugins).getBytes(StandardCharsets.UTF_8));
+        File patchFile = new File(configs, "localConfig.json.patch");
+        Files.write(patchFile.toPath(), ConfigGenerator.patch(patchOperations, plugins).getBytes(StandardCharsets.UTF_8));
+        Files.write(new File(configs, "pluginsConfig.json").toPath(), ConfigGenerator.pluginsConfig(plugins).getBytes(StandardCharsets.UTF_8));
+        File overrides = new File(dataDir, "overrides.properties");
+        Properties props = ConfigGenerator.overrides(mappings);
+        try (Writer writer = new FileWriter(overrides, StandardCharsets.UTF_8)) {
+            props.store(writer, null);
+        }
+        String mappingsConfig = ConfigGenerator.mappings(mappings, plugins);
+
+        tree = JsonUtils.readTree(config);
+        patch = JsonUtils.getMapper().readValue(patchFile, JsonPatch.class);
+        patched = patch();
+        plan = OverridesPlan.compile(mappingsConfig, props, overrides, overrides.lastModified(), overrides.length());
+
+        service = createService(mappingsConfig, false);
+        cachedService = createService(mappingsConfig, true);
+    }
+
+    private ConfigsController createService(String mappingsConfig, boolean cache) {
+        ConfigsController controller = new ConfigsController();
+        controller.setDataDir(dataDir.getAbsolutePath());
+        controller.setOverrides("overrides.properties");
+        controller.setMappings(mappingsConfig);
+        controller.setConfigsCacheEnabled(cache);
+        return controller;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dataDir.toPath())) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    public JsonNode read() throws IOException {
+        return JsonUtils.readTree(config);
+    }
+
+    @Benchmark
+    public JsonNode patch() throws IOException {
+        try {
+            return patch.apply(tree);
+        } catch (JsonPatchException e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Benchmark
+    public JsonNode copy() {
+        return patched.deepCopy();
+    }
+
+    @Benchmark
+    public JsonNode overrides() {
+        // the plan mutates the tree, so it is applied to a copy
+        return plan.apply(patched.deepCopy());
+    }
+
+    @Benchmark
+    public byte[] toBytes() throws IOException {
+        return JsonUtils.getMapper().writeValueAsBytes(patched);
+    }
+
+    @Benchmark
+    public byte[] materialize() throws IOException {
+        return service.loadResource("localConfig", true);
+    }
+
+    @Benchmark
+    public byte[] cached() throws IOException {
+        return cachedService.loadResource("localConfig", true);
+    }
+
+    @Benchmark
+    public byte[] bootstrap() throws IOException {
+        return cachedService.loadBootstrap("localConfig,pluginsConfig", true, null);
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package it.geosolutions.mapstore.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import it.geosolutions.mapstore.utils.ResourceUtils;
+
+/**
+ * Compares the path helpers of <code>ResourceUtils</code>, used to upload, uninstall and serve extensions,
+ * with the way they were implemented before:
+ * <ul>
+ * <li>resourcePath / legacyResourcePath: a write path under the datadir, with the containment check.
+ * Before, both the base folder and the target were canonicalized on each call</li>
+ * <li>toPosix / legacyToPosix: conversion of a Windows style path</li>
+ * <li>posixJoin / legacyPosixJoin: join of the segments of an extension asset path</li>
+ * </ul>
+ * Run with <code>-prof gc</code> to compare also the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourcePathBenchmark {
+
+    private static final String ASSET = "extensions/MyExtension/assets/translations/data.en-US.json";
+
+    private static final String WINDOWS_PATH = "extensions\\MyExtension\\\\assets\\translations\\data.en-US.json";
+
+    private File dataDir;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataDir = Files.createTempDirectory("datadir").toFile();
+        new File(dataDir, "extensions/MyExtension/assets/translations").mkdirs();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        ResourceUtils.clearCanonicalBases();
+        FileUtils.deleteDirectory(dataDir);
+    }
+
+    @Benchmark
+    public String resourcePath() {
+        return ResourceUtils.getResourcePath(dataDir.getPath(), null, ASSET, true);
+    }
+
+    @Benchmark
+    public String legacyResourcePath() throws IOException {
+        File canonicalBase = dataDir.getCanonicalFile();
+        File canonicalJoined = new File(canonicalBase, ASSET).getCanonicalFile();
+        String basePath = canonicalBase.getCanonicalFile().getPath();
+        String targetPath = canonicalJoined.getPath();
+        if (!targetPath.equals(basePath) && !targetPath.startsWith(basePath + File.separator)) {
+            throw new SecurityException("Path traversal attempt blocked: " + ASSET);
+        }
+        return targetPath;
+    }
+
+    @Benchmark
+    public String toPosix() {
+        return ResourceUtils.toPosix(WINDOWS_PATH);
+    }
+
+    @Benchmark
+    public String legacyToPosix() {
+        String p = WINDOWS_PATH.replace('\\', '/');
+        while (p.contains("//")) {
+            p = p.replace("//", "/");
+        }
+        return p;
+    }
+
+    @Benchmark
+    public String posixJoin() {
+        return ResourceUtils.posixJoinStrict("extensions", "MyExtension/", "assets\\translations", "data.en-US.json");
+    }
+
+    @Benchmark
+    public String legacyPosixJoin() {
+        StringBuilder sb = new StringBuilder();
+        boolean first = true;
+        for (String raw : new String[] { "extensions", "MyExtension/", "assets\\translations", "data.en-US.json" }) {
+            String s = raw.replace('\\', '/');
+            while (s.contains("//")) {
+                s = s.replace("//", "/");
+            }
+            s = s.trim();
+            if (s.startsWith("/") || s.matches("^[A-Za-z]:.*")) {
+                throw new SecurityException("Absolute segment not allowed: " + raw);
+            }
+            if (s.endsWith("/")) s = s.substring(0, s.length() - 1);
+            if (s.equals("..") || s.contains("/../") || s.startsWith("../") || s.endsWith("/..")) {
+                throw new SecurityException("Traversal not allowed in path segment: " + raw);
+            }
+            if (s.equals(".") || s.isEmpty()) {
+                continue;
+            }
+            if (!first) sb.append('/');
+            sb.append(s);
+            first = false;
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,323 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package it.geosolutions.mapstore.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import it.geosolutions.mapstore.utils.AssetUtils;
+
+/**
+ * Cache of asset files (extension bundles, translations, images...) and of their gzip compressed variants.
+ * The contents are kept in direct buffers, outside of the Java heap, so serving hot assets does not produce
+ * garbage to collect, and the memory used is bounded by the total size of the cached contents.
+ * Direct memory is only allocated for the entries admitted in the cache: the contents that are not kept
+ * (cache disabled or full of more popular entries) are returned in heap buffers, released by the garbage collector.
+ *
+ * Each entry is validated against the last modified time and size of its file, unless the file is in a folder
+ * watched by the {@link DataDirWatcher}. When the cache is full, the least frequently used entry is evicted,
+ * and only if the new entry is used more frequently (frequencies are estimated with a small sketch, whose counters
+ * are periodically halved so that old popularity fades), so that a burst of requests to cold assets does not
+ * flush the hot ones.
+ */
+public class AssetCache {
+
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * Bigger files are not cached (nor compressed in memory).
+     */
+    public static final long MAX_FILE_SIZE = 8L * 1024 * 1024;
+
+    private static final AssetCache INSTANCE = new AssetCache(DEFAULT_MAX_BYTES);
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final FrequencySketch sketch = new FrequencySketch(4096);
+    private volatile long maxBytes;
+    private final AtomicLong bytes = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    // incremented on each invalidation, to avoid caching contents read while the files were changing
+    private final AtomicLong generation = new AtomicLong();
+
+    public AssetCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public static AssetCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return true if the cache can keep contents, false if it is disabled (maximum size of 0)
+     */
+    public boolean isEnabled() {
+        return maxBytes > 0;
+    }
+
+    /**
+     * Returns the content of the file, reading it if not in cache or changed.
+     *
+     * @return a read-only buffer, positioned at the beginning of the content
+     */
+    public ByteBuffer get(File file) throws IOException {
+        return lookup(file, false);
+    }
+
+    /**
+     * Returns the gzip compressed content of the file, compressing it if not in cache or changed.
+     *
+     * @return a read-only buffer, positioned at the beginning of the compressed content
+     */
+    public ByteBuffer getGzip(File file) throws IOException {
+        return lookup(file, true);
+    }
+
+    private ByteBuffer lookup(File file, boolean gzip) throws IOException {
+        Key key = new Key(DataDirWatcher.normalize(file.toPath()), gzip);
+        sketch.increment(key);
+        DataDirWatcher watcher = DataDirWatcher.getActive();
+        boolean watched = watcher != null && watcher.isWatched(key.path);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.watched && watched) {
+            hits.increment();
+            return entry.data.duplicate();
+        }
+        BasicFileAttributes attrs = Files.readAttributes(key.path, BasicFileAttributes.class);
+        long modified = attrs.lastModifiedTime().toMillis();
+        long size = attrs.size();
+        if (entry != null && entry.modified == modified && entry.size == size) {
+            hits.increment();
+            return entry.data.duplicate();
+        }
+        misses.increment();
+        long currentGeneration = generation.get();
+        byte[] content = gzip ? AssetUtils.gzip(read(key.path, size)) : read(key.path, size);
+        // the file may have changed while reading, in this case the content is not cached
+        attrs = Files.readAttributes(key.path, BasicFileAttributes.class);
+        if (currentGeneration == generation.get() && attrs.lastModifiedTime().toMillis() == modified && attrs.size() == size) {
+            ByteBuffer data = admit(key, modified, size, content, watched);
+            if (data != null) {
+                return data.duplicate();
+            }
+        }
+        return ByteBuffer.wrap(content).asReadOnlyBuffer();
+    }
+
+    private static byte[] read(Path path, long size) throws IOException {
+        if (size > MAX_FILE_SIZE) {
+            throw new IOException("File too big to be cached: " + path);
+        }
+        return Files.readAllBytes(path);
+    }
+
+    /**
+     * Stores the content in a direct buffer, if the cache has room for it or less popular entries to evict.
+     *
+     * @return the cached buffer, null if the content is not kept
+     */
+    private synchronized ByteBuffer admit(Key key, long modified, long fileSize, byte[] content, boolean watched) {
+        long size = content.length;
+        if (size > maxBytes) {
+            return null;
+        }
+        remove(key);
+        while (bytes.get() + size > maxBytes) {
+            Key victim = leastFrequent();
+            if (victim == null || sketch.frequency(victim) > sketch.frequency(key)) {
+                // the resident entries are more popular than the new one
+                return null;
+            }
+            remove(victim);
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(content.length);
+        buffer.put(content).flip();
+        ByteBuffer data = buffer.asReadOnlyBuffer();
+        entries.put(key, new Entry(modified, fileSize, data, watched));
+        bytes.addAndGet(size);
+        return data;
+    }
+
+    private Key leastFrequent() {
+        Key victim = null;
+        int min = Integer.MAX_VALUE;
+        for (Key key : entries.keySet()) {
+            int frequency = sketch.frequency(key);
+            if (frequency < min) {
+                min = frequency;
+                victim = key;
+            }
+        }
+        return victim;
+    }
+
+    /**
+     * Removes the contents of the given file, or of the files inside the given directory.
+     */
+    public synchronized void invalidate(Path path) {
+        generation.incrementAndGet();
+        Path changed = DataDirWatcher.normalize(path);
+        for (Key key : entries.keySet()) {
+            if (key.path.startsWith(changed)) {
+                remove(key);
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+        bytes.set(0);
+    }
+
+    /**
+     * @param maxBytes the maximum total size of the cached contents, in bytes (0 to disable the cache)
+     */
+    public synchronized void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+        while (bytes.get() > maxBytes) {
+            remove(leastFrequent());
+        }
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private void remove(Key key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            bytes.addAndGet(-removed.data.capacity());
+        }
+    }
+
+    private static final class Key {
+        private final Path path;
+        private final boolean gzip;
+
+        Key(Path path, boolean gzip) {
+            this.path = path;
+            this.gzip = gzip;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return gzip == other.gzip && path.equals(other.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return path.hashCode() * 31 + (gzip ? 1 : 0);
+        }
+    }
+
+    private static final class Entry {
+        private final long modified;
+        private final long size;
+        private final ByteBuffer data;
+        // created while the file was watched, so changes are notified
+        private final boolean watched;
+
+        Entry(long modified, long size, ByteBuffer data, boolean watched) {
+            this.modified = modified;
+            this.size = size;
+            this.data = data;
+            this.watched = watched;
+        }
+    }
+
+    /**
+     * Approximate access frequencies (count-min sketch with 4 bit counters). Counters are not synchronized:
+     * increments lost under contention only make the estimates a bit lower, which is harmless for eviction.
+     */
+    static final class FrequencySketch {
+        private static final int MAX_COUNT = 15;
+
+        private final int[] counters;
+        private final int mask;
+        private final int resetThreshold;
+        private int additions;
+
+        FrequencySketch(int size) {
+            int capacity = Integer.highestOneBit(Math.max(16, size - 1) << 1);
+            this.counters = new int[capacity];
+            this.mask = capacity - 1;
+            this.resetThreshold = capacity * 10;
+        }
+
+        void increment(Object key) {
+            int hash = spread(key.hashCode());
+            for (int i = 0; i < 4; i++) {
+                int index = index(hash, i);
+                if (counters[index] < MAX_COUNT) {
+                    counters[index]++;
+                }
+            }
+            if (++additions >= resetThreshold) {
+                reset();
+            }
+        }
+
+        int frequency(Object key) {
+            int hash = spread(key.hashCode());
+            int frequency = MAX_COUNT;
+            for (int i = 0; i < 4; i++) {
+                frequency = Math.min(frequency, counters[index(hash, i)]);
+            }
+            return frequency;
+        }
+
+        private void reset() {
+            additions = 0;
+            for (int i = 0; i < counters.length; i++) {
+                counters[i] >>>= 1;
+            }
+        }
+
+        private int index(int hash, int i) {
+            int h = hash * (0x9E3779B9 + 2 * i) + i;
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        private static int spread(int hash) {
+            int h = hash * 0x45d9f3b;
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -0,0 +1,367 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package it.geosolutions.mapstore.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import it.geosolutions.mapstore.utils.AssetUtils;
+
+/**
+ * Cache of materialized configuration files, as sent to the client (base JSON + patch + overrides).
+ * Entries are keyed by the resolved input files and the overrides settings, and validated against
+ * the last modified time and size of every input, so any change to the base file, the patch or the
+ * overrides properties causes the configuration to be materialized again.
+ * When all the inputs are in folders watched by the {@link DataDirWatcher}, entries are trusted without
+ * checking the files, until the watcher notifies a change.
+ *
+ * The cache also provides a strong ETag for each configuration, computed from its inputs, so that
+ * conditional requests can be answered without materializing the configuration, and keeps the gzip
+ * compressed variant of each configuration, built on first request.
+ *
+ * The cache is a static singleton, shared by the dispatcher servlets of the webapp: they have their own Spring
+ * application context, but the same servlet context and class loader.
+ */
+public class ConfigCache {
+
+    /**
+     * Materializes a configuration when it is not in cache.
+     */
+    @FunctionalInterface
+    public interface Loader {
+        byte[] load() throws IOException;
+    }
+
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+
+    private static final ConfigCache INSTANCE = new ConfigCache(DEFAULT_MAX_ENTRIES);
+
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    // incremented on each invalidation, to avoid caching results loaded while the inputs were changing
+    private final AtomicLong generation = new AtomicLong();
+
+    public ConfigCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public static ConfigCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the cached configuration for the given key, if still valid, otherwise materializes it using the loader
+     * and caches the result.
+     *
+     * @param key    the inputs of the configuration
+     * @param loader materializes the configuration
+     * @return the configuration bytes
+     */
+    public byte[] get(Key key, Loader loader) throws IOException {
+        return lookup(key, loader).data;
+    }
+
+    /**
+     * Returns the gzip compressed variant of the configuration. The variant is built once for each cached
+     * configuration.
+     *
+     * @param key    the inputs of the configuration
+     * @param loader materializes the configuration
+     * @return the compressed configuration bytes
+     */
+    public byte[] getGzip(Key key, Loader loader) throws IOException {
+        return lookup(key, loader).gzip();
+    }
+
+    private Entry lookup(Key key, Loader loader) throws IOException {
+        DataDirWatcher watcher = DataDirWatcher.getActive();
+        boolean watched = watcher != null && key.isWatchedBy(watcher);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.watched && watched) {
+            hits.increment();
+            return entry;
+        }
+        long currentGeneration = generation.get();
+        Fingerprint current = Fingerprint.of(key.getInputs());
+        if (entry != null && entry.fingerprint.equals(current)) {
+            hits.increment();
+            return entry;
+        }
+        misses.increment();
+        entry = new Entry(current, key.etag(current), loader.load(), watched);
+        // inputs may have changed while loading, in this case the result is not cached
+        if (currentGeneration == generation.get() && current.equals(Fingerprint.of(key.getInputs()))) {
+            if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+                evictOne();
+            }
+            entries.put(key, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Returns the strong ETag of the configuration identified by the key, computed from the paths,
+     * last modified times and sizes of the inputs and from the overrides settings.
+     * The configuration does not need to be materialized.
+     *
+     * @param key the inputs of the configuration
+     * @return the quoted ETag
+     */
+    public String getETag(Key key) throws IOException {
+        DataDirWatcher watcher = DataDirWatcher.getActive();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.watched && watcher != null && key.isWatchedBy(watcher)) {
+            return entry.etag;
+        }
+        return key.etag(Fingerprint.of(key.getInputs()));
+    }
+
+    /**
+     * Returns a strong ETag for a set of configurations sent together, computed from the ETag of each one.
+     * It changes when any of the configurations changes, or when a configuration is added or removed.
+     *
+     * @param keys the inputs of each configuration, by name
+     * @return the quoted ETag
+     */
+    public String getETag(Map<String, Key> keys) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Map.Entry<String, Key> key : keys.entrySet()) {
+                digest.update((key.getKey() + "\u0000" + getETag(key.getValue()) + "\u0000").getBytes(StandardCharsets.UTF_8));
+            }
+            return toETag(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toETag(MessageDigest digest) {
+        StringBuilder etag = new StringBuilder("\"");
+        byte[] hash = digest.digest();
+        // 128 bits are enough to identify a version of the configuration
+        for (int i = 0; i < 16; i++) {
+            etag.append(Character.forDigit((hash[i] >> 4) & 0xF, 16)).append(Character.forDigit(hash[i] & 0xF, 16));
+        }
+        return etag.append('"').toString();
+    }
+
+    /**
+     * Removes all the entries that depend on the given file, or on files inside the given directory.
+     */
+    public void invalidate(Path path) {
+        generation.incrementAndGet();
+        Path changed = DataDirWatcher.normalize(path);
+        entries.keySet().removeIf(key -> key.dependsOn(changed));
+    }
+
+    public void invalidate(File file) {
+        invalidate(file.toPath());
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private void evictOne() {
+        Iterator<Key> it = entries.keySet().iterator();
+        if (it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    /**
+     * Identifies a materialized configuration: the base file, the optional patch and overrides files,
+     * and the overrides settings used to build it.
+     */
+    public static final class Key {
+        private final File resource;
+        private final File patch;
+        private final File overrides;
+        private final boolean applyOverrides;
+        private final String mappings;
+        private final Path[] paths;
+        private final int hash;
+
+        public Key(File resource, Optional<File> patch, Optional<File> overrides, boolean applyOverrides, String mappings) {
+            this.resource = Objects.requireNonNull(resource);
+            this.patch = patch.orElse(null);
+            this.overrides = overrides.orElse(null);
+            this.applyOverrides = applyOverrides;
+            this.mappings = mappings != null ? mappings : "";
+            this.paths = Arrays.stream(getInputs()).filter(Objects::nonNull)
+                .map(file -> DataDirWatcher.normalize(file.toPath())).toArray(Path[]::new);
+            this.hash = Objects.hash(this.resource, this.patch, this.overrides, applyOverrides, this.mappings);
+        }
+
+        public File getResource() {
+            return resource;
+        }
+
+        public Optional<File> getPatch() {
+            return Optional.ofNullable(patch);
+        }
+
+        File[] getInputs() {
+            return new File[] { resource, patch, overrides };
+        }
+
+        String etag(Fingerprint fingerprint) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                for (File input : getInputs()) {
+                    digest.update(String.valueOf(input).getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) 0);
+                }
+                digest.update((applyOverrides + "\u0000" + mappings).getBytes(StandardCharsets.UTF_8));
+                for (long value : fingerprint.values) {
+                    for (int i = 0; i < 8; i++) {
+                        digest.update((byte) (value >>> (i * 8)));
+                    }
+                }
+                return toETag(digest);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        boolean dependsOn(Path path) {
+            for (Path input : paths) {
+                if (input.startsWith(path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean isWatchedBy(DataDirWatcher watcher) {
+            for (Path input : paths) {
+                if (!watcher.isWatched(input)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return applyOverrides == other.applyOverrides
+                && resource.equals(other.resource)
+                && Objects.equals(patch, other.patch)
+                && Objects.equals(overrides, other.overrides)
+                && mappings.equals(other.mappings);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Last modified time and size of each input file (-1 for missing files).
+     */
+    static final class Fingerprint {
+        private final long[] values;
+
+        private Fingerprint(long[] values) {
+            this.values = values;
+        }
+
+        static Fingerprint of(File[] files) throws IOException {
+            long[] values = new long[files.length * 2];
+            for (int i = 0; i < files.length; i++) {
+                long modified = -1;
+                long size = -1;
+                if (files[i] != null) {
+                    try {
+                        BasicFileAttributes attrs = Files.readAttributes(files[i].toPath(), BasicFileAttributes.class);
+                        modified = attrs.lastModifiedTime().toMillis();
+                        size = attrs.size();
+                    } catch (NoSuchFileException e) {
+                        // removed file, the fingerprint will not match anymore
+                    }
+                }
+                values[i * 2] = modified;
+                values[i * 2 + 1] = size;
+            }
+            return new Fingerprint(values);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Fingerprint && Arrays.equals(values, ((Fingerprint) obj).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(values);
+        }
+    }
+
+    private static final class Entry {
+        private final Fingerprint fingerprint;
+        private final String etag;
+        private final byte[] data;
+        // created while all the inputs were watched, so changes are notified
+        private final boolean watched;
+        private volatile byte[] gzip;
+
+        Entry(Fingerprint fingerprint, String etag, byte[] data, boolean watched) {
+            this.fingerprint = fingerprint;
+            this.etag = etag;
+            this.data = data;
+            this.watched = watched;
+        }
+
+        byte[] gzip() {
+            byte[] compressed = gzip;
+            if (compressed == null) {
+                compressed = AssetUtils.gzip(data);
+                gzip = compressed;
+            }
+            return compressed;
+        }
+    }
+}
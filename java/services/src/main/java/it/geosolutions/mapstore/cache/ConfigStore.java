@@ -0,0 +1,199 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package it.geosolutions.mapstore.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import it.geosolutions.mapstore.cache.ConfigCache.Fingerprint;
+import it.geosolutions.mapstore.utils.JsonUtils;
+import it.geosolutions.mapstore.utils.ResourceUtils;
+
+/**
+ * In-memory store of the JSON documents edited by the back-end (the extensions registry, the plugins configuration
+ * or its patch).
+ * <p>
+ * Each document is parsed once and kept as a snapshot until the file changes (last modified time and size, as for the
+ * {@link ConfigCache}). Snapshots are never modified after they are published, so readers get them without locks;
+ * they must not modify them either.
+ * <p>
+ * Changes are applied by a single writer thread, one at a time, so concurrent operations (e.g. two extensions
+ * installed at once) do not lose each other's updates: each change is applied to the latest version of the document,
+ * persisted atomically (see {@link ResourceUtils#writeAtomically(Path, byte[])}) and then published as the new snapshot.
+ * The writer thread is started by the first change and stopped with the webapp (see {@link #shutdown()}).
+ */
+public class ConfigStore {
+
+    /**
+     * A change to a document.
+     */
+    @FunctionalInterface
+    public interface Mutation {
+        /**
+         * @param current a copy of the current document, that can be modified, null if the document does not exist
+         * @return the new document, null to leave the document as is
+         */
+        JsonNode apply(JsonNode current) throws IOException;
+    }
+
+    private static final ConfigStore INSTANCE = new ConfigStore();
+
+    /**
+     * Seconds to wait for the pending changes to be written, on shutdown.
+     */
+    private static final long SHUTDOWN_TIMEOUT = 10;
+
+    private final ConcurrentHashMap<Path, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private ExecutorService writer;
+    private volatile Thread writerThread;
+
+    public static ConfigStore getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the current document stored in the file, parsed only when the file changed since the last time.
+     * The document is shared and must not be modified.
+     *
+     * @return the document, null if the file does not exist
+     */
+    public JsonNode get(File file) throws IOException {
+        Path key = file.toPath().toAbsolutePath();
+        Fingerprint current = Fingerprint.of(new File[] {file});
+        Snapshot snapshot = snapshots.get(key);
+        if (snapshot != null && snapshot.fingerprint.equals(current)) {
+            return snapshot.json;
+        }
+        if (!file.isFile()) {
+            snapshots.remove(key);
+            return null;
+        }
+        JsonNode json = JsonUtils.readTree(file);
+        // published only if the file did not change while reading it
+        if (current.equals(Fingerprint.of(new File[] {file}))) {
+            snapshots.put(key, new Snapshot(current, json));
+        }
+        return json;
+    }
+
+    /**
+     * Applies a change to a document and stores it in the target file, waiting for the change to be written.
+     * Changes are applied one at a time, each one to the result of the previous one.
+     *
+     * @param source   the file the document is currently read from, when the target does not exist yet
+     *                 (e.g. the default one in the webapp, before it is first saved in the datadir), null if none
+     * @param target   the file to write
+     * @param mutation the change
+     * @return the new document (shared, must not be modified), or the current one if the mutation did not change it
+     */
+    public JsonNode update(File source, File target, Mutation mutation) throws IOException {
+        if (Thread.currentThread() == writerThread) {
+            return write(source, target, mutation);
+        }
+        Future<JsonNode> result = getWriter().submit(() -> write(source, target, mutation));
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to store " + target);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private JsonNode write(File source, File target, Mutation mutation) throws IOException {
+        JsonNode current = target.isFile() || source == null ? get(target) : get(source);
+        JsonNode updated = mutation.apply(current != null ? current.deepCopy() : null);
+        if (updated == null) {
+            return current;
+        }
+        File folder = target.getAbsoluteFile().getParentFile();
+        if (folder != null && !folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Unable to create parent directories for: " + target);
+        }
+        ResourceUtils.writeAtomically(target.toPath(), String.valueOf(updated).getBytes(StandardCharsets.UTF_8));
+        snapshots.put(target.toPath().toAbsolutePath(), new Snapshot(Fingerprint.of(new File[] {target}), updated));
+        // written paths are canonical, they may not match the cached candidates (e.g. symbolic links)
+        ResolutionCache.getInstance().clear();
+        return updated;
+    }
+
+    /**
+     * Stops the writer thread, once the pending changes are written (waiting at most {@value #SHUTDOWN_TIMEOUT} seconds).
+     * A new thread is started by the next change.
+     */
+    public void shutdown() {
+        ExecutorService stopped;
+        synchronized (this) {
+            stopped = writer;
+            writer = null;
+        }
+        if (stopped == null) {
+            return;
+        }
+        stopped.shutdown();
+        try {
+            if (!stopped.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS)) {
+                stopped.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            stopped.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized ExecutorService getWriter() {
+        if (writer == null) {
+            writer = Executors.newSingleThreadExecutor(task -> {
+                Thread thread = new Thread(task, "mapstore-config-writer");
+                thread.setDaemon(true);
+                writerThread = thread;
+                return thread;
+            });
+        }
+        return writer;
+    }
+
+    /**
+     * Forgets all the documents, they are parsed again on next access.
+     */
+    public void clear() {
+        snapshots.clear();
+    }
+
+    private static final class Snapshot {
+        private final Fingerprint fingerprint;
+        private final JsonNode json;
+
+        Snapshot(Fingerprint fingerprint, JsonNode json) {
+            this.fingerprint = fingerprint;
+            this.json = json;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package it.geosolutions.mapstore.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Warms up the caches at startup, materializing the configuration files and loading the main assets in parallel,
+ * so that the first requests after a deploy do not pay the cost of reading, patching and compressing them.
+ *
+ * Each controller starts the warm-up of its own resources on a dedicated fork-join pool, that is shut down when done.
+ * The application is ready when all the started warm-ups are complete. The time spent on each resource is logged
+ * and kept, to be reported by the readiness service.
+ */
+public class ConfigWarmup {
+
+    /**
+     * Loads a resource into the caches.
+     */
+    @FunctionalInterface
+    public interface Task {
+        void run() throws Exception;
+    }
+
+    /**
+     * Outcome of the warm-up of a resource.
+     */
+    public static final class Result {
+        private final String resource;
+        private final long millis;
+        private final String error;
+
+        Result(String resource, long millis, String error) {
+            this.resource = resource;
+            this.millis = millis;
+            this.error = error;
+        }
+
+        public String getResource() {
+            return resource;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        /**
+         * @return the error message, null if the resource has been loaded
+         */
+        public String getError() {
+            return error;
+        }
+    }
+
+    private static final Logger LOGGER = LogManager.getLogger(ConfigWarmup.class);
+
+    private static final ConfigWarmup INSTANCE = new ConfigWarmup();
+
+    private final AtomicInteger pending = new AtomicInteger();
+    private final ConcurrentLinkedQueue<Result> results = new ConcurrentLinkedQueue<>();
+
+    public static ConfigWarmup getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts the warm-up of the given resources, in parallel.
+     *
+     * @param name        name of the warm-up, for logging
+     * @param tasks       the task loading each resource, by resource name
+     * @param parallelism the number of threads to use (0 for the number of processors)
+     * @return completed when all the resources are loaded (or failed)
+     */
+    public CompletableFuture<Void> start(String name, Map<String, Task> tasks, int parallelism) {
+        if (tasks.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        pending.incrementAndGet();
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        List<CompletableFuture<Void>> futures = new ArrayList<>(tasks.size());
+        for (Map.Entry<String, Task> task : tasks.entrySet()) {
+            futures.add(CompletableFuture.runAsync(() -> results.add(load(task.getKey(), task.getValue())), pool));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).whenComplete((result, error) -> {
+            pool.shutdown();
+            pending.decrementAndGet();
+            LOGGER.info("{} warm-up of {} resources completed in {} ms", name, tasks.size(),
+                (System.nanoTime() - start) / 1_000_000);
+        });
+    }
+
+    private static Result load(String resource, Task task) {
+        long start = System.nanoTime();
+        String error = null;
+        try {
+            task.run();
+        } catch (Exception e) {
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            LOGGER.warn("Unable to warm up {}: {}", resource, error);
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        LOGGER.debug("Warmed up {} in {} ms", resource, millis);
+        return new Result(resource, millis, error);
+    }
+
+    /**
+     * @return true when all the started warm-ups are complete
+     */
+    public boolean isReady() {
+        return pending.get() == 0;
+    }
+
+    /**
+     * @return the outcome of the warm-up of each resource loaded so far, slowest first
+     */
+    public List<Result> getResults() {
+        List<Result> list = new ArrayList<>(results);
+        list.sort(Comparator.comparingLong(Result::getMillis).reversed());
+        return Collections.unmodifiableList(list);
+    }
+}
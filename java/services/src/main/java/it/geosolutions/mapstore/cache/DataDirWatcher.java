@@ -0,0 +1,386 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package it.geosolutions.mapstore.cache;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Watches the data directory folders and notifies the in-memory caches when files are created, modified or deleted,
+ * so that the caches can trust their entries without checking the file-system on each request.
+ *
+ * Changes are detected using a {@link WatchService} by default. On file-systems where native events are not reliable
+ * (e.g. NFS mounts) the watcher can be configured to poll the folders at a fixed interval.
+ * The watcher falls back to polling also when the folders cannot be registered on the watch service.
+ *
+ * Only one watcher is active in the web application, shared by all the controllers.
+ */
+public class DataDirWatcher {
+
+    /**
+     * Receives the changes of the watched folders.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * @param path the changed file, or a watched directory when the changes inside it are unknown (events lost)
+         */
+        void onChange(Path path);
+    }
+
+    private static final Logger LOGGER = LogManager.getLogger(DataDirWatcher.class);
+
+    private static volatile DataDirWatcher instance;
+
+    private final boolean polling;
+    private final long pollingInterval;
+    private final Set<Path> watchedDirs = ConcurrentHashMap.newKeySet();
+    private final Set<Path> recursiveRoots = ConcurrentHashMap.newKeySet();
+    // folders to watch that do not exist yet, with their recursive flag
+    private final Map<Path, Boolean> pendingDirs = new ConcurrentHashMap<>();
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private WatchService watchService;
+    private Thread watchThread;
+    private ScheduledExecutorService poller;
+    private final Map<Path, long[]> snapshot = new HashMap<>();
+    private volatile boolean running = true;
+
+    DataDirWatcher(boolean polling, long pollingInterval) {
+        this.polling = polling;
+        this.pollingInterval = pollingInterval;
+    }
+
+    /**
+     * Returns the watcher of the web application, creating it on first call.
+     * The watching mode is decided by the first caller.
+     *
+     * @param polling         poll the folders instead of using native file-system events
+     * @param pollingInterval interval of polling, in milliseconds
+     */
+    public static synchronized DataDirWatcher getInstance(boolean polling, long pollingInterval) {
+        if (instance == null) {
+            instance = new DataDirWatcher(polling, pollingInterval);
+            instance.addListener(ConfigCache.getInstance()::invalidate);
+            instance.addListener(AssetCache.getInstance()::invalidate);
+            instance.addListener(ResolutionCache.getInstance()::invalidate);
+        }
+        return instance;
+    }
+
+    /**
+     * @return the active watcher, if any
+     */
+    public static DataDirWatcher getActive() {
+        return instance;
+    }
+
+    /**
+     * Stops the active watcher, if any.
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.stop();
+            instance = null;
+        }
+    }
+
+    /**
+     * Registers the data directory folders to watch: each folder of the comma-separated list, with its configs folder
+     * and the whole extensions tree.
+     *
+     * @param dataDir          comma-separated list of data directory folders
+     * @param configsFolder    configs folder, relative to each data directory folder
+     * @param extensionsFolder extensions folder, relative to each data directory folder
+     */
+    public void watchDataDir(String dataDir, String configsFolder, String extensionsFolder) {
+        if (dataDir == null) {
+            return;
+        }
+        for (String folder : dataDir.split(",")) {
+            if (folder.trim().isEmpty()) {
+                continue;
+            }
+            Path root = normalize(Paths.get(folder.trim()));
+            watch(root, false);
+            watch(root.resolve(configsFolder), false);
+            watch(root.resolve(extensionsFolder), true);
+        }
+    }
+
+    /**
+     * Registers a directory to watch, if it exists.
+     *
+     * @param dir       the directory
+     * @param recursive watch also all the sub-directories (present and future)
+     */
+    public synchronized void watch(Path dir, boolean recursive) {
+        Path path = normalize(dir);
+        if (!running || watchedDirs.contains(path)) {
+            return;
+        }
+        if (!Files.isDirectory(path)) {
+            pendingDirs.put(path, recursive);
+            return;
+        }
+        pendingDirs.remove(path);
+        if (recursive) {
+            recursiveRoots.add(path);
+        }
+        try {
+            if (polling || !registerNative(path, recursive)) {
+                registerPolling(path, recursive);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Unable to watch folder {}, changes will not be notified", path, e);
+        }
+    }
+
+    /**
+     * Tells if changes to the given file are notified by this watcher.
+     */
+    public boolean isWatched(File file) {
+        return isWatched(normalize(file.toPath()));
+    }
+
+    /**
+     * Tells if changes to the given file are notified by this watcher.
+     *
+     * @param file absolute and normalized path of the file
+     */
+    public boolean isWatched(Path file) {
+        Path parent = file.getParent();
+        return running && parent != null && watchedDirs.contains(parent);
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public boolean isPolling() {
+        return polling;
+    }
+
+    synchronized void stop() {
+        running = false;
+        watchedDirs.clear();
+        pendingDirs.clear();
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                LOGGER.warn("Error closing the data directory watch service", e);
+            }
+        }
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+    }
+
+    private boolean registerNative(Path dir, boolean recursive) throws IOException {
+        try {
+            if (watchService == null) {
+                watchService = FileSystems.getDefault().newWatchService();
+                watchThread = new Thread(this::processEvents, "mapstore-datadir-watcher");
+                watchThread.setDaemon(true);
+                watchThread.start();
+            }
+            registerTree(dir, recursive);
+            return true;
+        } catch (UnsupportedOperationException | IOException e) {
+            LOGGER.warn("Native file-system events are not available for {}, falling back to polling", dir, e);
+            return false;
+        }
+    }
+
+    private void registerTree(Path dir, boolean recursive) throws IOException {
+        dir.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+        watchedDirs.add(dir);
+        if (recursive) {
+            try (DirectoryStream<Path> children = Files.newDirectoryStream(dir, Files::isDirectory)) {
+                for (Path child : children) {
+                    registerTree(child, true);
+                }
+            }
+        }
+    }
+
+    private void processEvents() {
+        while (running) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            Path dir = (Path) key.watchable();
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == OVERFLOW) {
+                    notifyChange(dir);
+                    continue;
+                }
+                Path changed = dir.resolve((Path) event.context());
+                Boolean pendingRecursive = pendingDirs.get(changed);
+                if (event.kind() == ENTRY_CREATE && pendingRecursive != null) {
+                    watch(changed, pendingRecursive);
+                } else if (event.kind() == ENTRY_CREATE && isInRecursiveRoot(changed)
+                        && Files.isDirectory(changed, LinkOption.NOFOLLOW_LINKS)) {
+                    synchronized (this) {
+                        try {
+                            registerTree(changed, true);
+                        } catch (IOException e) {
+                            LOGGER.warn("Unable to watch folder {}", changed, e);
+                        }
+                    }
+                }
+                if (event.kind() == ENTRY_DELETE) {
+                    watchedDirs.remove(changed);
+                }
+                notifyChange(changed);
+            }
+            if (!key.reset()) {
+                watchedDirs.remove(dir);
+                notifyChange(dir);
+            }
+        }
+    }
+
+    private void registerPolling(Path dir, boolean recursive) throws IOException {
+        if (poller == null) {
+            poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "mapstore-datadir-poller");
+                thread.setDaemon(true);
+                return thread;
+            });
+            poller.scheduleWithFixedDelay(this::poll, pollingInterval, pollingInterval, TimeUnit.MILLISECONDS);
+        }
+        watchedDirs.add(dir);
+        synchronized (snapshot) {
+            scan(dir, recursive, snapshot, null);
+        }
+    }
+
+    private void poll() {
+        try {
+            Map<Path, long[]> current = new HashMap<>();
+            Set<Path> changes = new HashSet<>();
+            for (Map.Entry<Path, Boolean> pending : pendingDirs.entrySet()) {
+                if (Files.isDirectory(pending.getKey())) {
+                    watch(pending.getKey(), pending.getValue());
+                }
+            }
+            synchronized (this) {
+                for (Path dir : watchedDirs) {
+                    // sub-directories of the recursive roots are scanned with their root
+                    if (!recursiveRoots.contains(dir) && isInRecursiveRoot(dir)) {
+                        continue;
+                    }
+                    scan(dir, recursiveRoots.contains(dir), current, watchedDirs);
+                }
+            }
+            synchronized (snapshot) {
+                for (Map.Entry<Path, long[]> entry : current.entrySet()) {
+                    long[] previous = snapshot.get(entry.getKey());
+                    if (previous == null || previous[0] != entry.getValue()[0] || previous[1] != entry.getValue()[1]) {
+                        changes.add(entry.getKey());
+                    }
+                }
+                for (Path path : snapshot.keySet()) {
+                    if (!current.containsKey(path)) {
+                        changes.add(path);
+                    }
+                }
+                snapshot.clear();
+                snapshot.putAll(current);
+            }
+            for (Path path : changes) {
+                notifyChange(path);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warn("Error polling the data directory", e);
+        }
+    }
+
+    private void scan(Path dir, boolean recursive, Map<Path, long[]> target, Set<Path> dirs) {
+        try (Stream<Path> files = recursive ? Files.walk(dir) : Files.list(dir)) {
+            files.forEach(path -> {
+                try {
+                    BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+                    if (attrs.isDirectory()) {
+                        if (recursive && dirs != null) {
+                            dirs.add(path);
+                        }
+                    } else {
+                        target.put(path, new long[] { attrs.lastModifiedTime().toMillis(), attrs.size() });
+                    }
+                } catch (IOException e) {
+                    // removed while scanning, will be notified at next poll
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            // folder removed, files will be notified as deleted
+        }
+    }
+
+    private boolean isInRecursiveRoot(Path path) {
+        for (Path root : recursiveRoots) {
+            if (path.startsWith(root)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void notifyChange(Path path) {
+        for (Listener listener : listeners) {
+            try {
+                listener.onChange(path);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Error notifying change of {}", path, e);
+            }
+        }
+    }
+
+    static Path normalize(Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package it.geosolutions.mapstore.cache;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import it.geosolutions.mapstore.utils.ResourceUtils;
+import jakarta.servlet.ServletContext;
+
+/**
+ * Cache of resource resolutions: maps a resource name to the file found in the datadir folders or in the
+ * web application root, or to the fact that the resource does not exist (e.g. the patch files that are looked up
+ * on each configuration request, but usually are not present).
+ *
+ * An entry is trusted without checking the file-system:
+ * <ul>
+ * <li>until the {@link DataDirWatcher} notifies a change of one of the candidate paths, if all the datadir candidates
+ * are in watched folders (the web application root is not expected to change, but writes done by MapStore itself
+ * invalidate the cache as well)</li>
+ * <li>for the configured time to live otherwise. With a time to live of 0, unwatched resolutions are not cached.</li>
+ * </ul>
+ */
+public class ResolutionCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+    private static final ResolutionCache INSTANCE = new ResolutionCache(DEFAULT_MAX_ENTRIES);
+
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private volatile long ttl = 0;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder notFound = new LongAdder();
+    // incremented on each invalidation, to avoid caching resolutions done while the folders were changing
+    private final AtomicLong generation = new AtomicLong();
+
+    public ResolutionCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public static ResolutionCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Finds a resource in a list of folders and at last in the web application context path, like
+     * {@link ResourceUtils#findResource(String, ServletContext, String)}, using the cached resolution if still valid.
+     *
+     * @param baseFolders  comma-delimited list of folders, in order of search
+     * @param context      web application context (last resource), can be null
+     * @param resourceName name of the resource to be found
+     */
+    public Optional<File> findResource(String baseFolders, ServletContext context, String resourceName) {
+        return resolve(baseFolders, context, resourceName,
+            () -> ResourceUtils.getCandidates(baseFolders, context, resourceName));
+    }
+
+    /**
+     * Returns the first existing candidate for the given resource, using the cached resolution if still valid.
+     *
+     * @param baseFolders  comma-delimited list of datadir folders
+     * @param context      web application context, can be null
+     * @param resourceName name of the resource
+     * @param candidates   supplies the candidate paths, in order of search. The last one is the web application path,
+     *                     null if not available
+     * @return the resolved file, empty if the resource does not exist
+     */
+    public Optional<File> resolve(String baseFolders, Object context, String resourceName, Supplier<String[]> candidates) {
+        DataDirWatcher watcher = DataDirWatcher.getActive();
+        long timeToLive = ttl;
+        if (timeToLive <= 0 && watcher == null) {
+            return countNotFound(ResourceUtils.findExisting(candidates.get()).map(File::new));
+        }
+        Key key = new Key(baseFolders, context, resourceName);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.isValid(watcher, System.nanoTime())) {
+            hits.increment();
+            return entry.resolved;
+        }
+        misses.increment();
+        long currentGeneration = generation.get();
+        String[] paths = candidates.get();
+        Optional<File> resolved = countNotFound(ResourceUtils.findExisting(paths).map(File::new));
+        Path[] normalized = new Path[paths.length];
+        boolean watched = watcher != null;
+        for (int i = 0; i < paths.length; i++) {
+            if (paths[i] != null) {
+                normalized[i] = DataDirWatcher.normalize(Paths.get(paths[i]));
+                // the last candidate is in the web application root
+                watched = watched && (i == paths.length - 1 || watcher.isWatched(normalized[i]));
+            }
+        }
+        if ((watched || timeToLive > 0) && currentGeneration == generation.get()) {
+            if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+                evictOne();
+            }
+            long expiration = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeToLive);
+            entries.put(key, new Entry(resolved, normalized, watched ? watcher : null, expiration));
+        }
+        return resolved;
+    }
+
+    /**
+     * Removes the resolutions that involve the given file, or files inside the given directory.
+     */
+    public void invalidate(Path path) {
+        generation.incrementAndGet();
+        Path changed = DataDirWatcher.normalize(path);
+        entries.values().removeIf(entry -> entry.dependsOn(changed));
+    }
+
+    public void invalidate(File file) {
+        invalidate(file.toPath());
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * @param ttl time to live of the resolutions not covered by the datadir watcher, in milliseconds (0 to not cache them)
+     */
+    public void setTtl(long ttl) {
+        this.ttl = ttl;
+    }
+
+    public long getTtl() {
+        return ttl;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of look-ups on the file-system that did not find the resource
+     */
+    public long getNotFound() {
+        return notFound.sum();
+    }
+
+    private Optional<File> countNotFound(Optional<File> resolved) {
+        if (!resolved.isPresent()) {
+            notFound.increment();
+        }
+        return resolved;
+    }
+
+    private void evictOne() {
+        Iterator<Key> it = entries.keySet().iterator();
+        if (it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static final class Key {
+        private final String baseFolders;
+        // compared by identity, each servlet context has its own root
+        private final Object context;
+        private final String resourceName;
+        private final int hash;
+
+        Key(String baseFolders, Object context, String resourceName) {
+            this.baseFolders = baseFolders != null ? baseFolders : "";
+            this.context = context;
+            this.resourceName = resourceName;
+            this.hash = Objects.hash(this.baseFolders, System.identityHashCode(context), resourceName);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return context == other.context
+                && baseFolders.equals(other.baseFolders)
+                && Objects.equals(resourceName, other.resourceName);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry {
+        private final Optional<File> resolved;
+        private final Path[] candidates;
+        // the watcher notifying the changes of all the candidates, if any
+        private final DataDirWatcher watcher;
+        private final long expiration;
+
+        Entry(Optional<File> resolved, Path[] candidates, DataDirWatcher watcher, long expiration) {
+            this.resolved = resolved;
+            this.candidates = candidates;
+            this.watcher = watcher;
+            this.expiration = expiration;
+        }
+
+        boolean isValid(DataDirWatcher active, long now) {
+            if (watcher != null && watcher == active) {
+                return true;
+            }
+            return expiration - now > 0;
+        }
+
+        boolean dependsOn(Path path) {
+            for (Path candidate : candidates) {
+                if (candidate != null && candidate.startsWith(path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -15,27 +15,49 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
-import org.apache.commons.lang3.StringUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.fge.jsonpatch.JsonPatch;
 import com.github.fge.jsonpatch.JsonPatchException;
 
-import eu.medsea.mimeutil.MimeType;
 import eu.medsea.mimeutil.MimeUtil;
-import it.geosolutions.mapstore.utils.ResourceUtils;
+import it.geosolutions.mapstore.cache.AssetCache;
+import it.geosolutions.mapstore.cache.ConfigCache;
+import it.geosolutions.mapstore.cache.ConfigWarmup;
+import it.geosolutions.mapstore.cache.DataDirWatcher;
+import it.geosolutions.mapstore.cache.ResolutionCache;
+import it.geosolutions.mapstore.metrics.MetricsRegistry;
+import it.geosolutions.mapstore.metrics.ServerTiming;
+import it.geosolutions.mapstore.utils.AssetStreamer;
+import it.geosolutions.mapstore.utils.AssetUtils;
+import it.geosolutions.mapstore.utils.JsonUtils;
+import it.geosolutions.mapstore.utils.MimeTypes;
+import it.geosolutions.mapstore.utils.OverridesPlan;
 
 /**
  * Base classes for configuration services.
@@ -46,13 +68,27 @@ import it.geosolutions.mapstore.utils.ResourceUtils;
  *  - overrides.mappings: optional list of mappings from the override configuration files, to the configuration files properties (default: empty)
  *    format: <json_path>=<propertyName>,...,<json_path>=<propertyName>
  *    example: header.height=headerHeight,header.url=headerUrl
+ *  - configs.cache.enabled: cache the materialized configuration files, until one of their inputs changes (default: true)
+ *  - compression.enabled: send gzip compressed configurations and text assets to the clients that accept them (default: true)
+ *  - resources.cache.ttl: milliseconds a resource resolution is cached, when the datadir is not watched (default: 1000)
+ *  - assets.cache.size: maximum size in bytes of the assets kept in memory, outside of the Java heap (default: 67108864, 0 to disable)
+ *  - warmup.enabled: load the main configurations and assets into the caches at startup, in parallel (default: true)
+ *  - warmup.parallelism: number of threads used for the warm-up (default: 0, the number of processors)
+ *  - server.timing.enabled: send the time spent in each phase of the configuration requests in the Server-Timing header (default: false)
+ *  - assets.async.enabled: stream big assets with non-blocking I/O, releasing the request thread (default: true)
+ *  - assets.async.min.size: minimum size in bytes of the assets streamed asynchronously (default: 262144, 256KB)
+ *  - assets.async.timeout: time in milliseconds an asset can take to be downloaded, 0 for the container default (default: 300000)
+ *  - extensions.cleanup.delay: milliseconds an old version of an extension stays on disk after it is replaced or uninstalled (default: 600000)
+ *  - mime.types: MIME types of the served files, by extension, in addition to the default ones (default: empty)
+ *    format: <extension>=<type>,...,<extension>=<type>
+ *    example: glb=model/gltf-binary,wasm=application/wasm
  *
  * The overrides technique allows to take some values to insert in the config json from a simple Java properties file.
  * TODO: make this a configuration bean that can be shared across controllers.
  *
  */
 @Controller
-public abstract class BaseConfigController extends BaseMapStoreController {
+public abstract class BaseConfigController extends BaseMapStoreController implements InitializingBean {
     public class Resource {
         public String data;
         public String type;
@@ -63,7 +99,24 @@ public abstract class BaseConfigController extends BaseMapStoreController {
     	MimeUtil.registerMimeDetector("eu.medsea.mimeutil.detector.ExtensionMimeDetector");
     }
 
-    protected ObjectMapper jsonMapper = new ObjectMapper();
+    /**
+     * Request parameter asking for the Server-Timing header (administrators only).
+     */
+    public static final String SERVER_TIMING_PARAMETER = "timing";
+
+    /**
+     * Paths filtered by Spring Security (springSecurityFilterChain in web.xml): the roles of the user are known only here.
+     */
+    public static final String SECURED_PATH = "/rest/";
+
+    protected ObjectMapper jsonMapper = JsonUtils.getMapper();
+
+    // the watcher this controller registered the datadir on
+    private volatile DataDirWatcher watcher;
+
+    private volatile OverridesPlan overridesPlan;
+
+    private volatile MimeTypes mimeTypes = MimeTypes.getDefault();
 
     @ResponseStatus(value = HttpStatus.NOT_FOUND)
     public class ResourceNotFoundException extends RuntimeException {
@@ -112,9 +165,237 @@ public abstract class BaseConfigController extends BaseMapStoreController {
     protected byte[] toBytes(Resource resource) throws UnsupportedEncodingException {
     	return resource.data.getBytes("UTF-8");
     }
+    /**
+     * Loads a configuration file, applying patch and overrides, if needed.
+     * The materialized configuration is cached until the base file, the patch or the overrides file change.
+     * @param resourceName path of the configuration file
+     * @param applyOverrides apply overrides from the configured properties file (if any)
+     * @param patchName path of the patch file
+     * @return the configuration, as sent to the client
+     */
+    protected byte[] loadConfig(String resourceName, boolean applyOverrides, String patchName) throws IOException {
+        return loadConfig(resourceName, applyOverrides, patchName, null);
+    }
+
+    /**
+     * Loads a configuration file, applying patch and overrides, if needed.
+     * The configuration is sent with a strong ETag, computed from its inputs. If the client already has
+     * the current version (If-None-Match), the configuration is not materialized and the response is set to 304.
+     * If compression is enabled and the client accepts it, the gzip variant of the configuration is returned.
+     * @param resourceName path of the configuration file
+     * @param applyOverrides apply overrides from the configured properties file (if any)
+     * @param patchName path of the patch file
+     * @param request the current request, for conditional requests handling (optional)
+     * @return the configuration, as sent to the client, or null if not modified
+     */
+    protected byte[] loadConfig(String resourceName, boolean applyOverrides, String patchName, WebRequest request) throws IOException {
+        long begin = System.nanoTime();
+        watchDataDir();
+        HttpServletResponse response = request instanceof NativeWebRequest
+                ? ((NativeWebRequest) request).getNativeResponse(HttpServletResponse.class)
+                : null;
+        ServerTiming timing = response != null && isServerTimingRequested(request) ? ServerTiming.start() : null;
+        try {
+            ConfigCache.Key key = configKey(resourceName, applyOverrides, patchName);
+            long start = ServerTiming.record(ServerTiming.Phase.RESOLVE, begin);
+            boolean gzip = false;
+            if (response != null && getCompressionEnabled()) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                gzip = AssetUtils.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+            }
+            if (request != null) {
+                String etag = ConfigCache.getInstance().getETag(key);
+                start = ServerTiming.record(ServerTiming.Phase.ETAG, start);
+                if (request.checkNotModified(gzip ? AssetUtils.gzipETag(etag) : etag)) {
+                    return null;
+                }
+            }
+            ConfigCache.Loader loader = () -> readConfig(key.getResource(), applyOverrides, key.getPatch());
+            byte[] config;
+            if (gzip) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, AssetUtils.GZIP);
+                config = getConfigsCacheEnabled() ? ConfigCache.getInstance().getGzip(key, loader) : AssetUtils.gzip(loader.load());
+            } else {
+                config = getConfigsCacheEnabled() ? ConfigCache.getInstance().get(key, loader) : loader.load();
+            }
+            ServerTiming.record(ServerTiming.Phase.LOAD, start);
+            return config;
+        } finally {
+            ServerTiming.record(ServerTiming.Phase.TOTAL, begin);
+            if (timing != null) {
+                timing.stop();
+                response.setHeader(ServerTiming.HEADER, timing.toHeader());
+            }
+        }
+    }
+
+    /**
+     * Tells if the time spent in each phase of the request has to be sent to the client, in the Server-Timing header:
+     * always if enabled by configuration, otherwise only for administrators asking it with the <code>timing=true</code> parameter.
+     * The parameter is honored only on the secured paths (e.g. <code>rest/config/load/localConfig.json</code>), the other ones
+     * (<code>configs/*</code>, <code>extensions/*</code>) are public and do not authenticate the user.
+     */
+    protected boolean isServerTimingRequested(WebRequest request) {
+        return getServerTimingEnabled()
+            || "true".equalsIgnoreCase(request.getParameter(SERVER_TIMING_PARAMETER)) && isSecured(request)
+                && request.isUserInRole("ADMIN");
+    }
+
+    private static boolean isSecured(WebRequest request) {
+        HttpServletRequest servletRequest = request instanceof NativeWebRequest
+                ? ((NativeWebRequest) request).getNativeRequest(HttpServletRequest.class)
+                : null;
+        return servletRequest != null && (servletRequest.getServletPath() + "/").startsWith(SECURED_PATH);
+    }
+
+    /**
+     * Resolves the input files of a configuration.
+     */
+    protected ConfigCache.Key configKey(String resourceName, boolean applyOverrides, String patchName) {
+        Optional<File> resource = ResolutionCache.getInstance().findResource(getDataDir(), getContext(), resourceName);
+        if (!resource.isPresent()) {
+            throw new ResourceNotFoundException(resourceName);
+        }
+        Optional<File> resourcePatch = patchName.isEmpty() ? Optional.empty() : ResolutionCache.getInstance().findResource(getDataDir(), getContext(), patchName);
+        Optional<File> overridesFile = applyOverrides ? findOverrides() : Optional.empty();
+        return new ConfigCache.Key(resource.get(), resourcePatch, overridesFile, applyOverrides, getMappings());
+    }
+
+    /**
+     * Starts watching the datadir folders for changes, if enabled, so that cached resources are invalidated
+     * by file-system events instead of checking the files on each request.
+     * The watcher is shared by the dispatcher servlets and stopped with the webapp (see {@link it.geosolutions.mapstore.servlets.MapStoreLifecycleListener}):
+     * if it was stopped, the folders are registered on a new one.
+     */
+    protected void watchDataDir() {
+        if (getDataDirWatchEnabled() && !getDataDir().isEmpty()
+                && (watcher == null || watcher != DataDirWatcher.getActive())) {
+            DataDirWatcher active = DataDirWatcher.getInstance(getDataDirWatchPolling(), getDataDirWatchPollingInterval());
+            active.watchDataDir(getDataDir(), getConfigsFolder(), getExtensionsFolder());
+            watcher = active;
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        ResolutionCache.getInstance().setTtl(getResourcesCacheTtl());
+        AssetCache.getInstance().setMaxBytes(getAssetsCacheSize());
+        if (getWarmupEnabled()) {
+            ConfigWarmup.getInstance().start(getClass().getSimpleName(), getWarmupTasks(), getWarmupParallelism());
+        }
+    }
+
+    /**
+     * Returns the resources to load into the caches at startup, with the task loading each one.
+     * By default nothing is loaded.
+     */
+    protected Map<String, ConfigWarmup.Task> getWarmupTasks() {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Loads an asset into the asset cache, with its compressed variant, if the asset exists.
+     * Does nothing when the asset cache is disabled.
+     * @param resourceName path of the asset, relative to the datadir or the webapp root
+     */
+    protected void warmAsset(String resourceName) throws IOException {
+        if (!AssetCache.getInstance().isEnabled()) {
+            return;
+        }
+        Optional<File> resource = ResolutionCache.getInstance().findResource(getDataDir(), getContext(), resourceName);
+        if (!resource.isPresent() || !resource.get().isFile()) {
+            return;
+        }
+        File file = resource.get();
+        long length = file.length();
+        if (length < AssetUtils.SENDFILE_MIN_SIZE) {
+            AssetCache.getInstance().get(file);
+        }
+        if (getCompressionEnabled() && AssetUtils.isCompressible(getMimeTypeResolver().getType(file))
+                && length >= AssetUtils.COMPRESSION_MIN_SIZE && length <= AssetCache.MAX_FILE_SIZE) {
+            AssetCache.getInstance().getGzip(file);
+        }
+    }
+
+    /**
+     * Sends an asset file as is, streaming its bytes from the file-system with the correct Content-Type and Content-Length.
+     * To be used for resources that do not need patches or overrides (javascript bundles, translations, images...).
+     * Text assets are sent gzip compressed to the clients that accept it, if compression is enabled.
+     * Small and medium assets are kept in the off-heap {@link AssetCache}, if enabled, big ones are left to sendfile,
+     * when available.
+     * Byte range requests are supported (e.g. to resume downloads of big assets like 3D models).
+     * Big responses are streamed asynchronously, if enabled and supported by the request.
+     * @param resourceName path of the asset, relative to the datadir or the webapp root
+     */
+    protected void writeAsset(String resourceName, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        writeAsset(resourceName, null, request, response);
+    }
+
+    /**
+     * Sends an asset file, as {@link #writeAsset(String, HttpServletRequest, HttpServletResponse)}, with a known strong ETag
+     * (e.g. the digest of the file computed when it was installed). If the client already has it (If-None-Match),
+     * the response is set to 304; if it has a part of it (If-Range), the requested range is sent.
+     * @param etag the entity tag of the asset, quoted, null if not known
+     */
+    protected void writeAsset(String resourceName, String etag, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Optional<File> resource = ResolutionCache.getInstance().findResource(getDataDir(), getContext(), resourceName);
+        BasicFileAttributes attrs = null;
+        if (resource.isPresent()) {
+            try {
+                attrs = Files.readAttributes(resource.get().toPath(), BasicFileAttributes.class);
+            } catch (NoSuchFileException e) {
+                // removed after the resolution
+            }
+        }
+        if (attrs == null || !attrs.isRegularFile()) {
+            throw new ResourceNotFoundException(resourceName);
+        }
+        File file = resource.get();
+        String contentType = getMimeTypeResolver().getType(file);
+        response.setContentType(contentType);
+        long length = attrs.size();
+        // byte ranges are served from the file as is
+        boolean whole = request.getHeader(HttpHeaders.RANGE) == null;
+        if (getCompressionEnabled() && AssetUtils.isCompressible(contentType)
+                && length >= AssetUtils.COMPRESSION_MIN_SIZE && length <= AssetCache.MAX_FILE_SIZE) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (whole && AssetUtils.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+                if (etag != null && new ServletWebRequest(request, response).checkNotModified(AssetUtils.gzipETag(etag))) {
+                    return;
+                }
+                ByteBuffer data = AssetCache.getInstance().getGzip(file);
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, AssetUtils.GZIP);
+                response.setContentLength(data.remaining());
+                AssetUtils.write(data, request, response, getAssetStreamer());
+                return;
+            }
+        }
+        if (etag != null && new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+        if (whole && AssetCache.getInstance().isEnabled() && length <= AssetCache.MAX_FILE_SIZE
+                && !AssetUtils.canSendFile(request, length)) {
+            AssetUtils.sendBuffer(AssetCache.getInstance().get(file), attrs.lastModifiedTime().toMillis(), request, response,
+                getAssetStreamer());
+            return;
+        }
+        AssetUtils.sendFile(file, etag, request, response, getAssetStreamer());
+    }
+
+    /**
+     * Returns the streamer that sends big assets without holding the request thread, null if disabled.
+     */
+    protected AssetStreamer getAssetStreamer() {
+        if (!getAssetsAsyncEnabled()) {
+            return null;
+        }
+        return new AssetStreamer(getAssetsAsyncMinSize(), getAssetsAsyncTimeout(), MetricsRegistry.getInstance().getStreams());
+    }
+
     protected Resource readResource(String resourceName, boolean applyOverrides, String patchName) throws IOException {
-    	Optional<File> resource = ResourceUtils.findResource(getDataDir(), getContext(), resourceName);
-    	Optional<File> resourcePatch = patchName.isEmpty() ? Optional.empty() : ResourceUtils.findResource(getDataDir(), getContext(), patchName);
+    	Optional<File> resource = ResolutionCache.getInstance().findResource(getDataDir(), getContext(), resourceName);
+    	Optional<File> resourcePatch = patchName.isEmpty() ? Optional.empty() : ResolutionCache.getInstance().findResource(getDataDir(), getContext(), patchName);
         if (!resource.isPresent()) {
             throw new ResourceNotFoundException(resourceName);
         }
@@ -125,17 +406,14 @@ public abstract class BaseConfigController extends BaseMapStoreController {
     	Resource resource = new Resource();
         resource.file = file;
 
-        MimeType type = MimeUtil.getMostSpecificMimeType(MimeUtil.getMimeTypes(file));
-        resource.type = type != null ? type.toString() : null;
+        resource.type = getMimeTypeResolver().getType(file);
+        OverridesPlan plan = applyOverrides ? getOverridesPlan() : OverridesPlan.EMPTY;
+        if (applyOverrides && (!plan.isEmpty() || patch.isPresent())) {
+            resource.data = new String(readConfig(file, plan, patch), StandardCharsets.UTF_8);
+            return resource;
+        }
         try (Stream<String> stream =
                 Files.lines( Paths.get(file.getAbsolutePath()), StandardCharsets.UTF_8); ) {
-            Properties props = readOverrides();
-            if (applyOverrides && (!"".equals(getMappings()) && props != null || patch.isPresent())) {
-            	resource.data = resourceWithPatch(stream, props, patch);
-                return resource;
-            }
-
-
             try {
             	StringBuilder contentBuilder = new StringBuilder();
                 stream.forEach(new Consumer<String>() {
@@ -154,18 +432,41 @@ public abstract class BaseConfigController extends BaseMapStoreController {
 
     }
 
-    protected String resourceWithPatch(Stream<String> stream, Properties props, Optional<File> patch) throws IOException {
-        JsonNode jsonObject = readJsonConfig(stream);
+    /**
+     * Reads a configuration file, applying patch and overrides, if needed.
+     * The file is parsed straight from its bytes, and the result is serialized to bytes.
+     * @param file the configuration file
+     * @param applyOverrides apply overrides from the configured properties file (if any)
+     * @param patch the patch file, if any
+     * @return the configuration, as sent to the client
+     */
+    protected byte[] readConfig(File file, boolean applyOverrides, Optional<File> patch) throws IOException {
+        OverridesPlan plan = applyOverrides ? getOverridesPlan() : OverridesPlan.EMPTY;
+        if (applyOverrides && (!plan.isEmpty() || patch.isPresent())) {
+            return readConfig(file, plan, patch);
+        }
+        long start = System.nanoTime();
+        byte[] config = Files.readAllBytes(file.toPath());
+        ServerTiming.record(ServerTiming.Phase.READ, start);
+        return config;
+    }
+
+    private byte[] readConfig(File file, OverridesPlan plan, Optional<File> patch) throws IOException {
+        long start = System.nanoTime();
+        JsonNode jsonObject = readJsonConfig(file);
+        start = ServerTiming.record(ServerTiming.Phase.READ, start);
         if (patch.isPresent()) {
             jsonObject = mergeJSON(jsonObject, jsonMapper.readValue(patch.get(), JsonPatch.class));
+            start = ServerTiming.record(ServerTiming.Phase.PATCH, start);
         }
-        if (!"".equals(getMappings()) && props != null) {
-
-            for(String mapping : getMappings().split(",")) {
-                jsonObject = fillMapping(mapping, props, jsonObject);
-            }
+        if (!plan.isEmpty()) {
+            // the tree has just been parsed (or patched), so the overrides can be applied in place
+            jsonObject = plan.apply(jsonObject);
+            start = ServerTiming.record(ServerTiming.Phase.OVERRIDES, start);
         }
-        return jsonObject.toString();
+        byte[] config = jsonMapper.writeValueAsBytes(jsonObject);
+        ServerTiming.record(ServerTiming.Phase.SERIALIZE, start);
+        return config;
     }
 
     /**
@@ -184,9 +485,53 @@ public abstract class BaseConfigController extends BaseMapStoreController {
         }
     }
 
+    /**
+     * Returns the overrides mappings, compiled with the values of the overrides properties file.
+     * The plan is compiled again only when the mappings or the properties file change.
+     */
+    protected OverridesPlan getOverridesPlan() throws IOException {
+        String mappings = getMappings();
+        Optional<File> overridesFile = findOverrides();
+        if (mappings == null || mappings.isEmpty() || !overridesFile.isPresent()) {
+            return OverridesPlan.EMPTY;
+        }
+        File file = overridesFile.get();
+        long lastModified = file.lastModified();
+        long size = file.length();
+        OverridesPlan plan = overridesPlan;
+        if (plan == null || !plan.isCompiledFrom(mappings, file, lastModified, size)) {
+            Properties props = new Properties();
+            try (FileReader reader = new FileReader(file)) {
+                props.load(reader);
+            }
+            plan = OverridesPlan.compile(mappings, props, file, lastModified, size);
+            overridesPlan = plan;
+        }
+        return plan;
+    }
+
+    /**
+     * Returns the resolver of the MIME types of the served files, with the configured types.
+     */
+    protected MimeTypes getMimeTypeResolver() {
+        MimeTypes resolver = mimeTypes;
+        if (!resolver.isBuiltFrom(getMimeTypesOverrides())) {
+            resolver = MimeTypes.withOverrides(getMimeTypesOverrides());
+            mimeTypes = resolver;
+        }
+        return resolver;
+    }
+
+    protected Optional<File> findOverrides() {
+        if (!"".equals(getOverrides())) {
+            return ResolutionCache.getInstance().findResource(getDataDir(), getContext(), getOverrides());
+        }
+        return Optional.empty();
+    }
+
     protected Properties readOverrides() throws FileNotFoundException, IOException {
         if (!"".equals(getOverrides())) {
-        	Optional<File> resource = ResourceUtils.findResource(getDataDir(), getContext(), getOverrides());
+        	Optional<File> resource = findOverrides();
             if (resource.isPresent()) {
                 try (FileReader reader = new FileReader(resource.get())) {
                     Properties props = new Properties();
@@ -198,40 +543,8 @@ public abstract class BaseConfigController extends BaseMapStoreController {
         return null;
     }
 
-    protected JsonNode readJsonConfig(Stream<String> stream) throws IOException {
-        StringBuilder contentBuilder = new StringBuilder();
-        stream.forEach(new Consumer<String>() {
-            @Override
-            public void accept(String s) {
-                contentBuilder.append(s).append("\n");
-            }
-        });
-        String json = contentBuilder.toString();
-        JsonNode jsonObject = jsonMapper.readTree(json);
-        return jsonObject;
-    }
-
-    protected JsonNode fillMapping(String mapping, Properties props, JsonNode jsonObject) throws IOException {
-        String[] parts = mapping.split("=");
-        if (parts.length != 2 || parts[0].trim().isEmpty() || parts[1].trim().isEmpty()) {
-            return jsonObject;
-        } else {
-            String path = parts[0];
-            String propName = parts[1];
-            String value = props.getProperty(propName, "");
-            return setJsonProperty(jsonObject, path.split("\\."), value);
-        }
-    }
-
-    protected JsonNode setJsonProperty(JsonNode jsonObject, String[] path, String value) throws IOException {
-        String propertyPath = "/" + StringUtils.join(path, "/");
-        JsonPatch patch = jsonMapper.readValue("[{\"op\":\"replace\",\"path\":\""+propertyPath+"\",\"value\":\""+value+"\"}]", JsonPatch.class);
-        try {
-            return mergeJSON(jsonObject, patch);
-        } catch(IOException e) {
-            // if the property cannot be set, we ignore it
-            return jsonObject;
-        }
+    protected JsonNode readJsonConfig(File file) throws IOException {
+        return JsonUtils.readTree(file);
     }
 
 
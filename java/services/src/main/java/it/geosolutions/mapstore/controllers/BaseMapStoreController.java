@@ -13,6 +13,23 @@ import org.springframework.beans.factory.annotation.Value;
  *  - overrides.mappings: optional list of mappings from the override configuration files, to the configuration files properties (default: empty)
  *    format: <json_path>=<propertyName>,...,<json_path>=<propertyName>
  *    example: header.height=headerHeight,header.url=headerUrl
+ *  - configs.cache.enabled: cache the materialized configuration files until their inputs change (default: true)
+ *  - datadir.watch.enabled: watch the datadir folders for changes, so that caches do not need to check the files on each request (default: false)
+ *  - datadir.watch.polling: poll the datadir folders instead of using native file-system events, e.g. for NFS (default: false)
+ *  - datadir.watch.polling.interval: polling interval in milliseconds (default: 2000)
+ *  - compression.enabled: send gzip compressed configuration files and text assets to clients that accept them (default: true)
+ *  - resources.cache.ttl: time in milliseconds the resolution of resources (found or missing) is cached, when not covered by the datadir watcher (default: 1000)
+ *  - assets.cache.size: maximum total size in bytes of the asset files cached off-heap (default: 67108864, 64MB)
+ *  - warmup.enabled: materialize the configurations and load the main assets at startup, in parallel (default: true)
+ *  - warmup.parallelism: threads used for the startup warm-up, 0 for the number of processors (default: 0)
+ *  - mime.types: comma-separated list of <extension>=<type> MIME types of the served files, on top of the default ones (default: empty)
+ *  - server.timing.enabled: send the Server-Timing header with the phases of the configuration requests (default: false)
+ *  - assets.async.enabled: stream big assets asynchronously, without holding a request thread while they download (default: true)
+ *  - assets.async.min.size: smaller assets are written directly (default: 262144)
+ *  - assets.async.timeout: maximum time in milliseconds of an asset download, 0 for the container default (default: 300000)
+ *  - metrics.enabled: publish the metrics of the services at rest/config/metrics (default: true)
+ *  - metrics.local.only: answer to metrics requests only from the local host (default: true)
+ *  - extensions.cleanup.delay: time in milliseconds the replaced or uninstalled versions of an extension are kept on disk, for the downloads in progress (default: 600000)
  *
  * @author Lorenzo Natali, GeoSolutionsGroup
  *
@@ -30,6 +47,23 @@ public abstract class BaseMapStoreController {
     @Value("${context.configs.folder:configs}") private String configsFolder = "configs";
     @Value("${context.plugins.config:pluginsConfig.json}") private String pluginsConfig = "pluginsConfig.json";
     @Value("${context.plugins.savepatch:true}") private Boolean pluginsConfigAsPatch = true;
+    @Value("${configs.cache.enabled:true}") private Boolean configsCacheEnabled = true;
+    @Value("${datadir.watch.enabled:false}") private Boolean dataDirWatchEnabled = false;
+    @Value("${datadir.watch.polling:false}") private Boolean dataDirWatchPolling = false;
+    @Value("${datadir.watch.polling.interval:2000}") private Long dataDirWatchPollingInterval = 2000L;
+    @Value("${compression.enabled:true}") private Boolean compressionEnabled = true;
+    @Value("${resources.cache.ttl:1000}") private Long resourcesCacheTtl = 1000L;
+    @Value("${assets.cache.size:67108864}") private Long assetsCacheSize = 67108864L;
+    @Value("${warmup.enabled:true}") private Boolean warmupEnabled = true;
+    @Value("${warmup.parallelism:0}") private Integer warmupParallelism = 0;
+    @Value("${mime.types:}") private String mimeTypesOverrides = "";
+    @Value("${server.timing.enabled:false}") private Boolean serverTimingEnabled = false;
+    @Value("${assets.async.enabled:true}") private Boolean assetsAsyncEnabled = true;
+    @Value("${assets.async.min.size:262144}") private Long assetsAsyncMinSize = 262144L;
+    @Value("${assets.async.timeout:300000}") private Long assetsAsyncTimeout = 300000L;
+    @Value("${metrics.enabled:true}") private Boolean metricsEnabled = true;
+    @Value("${metrics.local.only:true}") private Boolean metricsLocalOnly = true;
+    @Value("${extensions.cleanup.delay:600000}") private Long extensionsCleanupDelay = 600000L;
 
     public void setContext(ServletContext context) {
         this.context = context;
@@ -103,4 +137,140 @@ public abstract class BaseMapStoreController {
  	public Boolean getPluginsConfigAsPatch() {
  		return pluginsConfigAsPatch;
  	}
+
+    public Boolean getConfigsCacheEnabled() {
+        return configsCacheEnabled;
+    }
+
+    public void setConfigsCacheEnabled(Boolean configsCacheEnabled) {
+        this.configsCacheEnabled = configsCacheEnabled;
+    }
+
+    public Boolean getDataDirWatchEnabled() {
+        return dataDirWatchEnabled;
+    }
+
+    public void setDataDirWatchEnabled(Boolean dataDirWatchEnabled) {
+        this.dataDirWatchEnabled = dataDirWatchEnabled;
+    }
+
+    public Boolean getDataDirWatchPolling() {
+        return dataDirWatchPolling;
+    }
+
+    public void setDataDirWatchPolling(Boolean dataDirWatchPolling) {
+        this.dataDirWatchPolling = dataDirWatchPolling;
+    }
+
+    public Long getDataDirWatchPollingInterval() {
+        return dataDirWatchPollingInterval;
+    }
+
+    public void setDataDirWatchPollingInterval(Long dataDirWatchPollingInterval) {
+        this.dataDirWatchPollingInterval = dataDirWatchPollingInterval;
+    }
+
+    public Boolean getCompressionEnabled() {
+        return compressionEnabled;
+    }
+
+    public void setCompressionEnabled(Boolean compressionEnabled) {
+        this.compressionEnabled = compressionEnabled;
+    }
+
+    public Long getResourcesCacheTtl() {
+        return resourcesCacheTtl;
+    }
+
+    public void setResourcesCacheTtl(Long resourcesCacheTtl) {
+        this.resourcesCacheTtl = resourcesCacheTtl;
+    }
+
+    public String getMimeTypesOverrides() {
+        return mimeTypesOverrides;
+    }
+
+    public void setMimeTypesOverrides(String mimeTypesOverrides) {
+        this.mimeTypesOverrides = mimeTypesOverrides;
+    }
+
+    public Long getAssetsCacheSize() {
+        return assetsCacheSize;
+    }
+
+    public void setAssetsCacheSize(Long assetsCacheSize) {
+        this.assetsCacheSize = assetsCacheSize;
+    }
+
+    public Boolean getWarmupEnabled() {
+        return warmupEnabled;
+    }
+
+    public void setWarmupEnabled(Boolean warmupEnabled) {
+        this.warmupEnabled = warmupEnabled;
+    }
+
+    public Integer getWarmupParallelism() {
+        return warmupParallelism;
+    }
+
+    public void setWarmupParallelism(Integer warmupParallelism) {
+        this.warmupParallelism = warmupParallelism;
+    }
+
+    public Boolean getMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public void setMetricsEnabled(Boolean metricsEnabled) {
+        this.metricsEnabled = metricsEnabled;
+    }
+
+    public Boolean getMetricsLocalOnly() {
+        return metricsLocalOnly;
+    }
+
+    public void setMetricsLocalOnly(Boolean metricsLocalOnly) {
+        this.metricsLocalOnly = metricsLocalOnly;
+    }
+
+    public Boolean getServerTimingEnabled() {
+        return serverTimingEnabled;
+    }
+
+    public void setServerTimingEnabled(Boolean serverTimingEnabled) {
+        this.serverTimingEnabled = serverTimingEnabled;
+    }
+
+    public Boolean getAssetsAsyncEnabled() {
+        return assetsAsyncEnabled;
+    }
+
+    public void setAssetsAsyncEnabled(Boolean assetsAsyncEnabled) {
+        this.assetsAsyncEnabled = assetsAsyncEnabled;
+    }
+
+    public Long getAssetsAsyncMinSize() {
+        return assetsAsyncMinSize;
+    }
+
+    public void setAssetsAsyncMinSize(Long assetsAsyncMinSize) {
+        this.assetsAsyncMinSize = assetsAsyncMinSize;
+    }
+
+    public Long getAssetsAsyncTimeout() {
+        return assetsAsyncTimeout;
+    }
+
+    public void setAssetsAsyncTimeout(Long assetsAsyncTimeout) {
+        this.assetsAsyncTimeout = assetsAsyncTimeout;
+    }
+
+    public Long getExtensionsCleanupDelay() {
+        return extensionsCleanupDelay;
+    }
+
+    public void setExtensionsCleanupDelay(Long extensionsCleanupDelay) {
+        this.extensionsCleanupDelay = extensionsCleanupDelay;
+    }
 }
@@ -7,19 +7,34 @@
 */
 package it.geosolutions.mapstore.controllers.configs;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
 
+import it.geosolutions.mapstore.cache.ConfigCache;
+import it.geosolutions.mapstore.cache.ConfigWarmup;
+import it.geosolutions.mapstore.cache.ResolutionCache;
 import it.geosolutions.mapstore.controllers.BaseConfigController;
+import it.geosolutions.mapstore.utils.AssetUtils;
 
 /**
  * Service for configuration files usage.
@@ -32,6 +47,35 @@ import it.geosolutions.mapstore.controllers.BaseConfigController;
 @Controller
 public class ConfigsController extends BaseConfigController {
 
+    static final String DEFAULT_BOOTSTRAP_CONFIGS = "localConfig,pluginsConfig";
+
+    static final String EXTENSIONS_ENTRY = "extensions";
+
+    /**
+     * The last bootstrap response, built from the cached configurations, with its compressed variant.
+     */
+    private static final class Bootstrap {
+        private final String etag;
+        private final byte[] data;
+        private volatile byte[] gzip;
+
+        Bootstrap(String etag, byte[] data) {
+            this.etag = etag;
+            this.data = data;
+        }
+
+        byte[] getGzip() {
+            byte[] compressed = gzip;
+            if (compressed == null) {
+                compressed = AssetUtils.gzip(data);
+                gzip = compressed;
+            }
+            return compressed;
+        }
+    }
+
+    private volatile Bootstrap bootstrap;
+
     /**
      * Loads the resource, from the configured location (datadir or web root).
      * Both locations are tested, and the resource is returned from the first location found.
@@ -40,15 +84,157 @@ public class ConfigsController extends BaseConfigController {
      * It is also possible to store in datadir files in the json-patch format (with a .json.patch extension)
      * so that the final resource is built merging a static configuration with a patch.
      *
+     * <p>
+     * The response has a strong ETag, computed from the files used to build the resource, so clients can revalidate
+     * their copy with If-None-Match and get a 304 response, without the resource being built again.
+     *
      * @param resourceName Name of the resource to load (e.g., localConfig).
      * @param applyOverrides Apply overrides from the configured properties file (if any).
-     * @return The configuration file as a byte array.
+     * @param request The current request, to handle conditional requests.
+     * @return The configuration file as a byte array, or null if not modified.
      * @throws IOException If an error occurs while reading the resource.
      */
     @RequestMapping(value = "/{resource}", method = RequestMethod.GET)
     public @ResponseBody byte[] loadResource(@PathVariable("resource") String resourceName,
-                                             @RequestParam(value = "overrides", defaultValue = "true") boolean applyOverrides) throws IOException {
+                                             @RequestParam(value = "overrides", defaultValue = "true") boolean applyOverrides,
+                                             WebRequest request) throws IOException {
+
+        Path[] paths = configPaths(resourceName);
+
+        // Load the primary configuration and apply the patch if it exists
+        return loadConfig(paths[0].toString(), applyOverrides, paths[1].toString(), request);
+    }
+
+    /**
+     * Loads the configurations needed by the client at startup, in a single JSON object, with one entry per configuration
+     * (named as the file, without extension) and the extensions registry in the <code>extensions</code> entry.
+     * Configurations that do not exist are left out, so the client can fall back to its defaults.
+     * <p>
+     * Each configuration is materialized (patches and overrides applied) and cached as if loaded on its own.
+     * The response has a strong ETag, computed from the ETags of all the configurations, so it is revalidated with a single request.
+     *
+     * @param configs Comma separated names of the configurations to load.
+     * @param applyOverrides Apply overrides from the configured properties file (if any).
+     * @param request The current request, to handle conditional requests.
+     * @return The configurations as a JSON object, or null if not modified.
+     * @throws IOException If an error occurs while reading a configuration.
+     */
+    @RequestMapping(value = "/bootstrap", method = RequestMethod.GET)
+    public @ResponseBody byte[] loadBootstrap(@RequestParam(value = "configs", defaultValue = DEFAULT_BOOTSTRAP_CONFIGS) String configs,
+                                              @RequestParam(value = "overrides", defaultValue = "true") boolean applyOverrides,
+                                              WebRequest request) throws IOException {
+        watchDataDir();
+        // the overrides file is resolved once, for all the configurations
+        Optional<File> overridesFile = applyOverrides ? findOverrides() : Optional.empty();
+        Map<String, ConfigCache.Key> keys = new LinkedHashMap<>();
+        for (String name : configs.split(",")) {
+            if (name.trim().isEmpty()) {
+                continue;
+            }
+            Path[] paths = configPaths(name.trim());
+            Optional<File> resource = ResolutionCache.getInstance().findResource(getDataDir(), getContext(), paths[0].toString());
+            if (resource.isPresent()) {
+                Optional<File> patch = ResolutionCache.getInstance().findResource(getDataDir(), getContext(), paths[1].toString());
+                String entry = resource.get().getName().replaceFirst("(?i)\\.json$", "");
+                keys.put(entry, new ConfigCache.Key(resource.get(), patch, overridesFile, applyOverrides, getMappings()));
+            }
+        }
+        Optional<File> registry = ResolutionCache.getInstance().findResource(getDataDir(), getContext(),
+            Paths.get(getExtensionsFolder(), getExtensionsConfig()).toString());
+        ConfigCache.Key registryKey = registry.isPresent()
+            ? new ConfigCache.Key(registry.get(), Optional.empty(), Optional.empty(), false, getMappings())
+            : null;
+        if (registryKey != null) {
+            keys.put(EXTENSIONS_ENTRY, registryKey);
+        }
+
+        HttpServletResponse response = request instanceof NativeWebRequest
+            ? ((NativeWebRequest) request).getNativeResponse(HttpServletResponse.class)
+            : null;
+        boolean gzip = false;
+        if (response != null && getCompressionEnabled()) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            gzip = AssetUtils.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        }
+        String etag = ConfigCache.getInstance().getETag(keys);
+        if (request != null && request.checkNotModified(gzip ? AssetUtils.gzipETag(etag) : etag)) {
+            return null;
+        }
+        Bootstrap current = bootstrap;
+        if (current == null || !current.etag.equals(etag) || !getConfigsCacheEnabled()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            out.write('{');
+            for (Map.Entry<String, ConfigCache.Key> entry : keys.entrySet()) {
+                if (out.size() > 1) {
+                    out.write(',');
+                }
+                ConfigCache.Key key = entry.getValue();
+                boolean overrides = applyOverrides && key != registryKey;
+                ConfigCache.Loader loader = () -> readConfig(key.getResource(), overrides, key.getPatch());
+                out.write(jsonMapper.writeValueAsBytes(entry.getKey()));
+                out.write(':');
+                out.write(getConfigsCacheEnabled() ? ConfigCache.getInstance().get(key, loader) : loader.load());
+            }
+            out.write('}');
+            current = new Bootstrap(etag, out.toByteArray());
+            bootstrap = current;
+        }
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, AssetUtils.GZIP);
+            return current.getGzip();
+        }
+        return current.data;
+    }
+
+    /**
+     * Loads the resource, from the configured location (datadir or web root), without handling conditional requests.
+     *
+     * @param resourceName Name of the resource to load (e.g., localConfig).
+     * @param applyOverrides Apply overrides from the configured properties file (if any).
+     * @return The configuration file as a byte array.
+     * @throws IOException If an error occurs while reading the resource.
+     */
+    public byte[] loadResource(String resourceName, boolean applyOverrides) throws IOException {
+        return loadResource(resourceName, applyOverrides, null);
+    }
 
+    /**
+     * Materializes at startup all the JSON files of the configs folders (datadir and web root), with overrides.
+     */
+    @Override
+    protected Map<String, ConfigWarmup.Task> getWarmupTasks() {
+        Set<String> names = new TreeSet<>();
+        for (String folder : getDataDir().split(",")) {
+            if (!folder.trim().isEmpty()) {
+                addConfigNames(new File(folder.trim(), getConfigsFolder()), names);
+            }
+        }
+        String webappConfigs = getContext() != null ? getContext().getRealPath(getConfigsFolder()) : null;
+        if (webappConfigs != null) {
+            addConfigNames(new File(webappConfigs), names);
+        }
+        Map<String, ConfigWarmup.Task> tasks = new LinkedHashMap<>();
+        for (String name : names) {
+            tasks.put(getConfigsFolder() + "/" + name, () -> loadResource(name, true));
+        }
+        return tasks;
+    }
+
+    private static void addConfigNames(File folder, Set<String> names) {
+        File[] files = folder.listFiles((dir, name) -> name.toLowerCase().endsWith(".json"));
+        if (files != null) {
+            for (File file : files) {
+                if (file.isFile()) {
+                    names.add(file.getName());
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the paths of a configuration and of its patch, checking that both are in the configs folder.
+     */
+    private Path[] configPaths(String resourceName) throws IOException {
         // Validate the resource name to prevent path traversal
         String sanitizedResourceName = sanitizeResourceName(resourceName);
 
@@ -59,9 +245,7 @@ public class ConfigsController extends BaseConfigController {
         // Ensure that both paths stay within the base configurations directory
         validatePathWithinConfigDirectory(configPath);
         validatePathWithinConfigDirectory(patchPath);
-
-        // Load the primary configuration and apply the patch if it exists
-        return toBytes(readResource(configPath.toString(), applyOverrides, patchPath.toString()));
+        return new Path[] { configPath, patchPath };
     }
 
     /**
@@ -7,19 +7,32 @@
 */
 package it.geosolutions.mapstore.controllers.extensions;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
-import org.apache.commons.io.IOUtils;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.servlet.HandlerMapping;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
+import it.geosolutions.mapstore.cache.ConfigStore;
+import it.geosolutions.mapstore.cache.ConfigWarmup;
+import it.geosolutions.mapstore.cache.ResolutionCache;
 import it.geosolutions.mapstore.controllers.BaseConfigController;
+import it.geosolutions.mapstore.utils.JsonUtils;
 
 
 /**
@@ -29,6 +42,20 @@ import it.geosolutions.mapstore.controllers.BaseConfigController;
 @Controller
 public class ExtensionsController extends BaseConfigController {
 
+    private static final int FINGERPRINT_LENGTH = 16;
+
+    /**
+     * Path of a fingerprinted bundle: the first 16 digits of the digest of the extension are added to the name of the file,
+     * before its extension (e.g. <code>My/index.js</code> is also served as <code>My/index.0123456789abcdef.js</code>).
+     * The path changes each time a new version of the extension is installed, so it can be cached forever.
+     */
+    private static final Pattern FINGERPRINTED = Pattern.compile("^(.+)\\.([0-9a-f]{" + FINGERPRINT_LENGTH + "})(\\.[^./]+)?$");
+
+    /**
+     * Cache-Control of the fingerprinted bundles of the installed versions.
+     */
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
     /**
      * Loads an asset from the datadir, if defined, from the webapp root folder otherwise.
      * Allows loading externalized assets (javascript bundles, translation files, and so on).
@@ -50,8 +77,78 @@ public class ExtensionsController extends BaseConfigController {
     	if(resourcePath.contains("..")) {
     		throw new IOException("Directory traversal detected!");
     	}
-        Resource resource = readResource(Paths.get(getExtensionsFolder(), resourcePath).toString() , false, "");
-        response.setContentType(resource.type);
-        IOUtils.copy(toStream(resource), response.getOutputStream());
+        Matcher fingerprinted = FINGERPRINTED.matcher(resourcePath);
+        if (fingerprinted.matches()) {
+            try {
+                String bundle = fingerprinted.group(1) + (fingerprinted.group(3) != null ? fingerprinted.group(3) : "");
+                String digest = getBundleDigest(bundle);
+                if (digest != null && digest.startsWith(fingerprinted.group(2))) {
+                    // the digest of the installed version is the entity tag, the file is not hashed again
+                    response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE);
+                    writeAsset(Paths.get(getExtensionsFolder(), bundle).toString(), "\"" + digest + "\"", request, response);
+                    return;
+                }
+                writeAsset(Paths.get(getExtensionsFolder(), resourcePath).toString(), request, response);
+                return;
+            } catch (ResourceNotFoundException e) {
+                // the version may be installed later, the error must not be cached
+                response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+                throw e;
+            }
+        }
+        writeAsset(Paths.get(getExtensionsFolder(), resourcePath).toString(), request, response);
+    }
+
+    /**
+     * Returns the digest of the installed extension having the given bundle, from the extensions registry.
+     * The previous version of each extension is looked up too, for the clients that loaded the registry before an upgrade.
+     *
+     * @return the digest, null if the bundle is not registered or it has no digest (installed by a previous version)
+     */
+    private String getBundleDigest(String bundle) throws IOException {
+        String registry = Paths.get(getExtensionsFolder(), getExtensionsConfig()).toString();
+        Optional<File> registryFile = ResolutionCache.getInstance().findResource(getDataDir(), getContext(), registry);
+        JsonNode extensions = registryFile.isPresent() ? ConfigStore.getInstance().get(registryFile.get()) : null;
+        if (extensions == null || !extensions.isObject()) {
+            return null;
+        }
+        Iterator<JsonNode> entries = extensions.elements();
+        while (entries.hasNext()) {
+            JsonNode entry = entries.next();
+            for (JsonNode version : new JsonNode[] {entry, entry.path("previous")}) {
+                JsonNode digest = version.get("digest");
+                if (digest != null && digest.isTextual() && digest.asText().length() >= FINGERPRINT_LENGTH
+                        && bundle.equals(version.path("bundle").asText())) {
+                    return digest.asText();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Loads at startup the extensions index and the bundles of the installed extensions.
+     */
+    @Override
+    protected Map<String, ConfigWarmup.Task> getWarmupTasks() {
+        Map<String, ConfigWarmup.Task> tasks = new LinkedHashMap<>();
+        String registry = Paths.get(getExtensionsFolder(), getExtensionsConfig()).toString();
+        tasks.put(registry, () -> warmAsset(registry));
+        Optional<File> registryFile = ResolutionCache.getInstance().findResource(getDataDir(), getContext(), registry);
+        if (registryFile.isPresent() && registryFile.get().isFile()) {
+            try {
+                Iterator<JsonNode> extensions = JsonUtils.readTree(registryFile.get()).elements();
+                while (extensions.hasNext()) {
+                    JsonNode bundle = extensions.next().get("bundle");
+                    if (bundle != null && bundle.isTextual() && !bundle.asText().contains("..")) {
+                        String bundlePath = Paths.get(getExtensionsFolder(), bundle.asText()).toString();
+                        tasks.put(bundlePath, () -> warmAsset(bundlePath));
+                    }
+                }
+            } catch (IOException e) {
+                // not valid, the bundles are loaded on first request
+            }
+        }
+        return tasks;
     }
 }
@@ -15,7 +15,6 @@ import java.util.stream.Stream;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
-import org.apache.commons.io.IOUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -23,6 +22,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.HandlerMapping;
 
 import it.geosolutions.mapstore.controllers.BaseConfigController;
@@ -50,16 +50,25 @@ public class LoadAssetsController extends BaseConfigController {
      * @deprecated Use ConfigsController entry-point instead
      * @param {String} resourceName name of the resource to load (e.g. localConfig)
      * @param {boolean} overrides apply overrides from the configured properties file (if any)
+     * @param {WebRequest} request the current request, to answer If-None-Match with 304 using the resource ETag
      */
     @RequestMapping(value="/load/{resource}", method = RequestMethod.GET)
-    public @ResponseBody byte[] loadResource(@PathVariable("resource") String resourceName, @RequestParam(value="overrides", defaultValue="true") boolean applyOverrides) throws IOException {
+    public @ResponseBody byte[] loadResource(@PathVariable("resource") String resourceName, @RequestParam(value="overrides", defaultValue="true") boolean applyOverrides,
+            WebRequest request) throws IOException {
     	resourceName = normalizeResource(resourceName, "json");
         if (isAllowed(resourceName)) {
-            return toBytes(readResource(resourceName + ".json", applyOverrides, resourceName + ".json.patch"));
+            return loadConfig(resourceName + ".json", applyOverrides, resourceName + ".json.patch", request);
         }
         throw new ResourceNotAllowedException("Resource is not allowed");
     }
 
+    /**
+     * @deprecated Use ConfigsController entry-point instead
+     */
+    public byte[] loadResource(String resourceName, boolean applyOverrides) throws IOException {
+        return loadResource(resourceName, applyOverrides, null);
+    }
+
     private String normalizeResource(String name, String extension) {
     	if(name.toLowerCase().endsWith("." + extension.toLowerCase())) {
     		return name.substring(0, name.length() - 1 - extension.length());
@@ -79,9 +88,7 @@ public class LoadAssetsController extends BaseConfigController {
     	if (Paths.get(resourcePath).isAbsolute()) {
     		throw new IOException("Absolute paths are not allowed!");
     	}
-        Resource resource = readResource(resourcePath, false, "");
-        response.setContentType(resource.type);
-        IOUtils.copy(toStream(resource), response.getOutputStream());
+        writeAsset(resourcePath, request, response);
     }
     protected boolean isAllowed(String resourceName) {
         return Stream.of(allowedResources.split(",")).anyMatch(new Predicate<String>() {
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package it.geosolutions.mapstore.controllers.rest.config;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Map;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import it.geosolutions.mapstore.controllers.BaseMapStoreController;
+import it.geosolutions.mapstore.filters.CachePolicyFilter;
+import it.geosolutions.mapstore.metrics.MetricsRegistry;
+import it.geosolutions.mapstore.utils.JsonUtils;
+
+/**
+ * Metrics service: requests, errors, bytes sent and durations of each back-end service, and the statistics of the caches.
+ * Metrics are sent as JSON, or in the Prometheus text format when requested with <code>format=prometheus</code>
+ * or by a client accepting <code>text/plain</code> (as Prometheus does).
+ * By default the service only answers to requests from the local host (<code>metrics.local.only</code>).
+ */
+@Controller
+public class MetricsController extends BaseMapStoreController {
+
+    static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final ObjectMapper jsonMapper = JsonUtils.getMapper();
+
+    @RequestMapping(value = "/metrics", method = RequestMethod.GET)
+    public ResponseEntity<String> metrics(@RequestParam(value = "format", required = false) String format,
+                                          HttpServletRequest request) throws JsonProcessingException {
+        if (!getMetricsEnabled()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        if (getMetricsLocalOnly() && !isLocal(request)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        if (isPrometheus(format, request.getHeader(HttpHeaders.ACCEPT))) {
+            return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, PROMETHEUS_CONTENT_TYPE)
+                .body(registry.toPrometheus(getCachePolicyCounts()));
+        }
+        ObjectNode json = jsonMapper.createObjectNode();
+        registry.writeJson(json, getCachePolicyCounts());
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(jsonMapper.writeValueAsString(json));
+    }
+
+    private static boolean isPrometheus(String format, String accept) {
+        if (format != null) {
+            return "prometheus".equalsIgnoreCase(format);
+        }
+        return accept != null && (accept.contains("text/plain") || accept.contains("application/openmetrics-text"));
+    }
+
+    /**
+     * Tells if the request comes from the local host, directly (not forwarded by a proxy).
+     */
+    private static boolean isLocal(HttpServletRequest request) {
+        if (request.getHeader("X-Forwarded-For") != null || request.getHeader("Forwarded") != null) {
+            return false;
+        }
+        String address = request.getRemoteAddr();
+        if (address == null) {
+            return false;
+        }
+        try {
+            // the remote address is a literal IP, no name lookup is done
+            return InetAddress.getByName(address).isLoopbackAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the responses of each Cache-Control rule, if the {@link CachePolicyFilter} is installed.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Long> getCachePolicyCounts() {
+        ServletContext context = getContext();
+        Object filter = context != null ? context.getAttribute(CachePolicyFilter.class.getName()) : null;
+        return filter instanceof CachePolicyFilter ? ((CachePolicyFilter) filter).getServedCounts() : null;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package it.geosolutions.mapstore.controllers.rest.config;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import it.geosolutions.mapstore.cache.ConfigWarmup;
+import it.geosolutions.mapstore.utils.JsonUtils;
+
+/**
+ * Readiness service, for load balancers and orchestrators: answers 200 when the startup warm-up of the caches
+ * is complete, 503 otherwise. The body reports the time spent on each warmed up resource.
+ */
+@Controller
+public class ReadinessController {
+
+    private final ObjectMapper jsonMapper = JsonUtils.getMapper();
+
+    @RequestMapping(value = "/ready", method = RequestMethod.GET)
+    public ResponseEntity<String> ready() throws JsonProcessingException {
+        ConfigWarmup warmup = ConfigWarmup.getInstance();
+        boolean ready = warmup.isReady();
+        ObjectNode status = jsonMapper.createObjectNode();
+        status.put("ready", ready);
+        ArrayNode resources = status.putArray("resources");
+        for (ConfigWarmup.Result result : warmup.getResults()) {
+            ObjectNode resource = resources.addObject();
+            resource.put("name", result.getResource());
+            resource.put("millis", result.getMillis());
+            if (result.getError() != null) {
+                resource.put("error", result.getError());
+            }
+        }
+        return ResponseEntity.status(ready ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(jsonMapper.writeValueAsString(status));
+    }
+}
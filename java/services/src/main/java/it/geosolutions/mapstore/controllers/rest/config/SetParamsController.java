@@ -9,14 +9,12 @@ package it.geosolutions.mapstore.controllers.rest.config;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.NullNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.node.TextNode;
 import com.fasterxml.jackson.databind.node.ValueNode;
 import it.geosolutions.mapstore.controllers.BaseConfigController;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.text.StringEscapeUtils;
 import org.springframework.http.HttpHeaders;
@@ -37,7 +35,6 @@ import java.io.InputStream;
 import java.io.PrintWriter;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.Map;
@@ -145,7 +142,6 @@ public class SetParamsController extends BaseConfigController {
     }
 
     private ObjectNode mapToJSONObject(Map<String, String> map) {
-        ObjectMapper mapper = new ObjectMapper();
         JsonNodeFactory factory = new JsonNodeFactory(false);
         ObjectNode resultJSON = factory.objectNode();
         for (String k : map.keySet()) {
@@ -154,7 +150,7 @@ public class SetParamsController extends BaseConfigController {
             } else {
                 String val = map.get(k);
                 try {
-                    JsonNode node = mapper.readTree(val);
+                    JsonNode node = jsonMapper.readTree(val);
                     resultJSON.set(k, node);
                 } catch (JsonProcessingException e) {
                     resultJSON.set(k, factory.textNode(val));
@@ -165,9 +161,7 @@ public class SetParamsController extends BaseConfigController {
     }
 
     private JsonNode toJSON(HttpServletRequest request) throws IOException {
-        String jsonStr = IOUtils.toString(request.getInputStream(), StandardCharsets.UTF_8);
-        ObjectMapper mapper = new ObjectMapper();
-        return mapper.readTree(jsonStr);
+        return jsonMapper.readTree(request.getInputStream());
     }
 
     // a simple HttpInputMessage wrapping an HttpServletRequest
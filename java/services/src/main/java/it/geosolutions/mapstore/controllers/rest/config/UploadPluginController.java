@@ -8,16 +8,24 @@
 package it.geosolutions.mapstore.controllers.rest.config;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import it.geosolutions.mapstore.cache.ConfigStore;
+import it.geosolutions.mapstore.cache.ResolutionCache;
 import it.geosolutions.mapstore.controllers.BaseMapStoreController;
+import it.geosolutions.mapstore.utils.FolderCleaner;
+import it.geosolutions.mapstore.utils.JsonUtils;
 import it.geosolutions.mapstore.utils.ResourceUtils;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
-import org.apache.commons.io.input.CloseShieldInputStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -28,18 +36,41 @@ import org.springframework.web.bind.annotation.ResponseBody;
 import jakarta.servlet.ServletContext;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
@@ -47,39 +78,201 @@ import java.util.zip.ZipInputStream;
 /**
  * REST service used to upload (install) or uninstall extensions.
  * When a plugin is installed, this class takes care of :
- * - Storing the data in the proper folder (data-dir or webapp), in `extensionsFolder`.
+ * - Storing the data in the proper folder (data-dir or webapp), in `extensionsFolder`, in a new folder for each version
+ * (`<pluginName>/<version>`), that is never changed once published.
  * - Modifying `pluginsConfig.json` and `extensions.json` (in `extensionsFolder). to include the new plugin.
  * - When a datadir is available, the pluginsConfig.json original file is not touched, a `pluginsConfig.json.patch` file is used instead
  * in json-patch format to list only the uploaded extensions.
  * On uninstall, the class will clean up the files and the directories above to remove the plugins.
+ * The previous version of a plugin can be restored with a rollback; the older ones, and the uninstalled plugins,
+ * are deleted after `extensions.cleanup.delay` milliseconds. What is left by an install, an uninstall or a clean up that
+ * did not complete (e.g. on shutdown) is removed at startup, after the same delay.
  * TODO: move this in extensions package (and services path, aligning the client)
  */
 @Controller
-public class UploadPluginController extends BaseMapStoreController {
+public class UploadPluginController extends BaseMapStoreController implements InitializingBean {
 
-    private static final String PLUGIN_PATH_PREFIX = "__PLUGIN__/";
+    private static final Logger LOGGER = LogManager.getLogger(UploadPluginController.class);
+
+    /**
+     * Length of the version of an installed extension: the beginning of its digest, as the fingerprint of its bundle.
+     */
+    private static final int VERSION_LENGTH = 16;
+
+    private static final Pattern VERSION = Pattern.compile("[0-9a-f]{" + VERSION_LENGTH + "}");
 
-    private final ObjectMapper jsonMapper = new ObjectMapper();
     private final JsonNodeFactory jsonNodeFactory = new JsonNodeFactory(false);
 
     @Autowired
     ServletContext context;
 
+    @Override
+    public void afterPropertiesSet() {
+        try {
+            cleanupExtensionsFolder();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Unable to clean up the extensions folder", e);
+        }
+    }
+
     /**
      * Stores an uploaded plugin zip bundle.
      */
     @Secured({"ROLE_ADMIN"})
     @RequestMapping(value = "/uploadPlugin", method = RequestMethod.POST, headers = "Accept=application/json")
     public @ResponseBody String uploadPlugin(InputStream dataStream) throws IOException {
-        File servletTempDir = (File) context.getAttribute(ServletContext.TEMPDIR);
-        Path tempDir = Files.createTempDirectory(servletTempDir.toPath(), "mapstore-upload-");
+        StagedPlugin staged = stage(dataStream, getStagingFolder());
+        try {
+            install(Collections.singletonList(staged));
+            return staged.plugin.toString();
+        } finally {
+            FileUtils.deleteDirectory(staged.folder.toFile());
+        }
+    }
+
+    /**
+     * Stores many plugin bundles at once, uploaded as a zip of plugin zip bundles.
+     * The bundles are extracted in parallel, then all the valid ones are published and registered with a single change
+     * of the extensions registry and of the plugins configuration. If the registration fails, none of them is installed:
+     * they are all reported as failed, with the reason, and the response status is 500.
+     *
+     * @return a report with the result of each bundle, e.g.
+     * <code>[{"bundle":"my.zip","name":"My","status":"installed","plugin":{...}},{"bundle":"bad.zip","status":"failed","error":"..."}]</code>
+     */
+    @Secured({"ROLE_ADMIN"})
+    @RequestMapping(value = "/uploadPlugins", method = RequestMethod.POST, headers = "Accept=application/json")
+    public ResponseEntity<String> uploadPlugins(InputStream dataStream) throws IOException {
+        Path batch = Files.createTempDirectory(getStagingFolder(), ".mapstore-batch-");
+        ExecutorService pool = null;
+        try {
+            // the bundles are saved first, the outer zip can only be read sequentially
+            List<String> names = new ArrayList<>();
+            List<Path> bundles = new ArrayList<>();
+            try (ZipInputStream zip = new ZipInputStream(dataStream)) {
+                ZipEntry entry = zip.getNextEntry();
+                while (entry != null) {
+                    String entryName = normalizeZipEntryName(entry.getName());
+                    if (!entry.isDirectory() && entryName.toLowerCase(Locale.ROOT).endsWith(".zip")) {
+                        Path bundle = batch.resolve("bundle-" + bundles.size() + ".zip");
+                        Files.copy(zip, bundle);
+                        names.add(entryName);
+                        bundles.add(bundle);
+                    }
+                    entry = zip.getNextEntry();
+                }
+            }
+            if (bundles.isEmpty()) {
+                throw new IOException("Invalid batch: no plugin bundles found");
+            }
+
+            // staging folders are created in the batch folder, so they are all removed with it
+            // not a ForkJoinPool, that would wrap the exceptions of the tasks and lose their messages
+            pool = Executors.newFixedThreadPool(Math.min(bundles.size(), Runtime.getRuntime().availableProcessors()));
+            List<Future<StagedPlugin>> extracted = new ArrayList<>();
+            for (Path bundle : bundles) {
+                extracted.add(pool.submit(() -> {
+                    try (InputStream input = Files.newInputStream(bundle)) {
+                        return stage(input, batch);
+                    }
+                }));
+            }
+
+            ArrayNode report = jsonNodeFactory.arrayNode();
+            List<StagedPlugin> staged = new ArrayList<>();
+            List<ObjectNode> stagedItems = new ArrayList<>();
+            Set<String> installed = new HashSet<>();
+            for (int i = 0; i < extracted.size(); i++) {
+                ObjectNode item = report.addObject();
+                item.put("bundle", names.get(i));
+                try {
+                    StagedPlugin plugin = extracted.get(i).get();
+                    item.put("name", plugin.name);
+                    if (!installed.add(plugin.name)) {
+                        throw new IOException("Duplicate plugin in batch: " + plugin.name);
+                    }
+                    staged.add(plugin);
+                    stagedItems.add(item);
+                } catch (ExecutionException e) {
+                    item.put("status", "failed");
+                    item.put("error", String.valueOf(e.getCause().getMessage()));
+                } catch (IOException | RuntimeException e) {
+                    item.put("status", "failed");
+                    item.put("error", String.valueOf(e.getMessage()));
+                }
+            }
+            HttpStatus status = HttpStatus.OK;
+            try {
+                install(staged);
+                for (int i = 0; i < staged.size(); i++) {
+                    stagedItems.get(i).put("status", "installed");
+                    stagedItems.get(i).set("plugin", staged.get(i).plugin);
+                }
+            } catch (IOException | RuntimeException e) {
+                LOGGER.warn("Unable to install the batch of plugins, rolled back", e);
+                // none of them is installed
+                for (ObjectNode item : stagedItems) {
+                    item.put("status", "failed");
+                    item.put("error", "Rolled back: " + e.getMessage());
+                }
+                status = HttpStatus.INTERNAL_SERVER_ERROR;
+            }
+            return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(report.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while extracting the bundles");
+        } finally {
+            if (pool != null) {
+                // waits for the extractions still running, before removing their folders
+                pool.shutdown();
+                try {
+                    pool.awaitTermination(1, TimeUnit.MINUTES);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            FileUtils.deleteDirectory(batch.toFile());
+        }
+    }
+
+    /**
+     * A plugin bundle extracted in a staging folder, with the layout of its version folder.
+     */
+    private static final class StagedPlugin {
+        final Path folder;
+        final JsonNode plugin;
+        final String name;
+        final String version;
+        final String bundle;
+        final String translations;
+        final String digest;
+
+        StagedPlugin(Path folder, JsonNode plugin, String name, String version, String bundle, String translations,
+                String digest) {
+            this.folder = folder;
+            this.plugin = plugin;
+            this.name = name;
+            this.version = version;
+            this.bundle = bundle;
+            this.translations = translations;
+            this.digest = digest;
+        }
+    }
+
+    /**
+     * Extracts and validates a plugin zip bundle in a new staging folder, the folder is removed if the bundle is invalid.
+     *
+     * @param parent the folder where to create the staging folder
+     */
+    private StagedPlugin stage(InputStream dataStream, Path parent) throws IOException {
+        // the plugin folder is extracted in a staging folder and published with a rename, once complete
+        Path staging = Files.createTempDirectory(parent, ".mapstore-upload-");
         try (ZipInputStream zip = new ZipInputStream(dataStream)) {
             ZipEntry entry = zip.getNextEntry();
             String pluginName = null;
             String bundleEntryName = null; // as found inside the zip (normalized, POSIX)
-            Map<File, String> tempFilesToRelativeTargets = new HashMap<>(); // File -> relative path under extensions root (POSIX)
             JsonNode plugin = null;
             boolean addTranslations = false;
+            Map<String, byte[]> digests = new TreeMap<>(); // SHA-256 of the extracted files, by name
 
             while (entry != null) {
                 if (!entry.isDirectory()) {
@@ -89,12 +282,12 @@ public class UploadPluginController extends BaseMapStoreController {
 
                     if (lower.endsWith("index.js")) {
                         bundleEntryName = normalizedEntry;
-                        File tempBundle = Files.createTempFile(tempDir, "mapstore-bundle", ".js").toFile();
-                        storeAsset(zip, tempBundle);
-                        // We'll resolve final relative target after we know pluginName
-                        tempFilesToRelativeTargets.put(tempBundle, "__BUNDLE__");
+                        // Target relative to the plugin folder: <bundleEntryName>
+                        digests.put(normalizedEntry, storeAsset(zip, staging, normalizedEntry));
                     } else if (lower.equals("index.json")) {
-                        JsonNode json = readJSON(CloseShieldInputStream.wrap(zip));
+                        // kept in the version folder, to restore the plugin configuration on rollback
+                        digests.put(normalizedEntry, storeAsset(zip, staging, normalizedEntry));
+                        JsonNode json = JsonUtils.readTree(staging.resolve(normalizedEntry).toFile());
                         JsonNode plugins = json.get("plugins");
                         if (plugins == null || !plugins.isArray() || plugins.isEmpty()) {
                             throw new IOException("Invalid bundle: index.json has no 'plugins' array");
@@ -105,23 +298,13 @@ public class UploadPluginController extends BaseMapStoreController {
 
                         pluginName = plugin.get("name").asText();
                         validatePluginName(pluginName); // SECURITY: ensure folder-safe name
-
-                        if (shouldStorePluginsConfigAsPatch()) {
-                            addPluginConfigurationAsPatch(plugin);
-                        } else {
-                            addPluginConfiguration(plugin);
-                        }
                     } else if (lower.startsWith("translations/")) {
-                        File tempAsset = Files.createTempFile(tempDir, "mapstore-asset-translations", ".json").toFile();
-                        storeAsset(zip, tempAsset);
-                        // Target relative to extensions root: <pluginName>/<translations/...>
-                        tempFilesToRelativeTargets.put(tempAsset, PLUGIN_PATH_PREFIX + normalizedEntry);
+                        // Target relative to the plugin folder: <translations/...>
+                        digests.put(normalizedEntry, storeAsset(zip, staging, normalizedEntry));
                         addTranslations = true;
                     } else if (lower.startsWith("assets/")) {
-                        File tempAsset = Files.createTempFile(tempDir, "mapstore-asset", ".tmp").toFile();
-                        storeAsset(zip, tempAsset);
-                        // Target relative to extensions root: <pluginName>/<assets/...>
-                        tempFilesToRelativeTargets.put(tempAsset, PLUGIN_PATH_PREFIX + normalizedEntry);
+                        // Target relative to the plugin folder: <assets/...>
+                        digests.put(normalizedEntry, storeAsset(zip, staging, normalizedEntry));
                     }
                 }
                 entry = zip.getNextEntry();
@@ -134,42 +317,256 @@ public class UploadPluginController extends BaseMapStoreController {
                 throw new IOException("Invalid bundle: index.js missing");
             }
 
-            // Build pluginBundle path (relative to extensions root) SAFELY in POSIX form:
-            // <pluginName>/<bundleEntryName>
-            String pluginBundleRelative = joinUnixStrict(pluginName, bundleEntryName);
+            // the version folder is named after the digest, so the same content is always installed in the same folder
+            String digest = digest(digests);
+            String version = digest.substring(0, VERSION_LENGTH);
 
-            String translationsDirRelative = addTranslations ? joinUnixStrict(pluginName, "translations") : null;
+            // Build pluginBundle path (relative to extensions root) SAFELY in POSIX form:
+            // <pluginName>/<version>/<bundleEntryName>
+            String versionFolder = joinUnixStrict(pluginName, version);
+            String pluginBundleRelative = joinUnixStrict(versionFolder, bundleEntryName);
 
-            // Write extensions.json entry (POSIX paths in JSON)
-            addExtension(pluginName, pluginBundleRelative, translationsDirRelative);
+            String translationsDirRelative = addTranslations ? joinUnixStrict(versionFolder, "translations") : null;
 
-            // Move temp files to their final SAFE locations
-            for (Map.Entry<File, String> e : tempFilesToRelativeTargets.entrySet()) {
-                File tempFile = e.getKey();
-                String markerOrRel = e.getValue();
+            return new StagedPlugin(staging, plugin, pluginName, version, pluginBundleRelative, translationsDirRelative,
+                digest);
+        } catch (IOException | RuntimeException e) {
+            FileUtils.deleteDirectory(staging.toFile());
+            throw e;
+        }
+    }
 
-                String relativeTarget;
-                if ("__BUNDLE__".equals(markerOrRel)) {
-                    relativeTarget = pluginBundleRelative;
-                } else if (markerOrRel.startsWith(PLUGIN_PATH_PREFIX)) {
-                    String sub = markerOrRel.substring(PLUGIN_PATH_PREFIX.length());
-                    relativeTarget = joinUnixStrict(pluginName, sub);
-                } else {
-                    // Should never happen, but don't proceed silently
-                    throw new IOException("Unexpected target marker: " + markerOrRel);
+    /**
+     * Publishes the version folders of the staged plugins, then registers them all at once.
+     * If any step fails, the changes are undone: the extensions registry is restored and the new version folders are removed,
+     * so the plugins are left as they were before.
+     */
+    private void install(List<StagedPlugin> plugins) throws IOException {
+        if (plugins.isEmpty()) {
+            return;
+        }
+        List<Path> published = new ArrayList<>();
+        Map<String, JsonNode> replaced = null;
+        try {
+            for (StagedPlugin plugin : plugins) {
+                Path folder = publishFolder(plugin);
+                if (folder != null) {
+                    published.add(folder);
                 }
+            }
+            // Write extensions.json entries (POSIX paths in JSON), switching to the new versions
+            replaced = addExtensions(plugins);
 
-                moveAsset(tempFile, relativeTarget);
+            List<JsonNode> configurations = new ArrayList<>();
+            for (StagedPlugin plugin : plugins) {
+                configurations.add(plugin.plugin);
             }
+            storePluginConfigurations(configurations);
+        } catch (IOException | RuntimeException e) {
+            try {
+                if (replaced != null) {
+                    restoreExtensions(replaced);
+                }
+                for (Path folder : published) {
+                    FileUtils.deleteDirectory(folder.toFile());
+                    // the plugin folder too, if created for this version
+                    String[] left = folder.getParent().toFile().list();
+                    if (left != null && left.length == 0) {
+                        Files.delete(folder.getParent());
+                    }
+                }
+            } catch (IOException | RuntimeException rollback) {
+                e.addSuppressed(rollback);
+            } finally {
+                ResolutionCache.getInstance().clear();
+            }
+            throw e;
+        }
+
+        for (StagedPlugin plugin : plugins) {
+            scheduleCleanup(plugin.name);
+        }
+    }
 
-            return plugin.toString();
+    /**
+     * Adds (or replaces) the configurations of some plugins in the plugins configuration, or in its patch.
+     */
+    private void storePluginConfigurations(List<JsonNode> configurations) throws IOException {
+        if (shouldStorePluginsConfigAsPatch()) {
+            addPluginConfigurationAsPatch(configurations);
+        } else {
+            addPluginConfiguration(configurations);
+        }
+    }
+
+    /**
+     * Returns the folder where uploaded bundles are extracted: the extensions folder of the datadir, if any,
+     * so that the plugin folder can be published with a rename, otherwise the servlet temporary folder.
+     */
+    private Path getStagingFolder() throws IOException {
+        String writeStorage = getWriteStorage();
+        if (!writeStorage.isEmpty()) {
+            Path extensions = Paths.get(ResourceUtils.getResourcePath(writeStorage, context, getExtensionsFolder(), true));
+            return Files.createDirectories(extensions);
+        }
+        File servletTempDir = (File) context.getAttribute(ServletContext.TEMPDIR);
+        return servletTempDir.toPath();
+    }
+
+    /**
+     * Publishes the staged plugin as a new version folder, <code>&lt;pluginName&gt;/&lt;version&gt;</code>.
+     * The staged folder is renamed in place, so the version is never seen partially installed; when it is on a different
+     * file system (servlet temporary folder) it is first copied next to the version folder.
+     * Version folders are never changed once published: if the same version is already installed it is left as is.
+     * The other versions are not touched, they are still served until they are cleaned up (see {@link #scheduleCleanup(String)}).
+     *
+     * @return the version folder, null if it was already published
+     */
+    private Path publishFolder(StagedPlugin staged) throws IOException {
+        Path pluginFolder = Files.createDirectories(getPluginFolder(staged.name));
+        Path target = pluginFolder.resolve(staged.version);
+        if (Files.isDirectory(target)) {
+            // marks the version as used again, so that a pending clean up does not remove it
+            Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis()));
+            return null;
+        }
+        Path ready = pluginFolder.resolve("." + staged.version + "-" + UUID.randomUUID() + ".new");
+        try {
+            try {
+                Files.move(staged.folder, ready, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                FileUtils.copyDirectory(staged.folder.toFile(), ready.toFile());
+            }
+            Files.move(ready, target, StandardCopyOption.ATOMIC_MOVE);
+            return target;
+        } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+            // the same version published at the same time by another request
+            if (!Files.isDirectory(target)) {
+                throw e;
+            }
+            return null;
         } finally {
-            FileUtils.deleteDirectory(tempDir.toFile());
+            FileUtils.deleteDirectory(ready.toFile());
+            ResolutionCache.getInstance().clear();
+        }
+    }
+
+    /**
+     * Resolves the folder of a plugin, containing its versions, in the write storage.
+     */
+    private Path getPluginFolder(String pluginName) throws IOException {
+        // POSIX form so ServletContext#getRealPath mocks (contains("custom/"), contains("My")) match
+        String relUnderExtensions = getExtensionsFolder().replace('\\', '/') + "/" + pluginName;
+        String targetPath = ResourceUtils.getResourcePath(getWriteStorage(), context, relUnderExtensions, true);
+        if (targetPath == null) {
+            throw new IOException("Unable to resolve destination path for: " + relUnderExtensions);
+        }
+        return Paths.get(targetPath);
+    }
+
+    /**
+     * Removes, after the configured delay, the contents of the plugin folder that are not used by the current version
+     * or by the previous one (kept for rollback): older versions, or the files of a plugin installed before versions
+     * were introduced. The delay lets the clients that loaded the old registry download the files they still need.
+     * The registry is read again when the delay expires, so a version installed or restored again in the meanwhile is kept.
+     */
+    private void scheduleCleanup(String pluginName) throws IOException {
+        Path pluginFolder = getPluginFolder(pluginName);
+        Set<String> outdated = getOutdatedContents(pluginName, pluginFolder);
+        if (outdated.isEmpty()) {
+            return;
+        }
+        long scheduled = System.currentTimeMillis();
+        FolderCleaner.getInstance().schedule("clean up the old versions of " + pluginName, () -> {
+            Set<String> current = getOutdatedContents(pluginName, pluginFolder);
+            for (String name : outdated) {
+                Path path = pluginFolder.resolve(name);
+                // versions published again after scheduling are kept
+                if (current.contains(name) && Files.getLastModifiedTime(path).toMillis() <= scheduled) {
+                    FileUtils.forceDelete(path.toFile());
+                }
+            }
+            ResolutionCache.getInstance().clear();
+        }, getExtensionsCleanupDelay());
+    }
+
+    /**
+     * Lists the contents of a plugin folder that are not used by the registered versions of the plugin.
+     * Hidden files (versions being published) are not listed.
+     */
+    private Set<String> getOutdatedContents(String pluginName, Path pluginFolder) throws IOException {
+        Set<String> outdated = new HashSet<>();
+        JsonNode extension = getExtensionConfig().get(pluginName);
+        if (extension == null || !Files.isDirectory(pluginFolder)) {
+            return outdated;
+        }
+        try (Stream<Path> contents = Files.list(pluginFolder)) {
+            contents.map(path -> path.getFileName().toString())
+                .filter(name -> !name.startsWith("."))
+                .forEach(outdated::add);
+        }
+        outdated.remove(extension.path("version").asText());
+        outdated.remove(extension.path("previous").path("version").asText());
+        return outdated;
+    }
+
+    /**
+     * Removes, after the configured delay, what is left in the extensions folder of the write storage by the installs and
+     * uninstalls that did not complete: staging folders, versions being published, uninstalled plugin folders (also the
+     * ones not moved aside), and the versions that are neither the current nor the previous one of each plugin.
+     * The delay lets other instances sharing the data directory complete the operations in progress.
+     */
+    private void cleanupExtensionsFolder() throws IOException {
+        String extensionsPath = ResourceUtils.getResourcePath(getWriteStorage(), context, getExtensionsFolder(), true);
+        if (extensionsPath == null || !Files.isDirectory(Paths.get(extensionsPath))) {
+            return;
+        }
+        List<Path> contents;
+        try (Stream<Path> list = Files.list(Paths.get(extensionsPath))) {
+            contents = list.filter(Files::isDirectory).toList();
+        }
+        for (Path folder : contents) {
+            String name = folder.getFileName().toString();
+            if (name.startsWith(".")) {
+                if (name.endsWith(".old") || name.startsWith(".mapstore-")) {
+                    FolderCleaner.getInstance().deleteLater(folder, getExtensionsCleanupDelay());
+                }
+            } else if (isRegistered(name)) {
+                try (Stream<Path> list = Files.list(folder)) {
+                    list.filter(path -> path.getFileName().toString().endsWith(".new"))
+                        .forEach(path -> FolderCleaner.getInstance().deleteLater(path, getExtensionsCleanupDelay()));
+                }
+                scheduleCleanup(name);
+            } else if (hasVersions(folder)) {
+                // the registry is read again when the delay expires, the plugin may be installed in the meanwhile
+                FolderCleaner.getInstance().schedule("remove the uninstalled plugin " + name, () -> {
+                    if (!isRegistered(name) && Files.isDirectory(folder)) {
+                        FileUtils.deleteDirectory(folder.toFile());
+                        ResolutionCache.getInstance().clear();
+                    }
+                }, getExtensionsCleanupDelay());
+            }
+        }
+    }
+
+    private boolean isRegistered(String pluginName) throws IOException {
+        Optional<File> extensionsConfigFile = findResource(getExtensionsConfigPath());
+        JsonNode config = extensionsConfigFile.isPresent() ? ConfigStore.getInstance().get(extensionsConfigFile.get()) : null;
+        return config != null && config.has(pluginName);
+    }
+
+    /**
+     * Checks if a folder contains version folders, so it is a plugin folder created by this service.
+     */
+    private static boolean hasVersions(Path folder) throws IOException {
+        try (Stream<Path> list = Files.list(folder)) {
+            return list.anyMatch(path -> Files.isDirectory(path) && VERSION.matcher(path.getFileName().toString()).matches());
         }
     }
 
     private static void validatePluginName(String pluginName) {
-        if (pluginName == null || pluginName.isEmpty() || !pluginName.matches("^[A-Za-z0-9._-]+$")) {
+        if (pluginName == null || pluginName.isEmpty() || !pluginName.matches("^[A-Za-z0-9._-]+$")
+                || pluginName.matches("^\\.+$")) {
             throw new IllegalArgumentException("Invalid plugin name.");
         }
     }
@@ -229,59 +626,114 @@ public class UploadPluginController extends BaseMapStoreController {
     public @ResponseBody String uninstallPlugin(@PathVariable String pluginName) throws IOException {
         validatePluginName(pluginName);
 
-        ObjectNode configObj = getExtensionConfig();
-        if (configObj.has(pluginName)) {
-            JsonNode pluginConfig = configObj.get(pluginName);
-            String pluginBundle = pluginConfig.get("bundle").asText();
-            String pluginFolder = pluginBundle.substring(0, pluginBundle.lastIndexOf("/"));
-
-            // Compute the folder to remove relative to extensions root
-            Path folderRel = Paths.get(pluginFolder).normalize();
-            removeFolderSecurely(folderRel);
-
-            // Update configurations after removing the folder
-            configObj.remove(pluginName);
-            storeJSONConfig(configObj, getExtensionsConfigPath());
-
-            ObjectNode pluginsConfigObj = null;
-            ArrayNode plugins;
-            if (shouldStorePluginsConfigAsPatch()) {
-                plugins = getPluginsConfigurationPatch();
-            } else {
-                pluginsConfigObj = getPluginsConfiguration();
-                plugins = (ArrayNode) pluginsConfigObj.get("plugins");
+        JsonNode pluginConfig = getExtensionConfig().get(pluginName);
+        if (pluginConfig == null) {
+            return "{}";
+        }
+        String pluginBundle = pluginConfig.get("bundle").asText();
+        // the plugin folder, with all its versions (<pluginFolder>/<version>/index.js)
+        String pluginFolder = pluginBundle.substring(0, pluginBundle.indexOf("/"));
+
+        // Compute the folder to remove relative to extensions root
+        Path folderRel = Paths.get(pluginFolder).normalize();
+        File folder = resolveFolderSecurely(folderRel);
+
+        // the plugin is unregistered first, so its files are not requested anymore once removed
+        updateJSONConfig(getExtensionsConfigPath(), config -> {
+            if (config == null || !config.has(pluginName)) {
+                return null;
             }
-
-            int toRemove = -1;
-            for (int i = 0; i < plugins.size(); i++) {
-                JsonNode plugin = plugins.get(i);
-                String name = plugin.has("name") ? plugin.get("name").asText()
-                    : plugin.get("value").get("name").asText();
-                if (name.contentEquals(pluginName)) {
-                    toRemove = i;
+            ((ObjectNode) config).remove(pluginName);
+            return config;
+        });
+
+        if (shouldStorePluginsConfigAsPatch()) {
+            String configPath = getPluginsConfigPatchFilePath();
+            updateJSONConfig(configPath, config -> {
+                if (config == null) {
+                    throw new FileNotFoundException(configPath);
                 }
-            }
+                return removePlugin((ArrayNode) config, pluginName) ? config : null;
+            });
+        } else {
+            updateJSONConfig(getPluginsConfigPath(), config -> {
+                if (config == null) {
+                    throw new FileNotFoundException(getPluginsConfigPath());
+                }
+                return removePlugin((ArrayNode) config.get("plugins"), pluginName) ? config : null;
+            });
+        }
 
-            if (toRemove >= 0) {
-                plugins.remove(toRemove);
-            }
+        // if this fails the folder is left on disk, it is removed at the next startup
+        removeFolder(folder);
+        return pluginConfig.toString();
+    }
 
-            if (shouldStorePluginsConfigAsPatch()) {
-                storeJSONConfig(plugins, getPluginsConfigPatchFilePath());
-            } else {
-                storeJSONConfig(pluginsConfigObj, getPluginsConfig());
-            }
+    /**
+     * Restores the previous version of an installed plugin extension.
+     * The versions are swapped in the extensions registry, so the replaced version can be restored again
+     * with the same call, and the configuration of the plugin is restored from its version folder.
+     *
+     * @return the restored entry of the extensions registry, <code>{}</code> if the plugin is not installed or has no previous version
+     */
+    @Secured({"ROLE_ADMIN"})
+    @RequestMapping(value = "/rollbackPlugin/{pluginName}", method = RequestMethod.POST)
+    public @ResponseBody String rollbackPlugin(@PathVariable String pluginName) throws IOException {
+        validatePluginName(pluginName);
 
-            return pluginConfig.toString();
-        } else {
+        JsonNode[] restored = new JsonNode[2]; // registry entry, plugin configuration
+        updateJSONConfig(getExtensionsConfigPath(), config -> {
+            JsonNode current = config != null ? config.get(pluginName) : null;
+            if (current == null || !current.has("previous")) {
+                return null;
+            }
+            ObjectNode previous = (ObjectNode) current.get("previous");
+            String versionFolder = joinUnixStrict(pluginName, previous.path("version").asText());
+            String definitionPath = getExtensionsFolder().replace('\\', '/') + "/" + joinUnixStrict(versionFolder, "index.json");
+            File definition = findResource(definitionPath).orElseThrow(() -> new FileNotFoundException(
+                "The previous version of " + pluginName + " is not available anymore: " + versionFolder));
+            ObjectNode plugin = (ObjectNode) JsonUtils.readTree(definition).get("plugins").get(0);
+            plugin.put("extension", true);
+
+            previous.set("previous", ((ObjectNode) current).without("previous"));
+            ((ObjectNode) config).set(pluginName, previous);
+            restored[0] = previous;
+            restored[1] = plugin;
+            return config;
+        });
+        if (restored[0] == null) {
             return "{}";
         }
+        storePluginConfigurations(Collections.singletonList(restored[1]));
+        return restored[0].toString();
+    }
+
+    /**
+     * Removes a plugin from a list of plugins configurations, or of patch operations adding them.
+     *
+     * @return true if the plugin was in the list
+     */
+    private static boolean removePlugin(ArrayNode plugins, String pluginName) {
+        int toRemove = -1;
+        for (int i = 0; i < plugins.size(); i++) {
+            JsonNode plugin = plugins.get(i);
+            String name = plugin.has("name") ? plugin.get("name").asText()
+                : plugin.get("value").get("name").asText();
+            if (name.contentEquals(pluginName)) {
+                toRemove = i;
+            }
+        }
+        if (toRemove >= 0) {
+            plugins.remove(toRemove);
+            return true;
+        }
+        return false;
     }
 
     /**
-     * Remove a folder *under the extensions root* with containment checks.
+     * Resolves a folder *under the extensions root* with containment checks.
      */
-    private void removeFolderSecurely(Path folderRelativeToExtensions) throws IOException {
+    private File resolveFolderSecurely(Path folderRelativeToExtensions) throws IOException {
         if (folderRelativeToExtensions == null) {
             throw new IllegalArgumentException("Plugin folder path cannot be null.");
         }
@@ -295,207 +747,212 @@ public class UploadPluginController extends BaseMapStoreController {
             throw new FileNotFoundException("The specified folder path could not be resolved: " + relUnderExtensions);
         }
 
+        // the folder is resolved through symbolic links, so only the contents of the base folder can be deleted
         File folderPath = new File(resolvedPath).getCanonicalFile();
 
         // Optional extra containment when a dataDir is configured (baseFolder != "")
         String baseFolder = getWriteStorage();
-        if (baseFolder != null && !baseFolder.isEmpty()) {
-            File base = new File(baseFolder).getCanonicalFile();
-            String basePath = base.getPath();
-            String targetPath = folderPath.getPath();
-            if (!targetPath.equals(basePath) && !targetPath.startsWith(basePath + File.separator)) {
-                throw new IOException("Unauthorized path traversal attempt detected.");
-            }
-        }
-
-        if (folderPath.exists()) {
-            FileUtils.cleanDirectory(folderPath);
-            if (!folderPath.delete()) {
-                throw new IOException("The specified folder path could not be deleted: " + folderPath.getAbsolutePath());
-            }
-        } else {
-            throw new FileNotFoundException("The specified folder path does not exist: " + folderPath.getAbsolutePath());
+        if (baseFolder != null && !baseFolder.isEmpty()
+                && !folderPath.toPath().startsWith(ResourceUtils.getCanonicalBase(baseFolder))) {
+            throw new IOException("Unauthorized path traversal attempt detected.");
         }
-    }
-
-    private Optional<File> findResource(String resourceName) {
-        return ResourceUtils.findResource(getDataDir(), context, resourceName);
+        return folderPath;
     }
 
     /**
-     * Move a temp file to a destination under the extensions root.
-     *
-     * @param relativeTarget path RELATIVE to the extensions root (POSIX, e.g., "<plugin>/assets/…")
+     * Removes a folder, if it exists.
+     * The folder is renamed at once, so it can be installed again, and deleted after the configured delay,
+     * so that the downloads in progress are not truncated.
      */
-    private void moveAsset(File tempAsset, String relativeTarget) throws IOException {
-        // POSIX form so ServletContext#getRealPath mocks (contains("custom/"), contains("My")) match
-        String relUnderExtensions = getExtensionsFolder().replace('\\', '/')
-                                    + "/" + relativeTarget.replace('\\', '/');
-
-        // Resolve to absolute canonical path; ResourceUtils enforces containment
-        String destPathStr = ResourceUtils.getResourcePath(getWriteStorage(), context, relUnderExtensions, true);
-        if (destPathStr == null) {
-            throw new IOException("Unable to resolve destination path for: " + relUnderExtensions);
-        }
-
-        File destFile = new File(destPathStr);
-        File parent = destFile.getParentFile();
-        if (parent != null && !parent.exists() && !parent.mkdirs()) {
-            throw new IOException("Unable to create parent directories for: " + destFile.getAbsolutePath());
-        }
-
-        try (FileInputStream input = new FileInputStream(tempAsset);
-             FileOutputStream output = new FileOutputStream(destFile)) {
-            IOUtils.copy(input, output);
+    private void removeFolder(File folderPath) throws IOException {
+        if (folderPath.exists()) {
+            Path removed = folderPath.toPath().resolveSibling("." + folderPath.getName() + "-" + UUID.randomUUID() + ".old");
+            Files.move(folderPath.toPath(), removed, StandardCopyOption.ATOMIC_MOVE);
+            ResolutionCache.getInstance().clear();
+            FolderCleaner.getInstance().deleteLater(removed, getExtensionsCleanupDelay());
         }
+    }
 
-        if (!tempAsset.delete()) {
-            throw new IOException("Temporary file could not be deleted: " + tempAsset.getAbsolutePath());
-        }
+    private Optional<File> findResource(String resourceName) {
+        return ResolutionCache.getInstance().findResource(getDataDir(), context, resourceName);
     }
 
     private String getWriteStorage() {
         return getDataDir().isEmpty() ? "" : Stream.of(getDataDir().split(",")).filter(folder -> !folder.trim().isEmpty()).findFirst().orElse("");
     }
 
-    private void addPluginConfiguration(JsonNode json) throws IOException {
-        ObjectNode config;
-        Optional<File> pluginsConfigFile = findResource(getPluginsConfigPath());
-        if (pluginsConfigFile.isPresent()) {
-            try (FileInputStream input = new FileInputStream(pluginsConfigFile.get())) {
-                config = (ObjectNode) readJSON(input);
-            } catch (FileNotFoundException e) {
+    private void addPluginConfiguration(List<JsonNode> configurations) throws IOException {
+        updateJSONConfig(getPluginsConfigPath(), current -> {
+            ObjectNode config;
+            if (current != null) {
+                config = (ObjectNode) current;
+            } else {
                 config = jsonNodeFactory.objectNode();
                 config.set("plugins", jsonNodeFactory.arrayNode());
             }
-        } else {
-            config = jsonNodeFactory.objectNode();
-            config.set("plugins", jsonNodeFactory.arrayNode());
-        }
-        if (config != null) {
             ArrayNode plugins = (ArrayNode) config.get("plugins");
-            int remove = -1;
-            for (int count = 0; count < plugins.size(); count++) {
-                JsonNode node = plugins.get(count);
-                if (json.get("name").asText().equals(node.get("name").asText())) {
-                    remove = count;
+            for (JsonNode json : configurations) {
+                int remove = -1;
+                for (int count = 0; count < plugins.size(); count++) {
+                    JsonNode node = plugins.get(count);
+                    if (json.get("name").asText().equals(node.get("name").asText())) {
+                        remove = count;
+                    }
                 }
+                if (remove >= 0) {
+                    plugins.remove(remove);
+                }
+                plugins.add(json);
             }
-            if (remove >= 0) {
-                plugins.remove(remove);
-            }
-            plugins.add(json);
-            storeJSONConfig(config, getPluginsConfigPath());
-        }
+            return config;
+        });
     }
 
-    private void addPluginConfigurationAsPatch(JsonNode json) throws IOException {
-        ArrayNode config;
-        String configPath = getPluginsConfigPatchFilePath();
-        Optional<File> pluginsConfigFile = findResource(configPath);
-
-        if (pluginsConfigFile.isPresent()) {
-            try (FileInputStream input = new FileInputStream(pluginsConfigFile.get())) {
-                config = (ArrayNode) readJSON(input);
-            } catch (FileNotFoundException e) {
-                config = jsonNodeFactory.arrayNode();
-            }
-        } else {
-            config = jsonNodeFactory.arrayNode();
-        }
-        if (config != null) {
-            int remove = -1;
-            for (int count = 0; count < config.size(); count++) {
-                JsonNode node = config.get(count);
-                if (json.get("name").asText().equals(node.get("value").get("name").asText())) {
-                    remove = count;
+    private void addPluginConfigurationAsPatch(List<JsonNode> configurations) throws IOException {
+        updateJSONConfig(getPluginsConfigPatchFilePath(), current -> {
+            ArrayNode config = current != null ? (ArrayNode) current : jsonNodeFactory.arrayNode();
+            for (JsonNode json : configurations) {
+                int remove = -1;
+                for (int count = 0; count < config.size(); count++) {
+                    JsonNode node = config.get(count);
+                    if (json.get("name").asText().equals(node.get("value").get("name").asText())) {
+                        remove = count;
+                    }
+                }
+                if (remove >= 0) {
+                    config.remove(remove);
                 }
-            }
-            if (remove >= 0) {
-                config.remove(remove);
-            }
-
-            ObjectNode plugin = new ObjectNode(jsonNodeFactory);
-            plugin.put("op", "add");
-            plugin.put("path", "/plugins/-");
-            plugin.set("value", json);
-            config.add(plugin);
-            storeJSONConfig(config, configPath);
-        }
-    }
 
-    private ObjectNode getPluginsConfiguration() throws IOException {
-        Optional<File> pluginsConfigFile = findResource(getPluginsConfigPath());
-        if (pluginsConfigFile.isPresent()) {
-            try (FileInputStream input = new FileInputStream(pluginsConfigFile.get())) {
-                return (ObjectNode) readJSON(input);
+                ObjectNode plugin = new ObjectNode(jsonNodeFactory);
+                plugin.put("op", "add");
+                plugin.put("path", "/plugins/-");
+                plugin.set("value", json);
+                config.add(plugin);
             }
-        } else {
-            throw new FileNotFoundException(getPluginsConfigPath());
-        }
+            return config;
+        });
     }
 
-    private ArrayNode getPluginsConfigurationPatch() throws IOException {
-        Optional<File> pluginsConfigFile = findResource(getPluginsConfigPatchFilePath());
-        if (pluginsConfigFile.isPresent()) {
-            try (FileInputStream input = new FileInputStream(pluginsConfigFile.get())) {
-                return (ArrayNode) readJSON(input);
-            }
-        } else {
-            throw new FileNotFoundException(getPluginsConfigPatchFilePath());
+    /**
+     * Changes a configuration file through the {@link ConfigStore}, so that concurrent changes are applied one at a time
+     * and the file is replaced atomically.
+     * The current configuration is the one found in the datadir or in the webapp, the new one is written in the write storage.
+     */
+    private JsonNode updateJSONConfig(String configName, ConfigStore.Mutation mutation) throws IOException {
+        String outputFile = ResourceUtils.getResourcePath(getWriteStorage(), context, configName, true);
+        if (outputFile == null) {
+            throw new IOException("Unable to resolve destination path for: " + configName);
         }
+        return ConfigStore.getInstance().update(findResource(configName).orElse(null), new File(outputFile), mutation);
     }
 
-    private void storeJSONConfig(Object config, String configName) throws IOException {
-        ResourceUtils.storeJSONConfig(getWriteStorage(), context, config, configName);
+    /**
+     * Adds the staged plugins to the extensions registry.
+     *
+     * @return the replaced entries of the registry, by plugin name (null values for the plugins that were not installed)
+     */
+    private Map<String, JsonNode> addExtensions(List<StagedPlugin> staged) throws IOException {
+        Map<String, JsonNode> replaced = new HashMap<>();
+        updateJSONConfig(getExtensionsConfigPath(), current -> {
+            ObjectNode config = current != null ? (ObjectNode) current : jsonNodeFactory.objectNode();
+            replaced.clear();
+            for (StagedPlugin added : staged) {
+                replaced.put(added.name, config.get(added.name));
+                ObjectNode extension = jsonNodeFactory.objectNode();
+                extension.put("bundle", added.bundle); // POSIX in JSON
+                if (added.translations != null) {
+                    extension.put("translations", added.translations); // POSIX in JSON
+                }
+                extension.put("digest", added.digest);
+                extension.put("version", added.version);
+                JsonNode installed = config.get(added.name);
+                if (installed != null && installed.has("version")) {
+                    // the replaced version is kept for rollback (the same version installed again keeps its previous one)
+                    JsonNode previous = added.version.equals(installed.get("version").asText())
+                        ? installed.get("previous")
+                        : ((ObjectNode) installed).without("previous");
+                    if (previous != null) {
+                        extension.set("previous", previous);
+                    }
+                }
+                config.set(added.name, extension);
+            }
+            return config;
+        });
+        return replaced;
     }
 
-    private void addExtension(String pluginName, String pluginBundleRelative, String translationsRelative)
-        throws IOException {
-        ObjectNode config;
-        Optional<File> extensionsConfigFile = findResource(getExtensionsConfigPath());
-        if (extensionsConfigFile.isPresent()) {
-            try (FileInputStream input = new FileInputStream(extensionsConfigFile.get())) {
-                config = (ObjectNode) readJSON(input);
-            } catch (FileNotFoundException e) {
-                config = jsonNodeFactory.objectNode();
-            }
-        } else {
-            config = jsonNodeFactory.objectNode();
-        }
-        if (config != null) {
-            ObjectNode extension = jsonNodeFactory.objectNode();
-            extension.put("bundle", pluginBundleRelative); // POSIX in JSON
-            if (translationsRelative != null) {
-                extension.put("translations", translationsRelative); // POSIX in JSON
+    /**
+     * Puts back some entries of the extensions registry, as returned by {@link #addExtensions(List)}.
+     */
+    private void restoreExtensions(Map<String, JsonNode> entries) throws IOException {
+        updateJSONConfig(getExtensionsConfigPath(), current -> {
+            if (current == null) {
+                return null;
             }
-            if (config.has(pluginName)) {
-                config.replace(pluginName, extension);
-            } else {
-                config.set(pluginName, extension);
+            ObjectNode config = (ObjectNode) current;
+            for (Map.Entry<String, JsonNode> entry : entries.entrySet()) {
+                if (entry.getValue() != null) {
+                    config.set(entry.getKey(), entry.getValue());
+                } else {
+                    config.remove(entry.getKey());
+                }
             }
-            storeJSONConfig(config, getExtensionsConfigPath());
-        }
+            return config;
+        });
     }
 
-    private ObjectNode getExtensionConfig() throws IOException {
+    /**
+     * Returns the current extensions registry (shared, must not be modified).
+     */
+    private JsonNode getExtensionConfig() throws IOException {
         Optional<File> extensionsConfigFile = findResource(getExtensionsConfigPath());
-        if (extensionsConfigFile.isPresent()) {
-            try (FileInputStream input = new FileInputStream(extensionsConfigFile.get())) {
-                return (ObjectNode) readJSON(input);
-            }
-        } else {
+        JsonNode config = extensionsConfigFile.isPresent() ? ConfigStore.getInstance().get(extensionsConfigFile.get()) : null;
+        if (config == null) {
             throw new FileNotFoundException();
         }
+        return config;
+    }
+
+    /**
+     * Extracts the current zip entry in the staging folder.
+     *
+     * @param entryName normalized entry name, relative to the plugin folder
+     * @return the SHA-256 digest of the entry, computed while it is written
+     */
+    private byte[] storeAsset(ZipInputStream zip, Path staging, String entryName) throws IOException {
+        Path file = staging.resolve(entryName).normalize();
+        if (!file.startsWith(staging)) {
+            throw new SecurityException("Zip entry attempts path traversal: " + entryName);
+        }
+        Files.createDirectories(file.getParent());
+        MessageDigest digest = newDigest();
+        try (OutputStream outFile = new DigestOutputStream(Files.newOutputStream(file), digest)) {
+            IOUtils.copy(zip, outFile);
+        }
+        return digest.digest();
     }
 
-    private JsonNode readJSON(InputStream input) throws IOException {
-        return jsonMapper.readTree(input);
+    /**
+     * Returns the digest of an extension, from the digests of its files: the SHA-256 of their names and digests, sorted by name,
+     * so it changes when any file of the extension changes and it does not depend on the order of the entries in the zip.
+     */
+    private static String digest(Map<String, byte[]> files) {
+        MessageDigest digest = newDigest();
+        for (Map.Entry<String, byte[]> file : files.entrySet()) {
+            digest.update(file.getKey().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(file.getValue());
+        }
+        return HexFormat.of().formatHex(digest.digest());
     }
 
-    private void storeAsset(ZipInputStream zip, File file) throws IOException {
-        try (FileOutputStream outFile = new FileOutputStream(file)) {
-            IOUtils.copy(zip, outFile);
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // required on every Java platform
+            throw new IllegalStateException(e);
         }
     }
 
@@ -0,0 +1,293 @@
+package it.geosolutions.mapstore.filters;
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import it.geosolutions.mapstore.utils.MimeTypes;
+
+/**
+ * Sets the Cache-Control header of the responses, using the first matching rule of a list.
+ * The rules are configured in the <code>rules</code> init parameter, one per line, in the format:
+ * <pre>
+ * &lt;path pattern&gt; | &lt;content type pattern&gt; | &lt;Cache-Control value&gt;
+ * </pre>
+ * <ul>
+ * <li>the path pattern is matched against the request path, relative to the context. <code>*</code> matches any
+ * character but <code>/</code>, <code>**</code> any character, <code>{hash}</code> a content hash
+ * (at least 8 hexadecimal digits, as produced by the build for bundles and assets)</li>
+ * <li>the content type pattern is matched against the type of the requested file, from its extension
+ * (e.g. <code>application/json</code>, <code>image/*</code>, or <code>*</code> for any)</li>
+ * <li><code>no-store</code> values also send the HTTP 1.0 headers for old proxies (<code>Pragma</code>, <code>Expires</code>),
+ * the value <code>-</code> leaves the response as is</li>
+ * </ul>
+ * Requests that do not match any rule get the value of the <code>default</code> init parameter
+ * (<code>no-cache, no-store, must-revalidate</code> if not set).
+ * <p>
+ * The header is set when the response is committed, once its status is known, unless the application already set it.
+ * Values that let clients keep a response without revalidating it (<code>max-age</code>, <code>immutable</code>) are only
+ * sent with successful (2xx) and not modified (304) responses: the other ones (e.g. a 404 for a fingerprinted file that
+ * is not installed yet) get <code>no-cache</code>, so errors are not cached for a long time.
+ *
+ * The filter counts the responses of each rule, and publishes itself as a servlet context attribute named as
+ * the class, so the counters can be read by other components.
+ */
+public class CachePolicyFilter implements Filter {
+
+    public static final String NO_STORE = "no-cache, no-store, must-revalidate";
+
+    public static final String NO_CACHE = "no-cache";
+
+    private static final Pattern LONG_LIVED = Pattern.compile("immutable|max-age=0*[1-9]");
+
+    private static final String KEEP = "-";
+
+    private List<Rule> rules = Collections.emptyList();
+    private Rule defaultRule = new Rule("**", "*", NO_STORE);
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        Rule rule = match(request);
+        rule.served.increment();
+        CachePolicyResponse policyResponse = new CachePolicyResponse((HttpServletResponse) response, rule);
+        chain.doFilter(request, policyResponse);
+        if (!request.isAsyncStarted()) {
+            // responses without a body (e.g. 304)
+            policyResponse.applyRule();
+        }
+    }
+
+    private Rule match(ServletRequest request) {
+        if (rules.isEmpty() || !(request instanceof HttpServletRequest)) {
+            return defaultRule;
+        }
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        String path = httpRequest.getRequestURI().substring(httpRequest.getContextPath().length());
+        String type = null;
+        boolean typeResolved = false;
+        for (Rule rule : rules) {
+            if (!rule.path.matcher(path).matches()) {
+                continue;
+            }
+            if (rule.anyType) {
+                return rule;
+            }
+            if (!typeResolved) {
+                type = MimeTypes.getDefault().getType(path.substring(path.lastIndexOf('/') + 1));
+                typeResolved = true;
+            }
+            if (type != null && rule.type.matcher(type.toLowerCase(Locale.ROOT)).matches()) {
+                return rule;
+            }
+        }
+        return defaultRule;
+    }
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+        String value = filterConfig.getInitParameter("default");
+        if (value != null && !value.trim().isEmpty()) {
+            defaultRule = new Rule("**", "*", value.trim());
+        }
+        String config = filterConfig.getInitParameter("rules");
+        if (config != null) {
+            setRules(parseRules(config));
+        }
+        if (filterConfig.getServletContext() != null) {
+            filterConfig.getServletContext().setAttribute(CachePolicyFilter.class.getName(), this);
+        }
+    }
+
+    /**
+     * Parses the rules, one per line. Empty lines and lines starting with <code>#</code> are skipped.
+     *
+     * @throws ServletException if a rule is not valid
+     */
+    static List<Rule> parseRules(String config) throws ServletException {
+        List<Rule> parsed = new ArrayList<>();
+        for (String line : config.split("\\r?\\n")) {
+            String rule = line.trim();
+            if (rule.isEmpty() || rule.startsWith("#")) {
+                continue;
+            }
+            String[] parts = rule.split("\\|");
+            if (parts.length != 3 || parts[0].trim().isEmpty() || parts[2].trim().isEmpty()) {
+                throw new ServletException("Invalid cache rule, expected <path> | <type> | <Cache-Control>: " + rule);
+            }
+            String type = parts[1].trim();
+            parsed.add(new Rule(parts[0].trim(), type.isEmpty() ? "*" : type, parts[2].trim()));
+        }
+        return parsed;
+    }
+
+    protected void setRules(List<Rule> rules) {
+        this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+    }
+
+    /**
+     * @return the number of responses served by each rule (the default rule last), in order
+     */
+    public Map<String, Long> getServedCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Rule rule : rules) {
+            counts.merge(rule.toString(), rule.served.sum(), Long::sum);
+        }
+        counts.merge("default", defaultRule.served.sum(), Long::sum);
+        return counts;
+    }
+
+    @Override
+    public void destroy() { }
+
+    /**
+     * Applies the rule when the response is committed, or when it has a final status without a body (304, errors, redirects).
+     */
+    private static final class CachePolicyResponse extends HttpServletResponseWrapper {
+        private final Rule rule;
+        private boolean applied;
+
+        CachePolicyResponse(HttpServletResponse response, Rule rule) {
+            super(response);
+            this.rule = rule;
+        }
+
+        synchronized void applyRule() {
+            if (applied) {
+                return;
+            }
+            applied = true;
+            if (!isCommitted() && getHeader("Cache-Control") == null) {
+                rule.apply((HttpServletResponse) getResponse(), getStatus());
+            }
+        }
+
+        @Override
+        public void setStatus(int sc) {
+            super.setStatus(sc);
+            if (sc == SC_NOT_MODIFIED) {
+                applyRule();
+            }
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            setStatus(sc);
+            applyRule();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            setStatus(sc);
+            applyRule();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            setStatus(SC_FOUND);
+            applyRule();
+            super.sendRedirect(location);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            applyRule();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            applyRule();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            applyRule();
+            super.flushBuffer();
+        }
+    }
+
+    /**
+     * A caching rule: the requests it matches and the Cache-Control value to send.
+     */
+    static final class Rule {
+        private final String definition;
+        private final Pattern path;
+        private final Pattern type;
+        private final boolean anyType;
+        private final String cacheControl;
+        private final boolean longLived;
+        private final LongAdder served = new LongAdder();
+
+        Rule(String path, String type, String cacheControl) {
+            this.definition = path + " | " + type + " | " + cacheControl;
+            this.path = Pattern.compile(toRegex(path));
+            this.anyType = "*".equals(type) || "*/*".equals(type);
+            this.type = Pattern.compile(toRegex(type.toLowerCase(Locale.ROOT)));
+            this.cacheControl = cacheControl;
+            this.longLived = !cacheControl.contains("no-cache") && !cacheControl.contains("no-store")
+                && LONG_LIVED.matcher(cacheControl).find();
+        }
+
+        /**
+         * Sets the headers of the rule.
+         *
+         * @param status the status of the response, long-lived values are replaced by <code>no-cache</code> for errors
+         */
+        void apply(HttpServletResponse response, int status) {
+            if (KEEP.equals(cacheControl)) {
+                return;
+            }
+            boolean cacheable = status >= 200 && status < 300 || status == HttpServletResponse.SC_NOT_MODIFIED;
+            String value = longLived && !cacheable ? NO_CACHE : cacheControl;
+            response.setHeader("Cache-Control", value); // HTTP 1.1
+            if (value.contains("no-store")) {
+                response.setHeader("Pragma", "no-cache"); // HTTP 1.0
+                response.setDateHeader("Expires", 0); // Proxies
+            }
+        }
+
+        long getServed() {
+            return served.sum();
+        }
+
+        @Override
+        public String toString() {
+            return definition;
+        }
+
+        private static String toRegex(String glob) {
+            StringBuilder regex = new StringBuilder();
+            int i = 0;
+            while (i < glob.length()) {
+                if (glob.startsWith("**", i)) {
+                    regex.append(".*");
+                    i += 2;
+                } else if (glob.startsWith("{hash}", i)) {
+                    regex.append("[0-9a-fA-F]{8,}");
+                    i += "{hash}".length();
+                } else if (glob.charAt(i) == '*') {
+                    regex.append("[^/]*");
+                    i++;
+                } else {
+                    regex.append(Pattern.quote(String.valueOf(glob.charAt(i))));
+                    i++;
+                }
+            }
+            return regex.toString();
+        }
+    }
+}
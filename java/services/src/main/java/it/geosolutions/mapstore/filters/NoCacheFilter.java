@@ -1,25 +1,28 @@
 package it.geosolutions.mapstore.filters;
 import jakarta.servlet.*;
-import jakarta.servlet.http.HttpServletResponse;
-import java.io.IOException;
+import java.util.Arrays;
+import java.util.stream.Collectors;
 
-public class NoCacheFilter implements Filter {
+/**
+ * Prevents clients from caching the responses.
+ * The paths listed in the <code>revalidatePaths</code> init parameter (comma separated prefixes, relative to the context)
+ * can instead be stored by the clients, that must revalidate them on each use (e.g. with If-None-Match),
+ * so services that send an ETag can answer with 304 Not Modified.
+ *
+ * Kept for the existing <code>web.xml</code> files, {@link CachePolicyFilter} allows to configure any caching rule.
+ */
+public class NoCacheFilter extends CachePolicyFilter {
 
     @Override
-    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
-            throws IOException, ServletException {
-
-        HttpServletResponse httpResponse = (HttpServletResponse) response;
-        httpResponse.setHeader("Cache-Control", "no-cache, no-store, must-revalidate"); // HTTP 1.1
-        httpResponse.setHeader("Pragma", "no-cache"); // HTTP 1.0
-        httpResponse.setDateHeader("Expires", 0); // Proxies
-
-        chain.doFilter(request, response);
+    public void init(FilterConfig filterConfig) throws ServletException {
+        super.init(filterConfig);
+        String paths = filterConfig.getInitParameter("revalidatePaths");
+        if (paths != null) {
+            setRules(Arrays.stream(paths.split(","))
+                .map(String::trim)
+                .filter(path -> !path.isEmpty())
+                .map(path -> new Rule(path + "**", "*", "no-cache")) // HTTP 1.1, stored but always revalidated
+                .collect(Collectors.toList()));
+        }
     }
-
-    @Override
-    public void init(FilterConfig filterConfig) throws ServletException { }
-
-    @Override
-    public void destroy() { }
 }
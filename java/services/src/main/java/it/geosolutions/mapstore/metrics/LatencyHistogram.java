@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package it.geosolutions.mapstore.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of request durations, with fixed buckets (from 1ms to 10s).
+ * Each bucket is a striped counter, so recording a duration never blocks, even with many concurrent requests.
+ */
+public class LatencyHistogram {
+
+    /**
+     * Upper bounds of the buckets, in milliseconds. The last bucket, not listed, is unbounded.
+     */
+    static final long[] BOUNDS_MILLIS = { 1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000 };
+
+    private static final long[] BOUNDS_NANOS = new long[BOUNDS_MILLIS.length];
+
+    static {
+        for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+            BOUNDS_NANOS[i] = TimeUnit.MILLISECONDS.toNanos(BOUNDS_MILLIS[i]);
+        }
+    }
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_MILLIS.length + 1];
+    private final LongAdder sumNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        int i = 0;
+        while (i < BOUNDS_NANOS.length && nanos > BOUNDS_NANOS[i]) {
+            i++;
+        }
+        buckets[i].increment();
+        sumNanos.add(nanos);
+    }
+
+    /**
+     * @return the upper bounds of the buckets, in milliseconds (the last bucket is unbounded)
+     */
+    public static long[] getBoundsMillis() {
+        return BOUNDS_MILLIS.clone();
+    }
+
+    /**
+     * @return the number of durations in each bucket (not cumulative), the unbounded bucket last
+     */
+    public long[] getCounts() {
+        long[] counts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    public long getSumNanos() {
+        return sumNanos.sum();
+    }
+
+    /**
+     * Estimates a percentile, as the upper bound of the bucket that contains it.
+     *
+     * @param counts the counts of the buckets, from {@link #getCounts()}
+     * @param percentile the percentile, between 0 and 1
+     * @return the upper bound of the bucket in milliseconds, -1 if the percentile is in the unbounded bucket,
+     * 0 if there are no durations
+     */
+    public static long percentile(long[] counts, double percentile) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return BOUNDS_MILLIS[i];
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package it.geosolutions.mapstore.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Records the metrics of each request handled by a controller in the {@link MetricsRegistry}:
+ * duration, status and bytes sent (as declared by the Content-Length of the response).
+ * Responses streamed asynchronously after the handler returned (see {@link StreamTracker}) are recorded when the stream ends,
+ * so the duration includes the whole transfer; streams that fail or time out are recorded as server errors.
+ * To be registered in the <code>mvc:interceptors</code> of each dispatcher servlet.
+ */
+public class MetricsInterceptor implements HandlerInterceptor {
+
+    static final String START_ATTRIBUTE = MetricsInterceptor.class.getName() + ".start";
+
+    private final MetricsRegistry registry;
+
+    public MetricsInterceptor() {
+        this(MetricsRegistry.getInstance());
+    }
+
+    MetricsInterceptor(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(START_ATTRIBUTE) == null) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (!(start instanceof Long) || !(handler instanceof HandlerMethod)) {
+            return;
+        }
+        ServiceMetrics service = registry.getService(((HandlerMethod) handler).getBeanType().getSimpleName());
+        StreamTracker tracker = StreamTracker.get(request);
+        if (tracker != null) {
+            tracker.onEnd((outcome, bytes) -> service.record(System.nanoTime() - (Long) start,
+                outcome == StreamTracker.Outcome.COMPLETED ? response.getStatus() : HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
+                bytes));
+            return;
+        }
+        long nanos = System.nanoTime() - (Long) start;
+        int status = ex != null && response.getStatus() < 400 ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+        service.record(nanos, status, contentLength(response));
+    }
+
+    private static long contentLength(HttpServletResponse response) {
+        String length = response.getHeader(HttpHeaders.CONTENT_LENGTH);
+        if (length == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(length.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
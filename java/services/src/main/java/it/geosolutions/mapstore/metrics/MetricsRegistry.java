@@ -0,0 +1,262 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package it.geosolutions.mapstore.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import it.geosolutions.mapstore.cache.AssetCache;
+import it.geosolutions.mapstore.cache.ConfigCache;
+import it.geosolutions.mapstore.cache.ResolutionCache;
+
+/**
+ * Collects the metrics of the back-end services: requests, errors, bytes sent and durations of each controller,
+ * the assets streamed asynchronously and the statistics of the caches.
+ * Counters are striped ({@link java.util.concurrent.atomic.LongAdder}), so the requests do not contend to update them;
+ * they are only summed when the metrics are read.
+ */
+public class MetricsRegistry {
+
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private final ConcurrentHashMap<String, ServiceMetrics> services = new ConcurrentHashMap<>();
+
+    private final LatencyHistogram[] phases = new LatencyHistogram[ServerTiming.Phase.values().length];
+
+    private final StreamMetrics streams = new StreamMetrics();
+
+    public MetricsRegistry() {
+        for (int i = 0; i < phases.length; i++) {
+            phases[i] = new LatencyHistogram();
+        }
+    }
+
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the metrics of a service, creating them on first use.
+     *
+     * @param name the service name (e.g. the controller class name)
+     */
+    public ServiceMetrics getService(String name) {
+        ServiceMetrics metrics = services.get(name);
+        return metrics != null ? metrics : services.computeIfAbsent(name, key -> new ServiceMetrics());
+    }
+
+    /**
+     * @return the metrics of the services that handled at least a request, by name
+     */
+    public Map<String, ServiceMetrics> getServices() {
+        return Collections.unmodifiableMap(new TreeMap<>(services));
+    }
+
+    /**
+     * @return the durations of a phase of the configuration requests
+     */
+    public LatencyHistogram getPhase(ServerTiming.Phase phase) {
+        return phases[phase.ordinal()];
+    }
+
+    /**
+     * @return the metrics of the assets streamed asynchronously
+     */
+    public StreamMetrics getStreams() {
+        return streams;
+    }
+
+    /**
+     * Writes the metrics in the given JSON object.
+     *
+     * @param json        the target object
+     * @param cachePolicy responses of each Cache-Control rule, by rule, null if not available
+     */
+    public void writeJson(ObjectNode json, Map<String, Long> cachePolicy) {
+        ObjectNode servicesNode = json.putObject("services");
+        for (Map.Entry<String, ServiceMetrics> service : getServices().entrySet()) {
+            ServiceMetrics metrics = service.getValue();
+            ObjectNode node = servicesNode.putObject(service.getKey());
+            node.put("requests", metrics.getRequests());
+            node.put("clientErrors", metrics.getClientErrors());
+            node.put("serverErrors", metrics.getServerErrors());
+            node.put("bytes", metrics.getBytes());
+            long[] counts = metrics.getLatency().getCounts();
+            long count = 0;
+            for (long bucket : counts) {
+                count += bucket;
+            }
+            ObjectNode latency = node.putObject("latency");
+            latency.put("count", count);
+            latency.put("meanMillis", count > 0 ? metrics.getLatency().getSumNanos() / 1e6 / count : 0);
+            latency.put("p50Millis", LatencyHistogram.percentile(counts, 0.5));
+            latency.put("p95Millis", LatencyHistogram.percentile(counts, 0.95));
+            latency.put("p99Millis", LatencyHistogram.percentile(counts, 0.99));
+            ObjectNode buckets = latency.putObject("buckets");
+            for (int i = 0; i < counts.length; i++) {
+                buckets.put(i < LatencyHistogram.BOUNDS_MILLIS.length ? String.valueOf(LatencyHistogram.BOUNDS_MILLIS[i]) : "+Inf", counts[i]);
+            }
+        }
+        ObjectNode phasesNode = json.putObject("configPhases");
+        for (ServerTiming.Phase phase : ServerTiming.Phase.values()) {
+            LatencyHistogram latency = getPhase(phase);
+            long[] counts = latency.getCounts();
+            long count = 0;
+            for (long bucket : counts) {
+                count += bucket;
+            }
+            if (count > 0) {
+                ObjectNode node = phasesNode.putObject(phase.getId());
+                node.put("count", count);
+                node.put("meanMillis", latency.getSumNanos() / 1e6 / count);
+                node.put("p95Millis", LatencyHistogram.percentile(counts, 0.95));
+            }
+        }
+        ObjectNode streamsNode = json.putObject("streams");
+        streamsNode.put("inFlight", streams.getInFlight());
+        streamsNode.put("started", streams.getStarted());
+        streamsNode.put("completed", streams.getCompleted());
+        streamsNode.put("failed", streams.getFailed());
+        streamsNode.put("timedOut", streams.getTimedOut());
+        streamsNode.put("bytes", streams.getBytes());
+        streamsNode.put("p95Millis", LatencyHistogram.percentile(streams.getDuration().getCounts(), 0.95));
+        ObjectNode caches = json.putObject("caches");
+        ConfigCache configs = ConfigCache.getInstance();
+        writeCache(caches.putObject("configs"), configs.getHits(), configs.getMisses(), configs.size());
+        AssetCache assets = AssetCache.getInstance();
+        writeCache(caches.putObject("assets"), assets.getHits(), assets.getMisses(), assets.size()).put("bytes", assets.getBytes());
+        ResolutionCache resolutions = ResolutionCache.getInstance();
+        writeCache(caches.putObject("resolutions"), resolutions.getHits(), resolutions.getMisses(), resolutions.size())
+            .put("notFound", resolutions.getNotFound());
+        if (cachePolicy != null) {
+            ObjectNode rules = json.putObject("cachePolicy");
+            for (Map.Entry<String, Long> rule : cachePolicy.entrySet()) {
+                rules.put(rule.getKey(), rule.getValue());
+            }
+        }
+    }
+
+    private static ObjectNode writeCache(ObjectNode node, long hits, long misses, int entries) {
+        node.put("hits", hits);
+        node.put("misses", misses);
+        node.put("hitRatio", hits + misses > 0 ? (double) hits / (hits + misses) : 0);
+        node.put("entries", entries);
+        return node;
+    }
+
+    /**
+     * Writes the metrics in the Prometheus text exposition format.
+     *
+     * @param cachePolicy responses of each Cache-Control rule, by rule, null if not available
+     */
+    public String toPrometheus(Map<String, Long> cachePolicy) {
+        StringBuilder text = new StringBuilder();
+        Map<String, ServiceMetrics> current = getServices();
+
+        header(text, "mapstore_requests_total", "counter", "Requests handled, by controller.");
+        for (Map.Entry<String, ServiceMetrics> service : current.entrySet()) {
+            sample(text, "mapstore_requests_total", "controller", service.getKey(), service.getValue().getRequests());
+        }
+        header(text, "mapstore_client_errors_total", "counter", "Responses with a 4xx status, by controller.");
+        for (Map.Entry<String, ServiceMetrics> service : current.entrySet()) {
+            sample(text, "mapstore_client_errors_total", "controller", service.getKey(), service.getValue().getClientErrors());
+        }
+        header(text, "mapstore_server_errors_total", "counter", "Responses with a 5xx status, or failed, by controller.");
+        for (Map.Entry<String, ServiceMetrics> service : current.entrySet()) {
+            sample(text, "mapstore_server_errors_total", "controller", service.getKey(), service.getValue().getServerErrors());
+        }
+        header(text, "mapstore_response_bytes_total", "counter", "Bytes of the response bodies, by controller.");
+        for (Map.Entry<String, ServiceMetrics> service : current.entrySet()) {
+            sample(text, "mapstore_response_bytes_total", "controller", service.getKey(), service.getValue().getBytes());
+        }
+        header(text, "mapstore_request_duration_seconds", "histogram", "Time spent handling the requests, by controller.");
+        for (Map.Entry<String, ServiceMetrics> service : current.entrySet()) {
+            histogram(text, "mapstore_request_duration_seconds", "controller", service.getKey(), service.getValue().getLatency());
+        }
+        header(text, "mapstore_config_phase_duration_seconds", "histogram", "Time spent in each phase of the configuration requests.");
+        for (ServerTiming.Phase phase : ServerTiming.Phase.values()) {
+            histogram(text, "mapstore_config_phase_duration_seconds", "phase", phase.getId(), getPhase(phase));
+        }
+
+        header(text, "mapstore_asset_streams_in_flight", "gauge", "Assets being streamed asynchronously.");
+        text.append("mapstore_asset_streams_in_flight ").append(streams.getInFlight()).append('\n');
+        header(text, "mapstore_asset_streams_total", "counter", "Asynchronous asset streams ended, by outcome.");
+        sample(text, "mapstore_asset_streams_total", "outcome", "completed", streams.getCompleted());
+        sample(text, "mapstore_asset_streams_total", "outcome", "failed", streams.getFailed());
+        sample(text, "mapstore_asset_streams_total", "outcome", "timeout", streams.getTimedOut());
+        header(text, "mapstore_asset_stream_bytes_total", "counter", "Bytes sent by the asynchronous asset streams.");
+        text.append("mapstore_asset_stream_bytes_total ").append(streams.getBytes()).append('\n');
+        header(text, "mapstore_asset_stream_duration_seconds", "histogram", "Time spent streaming the assets that completed.");
+        histogram(text, "mapstore_asset_stream_duration_seconds", null, null, streams.getDuration());
+
+        ConfigCache configs = ConfigCache.getInstance();
+        AssetCache assets = AssetCache.getInstance();
+        ResolutionCache resolutions = ResolutionCache.getInstance();
+        header(text, "mapstore_cache_hits_total", "counter", "Cache hits, by cache.");
+        sample(text, "mapstore_cache_hits_total", "cache", "configs", configs.getHits());
+        sample(text, "mapstore_cache_hits_total", "cache", "assets", assets.getHits());
+        sample(text, "mapstore_cache_hits_total", "cache", "resolutions", resolutions.getHits());
+        header(text, "mapstore_cache_misses_total", "counter", "Cache misses, by cache.");
+        sample(text, "mapstore_cache_misses_total", "cache", "configs", configs.getMisses());
+        sample(text, "mapstore_cache_misses_total", "cache", "assets", assets.getMisses());
+        sample(text, "mapstore_cache_misses_total", "cache", "resolutions", resolutions.getMisses());
+        header(text, "mapstore_cache_entries", "gauge", "Entries in cache, by cache.");
+        sample(text, "mapstore_cache_entries", "cache", "configs", configs.size());
+        sample(text, "mapstore_cache_entries", "cache", "assets", assets.size());
+        sample(text, "mapstore_cache_entries", "cache", "resolutions", resolutions.size());
+        header(text, "mapstore_assets_cache_bytes", "gauge", "Size of the assets kept in memory, outside of the heap.");
+        text.append("mapstore_assets_cache_bytes ").append(assets.getBytes()).append('\n');
+        header(text, "mapstore_resolution_not_found_total", "counter", "Look-ups of resources that do not exist.");
+        text.append("mapstore_resolution_not_found_total ").append(resolutions.getNotFound()).append('\n');
+
+        if (cachePolicy != null) {
+            header(text, "mapstore_cache_policy_responses_total", "counter", "Responses, by Cache-Control rule.");
+            for (Map.Entry<String, Long> rule : cachePolicy.entrySet()) {
+                sample(text, "mapstore_cache_policy_responses_total", "rule", rule.getKey(), rule.getValue());
+            }
+        }
+        return text.toString();
+    }
+
+    private static void header(StringBuilder text, String name, String type, String help) {
+        text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    /**
+     * Writes a histogram, with its label (null for a histogram without labels).
+     */
+    private static void histogram(StringBuilder text, String name, String label, String value, LatencyHistogram latency) {
+        String labels = label != null ? label + "=\"" + escape(value) + "\"" : "";
+        String separator = labels.isEmpty() ? "" : ",";
+        String suffix = labels.isEmpty() ? " " : "{" + labels + "} ";
+        long[] counts = latency.getCounts();
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            String le = i < LatencyHistogram.BOUNDS_MILLIS.length ? String.valueOf(LatencyHistogram.BOUNDS_MILLIS[i] / 1000d) : "+Inf";
+            text.append(name).append("_bucket{").append(labels).append(separator).append("le=\"").append(le).append("\"} ").append(cumulative).append('\n');
+        }
+        text.append(name).append("_sum").append(suffix).append(latency.getSumNanos() / NANOS_PER_SECOND).append('\n');
+        text.append(name).append("_count").append(suffix).append(cumulative).append('\n');
+    }
+
+    private static void sample(StringBuilder text, String name, String label, String value, long sample) {
+        text.append(name).append('{').append(label).append("=\"").append(escape(value)).append("\"} ").append(sample).append('\n');
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package it.geosolutions.mapstore.metrics;
+
+import java.util.Locale;
+
+/**
+ * Times the phases of the materialization of a configuration (resolution of the files, reading, patch, overrides...).
+ * <p>
+ * The time of each phase is always added to the {@link MetricsRegistry}. When a timing has been started on the
+ * current thread (for a request that asked for it), it is also collected there, to be sent to the client in the
+ * <a href="https://www.w3.org/TR/server-timing/">Server-Timing</a> header, that browsers show in their developer tools.
+ * <p>
+ * Usage:
+ * <pre>
+ * long start = System.nanoTime();
+ * // ... phase work
+ * start = ServerTiming.record(Phase.READ, start);
+ * // ... next phase work
+ * </pre>
+ */
+public final class ServerTiming {
+
+    public static final String HEADER = "Server-Timing";
+
+    /**
+     * The phases of a configuration request.
+     */
+    public enum Phase {
+        /** resolution of the files of the configuration (base file, patch, overrides) */
+        RESOLVE,
+        /** computation of the ETag */
+        ETAG,
+        /** retrieval from the cache, including the materialization on cache miss */
+        LOAD,
+        /** reading and parsing of the base file */
+        READ,
+        /** reading and application of the patch */
+        PATCH,
+        /** application of the overrides */
+        OVERRIDES,
+        /** serialization of the configuration */
+        SERIALIZE,
+        /** the whole request */
+        TOTAL;
+
+        private final String id = name().toLowerCase(Locale.ROOT);
+
+        public String getId() {
+            return id;
+        }
+    }
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    private final long[] nanos = new long[Phase.values().length];
+    private final boolean[] recorded = new boolean[Phase.values().length];
+
+    private ServerTiming() {
+    }
+
+    /**
+     * Starts collecting the phases timed on the current thread.
+     * {@link #stop()} must be called when the request is complete.
+     */
+    public static ServerTiming start() {
+        ServerTiming timing = new ServerTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    /**
+     * Stops collecting the phases timed on the current thread.
+     */
+    public void stop() {
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Records the time spent in a phase.
+     *
+     * @param phase the completed phase
+     * @param start the time the phase started, from {@link System#nanoTime()}
+     * @return the current time, from {@link System#nanoTime()}, to be used as start of the next phase
+     */
+    public static long record(Phase phase, long start) {
+        long now = System.nanoTime();
+        long elapsed = now - start;
+        MetricsRegistry.getInstance().getPhase(phase).record(elapsed);
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.nanos[phase.ordinal()] += elapsed;
+            timing.recorded[phase.ordinal()] = true;
+        }
+        return now;
+    }
+
+    /**
+     * @return true if the phase has been recorded at least once
+     */
+    public boolean isRecorded(Phase phase) {
+        return recorded[phase.ordinal()];
+    }
+
+    /**
+     * @return the time spent in the phase, in nanoseconds
+     */
+    public long getNanos(Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    /**
+     * Builds the value of the Server-Timing header: one metric for each recorded phase, with its duration in milliseconds.
+     * The load phase also tells whether the configuration came from the cache (<code>hit</code>) or has been materialized (<code>miss</code>).
+     */
+    public String toHeader() {
+        StringBuilder header = new StringBuilder();
+        for (Phase phase : Phase.values()) {
+            if (!recorded[phase.ordinal()]) {
+                continue;
+            }
+            if (header.length() > 0) {
+                header.append(", ");
+            }
+            header.append(phase.getId()).append(";dur=").append(String.format(Locale.ROOT, "%.3f", nanos[phase.ordinal()] / 1e6));
+            if (phase == Phase.LOAD) {
+                header.append(";desc=\"").append(recorded[Phase.READ.ordinal()] ? "miss" : "hit").append('"');
+            }
+        }
+        return header.toString();
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package it.geosolutions.mapstore.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of the requests handled by a controller: count, errors, bytes sent and durations.
+ */
+public class ServiceMetrics {
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    /**
+     * Records a completed request.
+     *
+     * @param nanos  time spent handling the request
+     * @param status HTTP status of the response
+     * @param bytes  bytes of the response body, -1 if unknown
+     */
+    public void record(long nanos, int status, long bytes) {
+        requests.increment();
+        if (status >= 500) {
+            serverErrors.increment();
+        } else if (status >= 400) {
+            clientErrors.increment();
+        }
+        if (bytes > 0) {
+            this.bytes.add(bytes);
+        }
+        latency.record(nanos);
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * @return the number of responses with a 4xx status
+     */
+    public long getClientErrors() {
+        return clientErrors.sum();
+    }
+
+    /**
+     * @return the number of responses with a 5xx status, or failed with an exception
+     */
+    public long getServerErrors() {
+        return serverErrors.sum();
+    }
+
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package it.geosolutions.mapstore.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of the responses streamed asynchronously, after the request thread has been released:
+ * streams in flight, how they ended, bytes sent and time spent draining them.
+ */
+public class StreamMetrics {
+
+    private final LongAdder started = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LatencyHistogram duration = new LatencyHistogram();
+
+    public void started() {
+        started.increment();
+    }
+
+    /**
+     * Records a stream that sent all its bytes.
+     *
+     * @param nanos time spent streaming
+     * @param bytes bytes sent
+     */
+    public void completed(long nanos, long bytes) {
+        completed.increment();
+        this.bytes.add(bytes);
+        duration.record(nanos);
+    }
+
+    /**
+     * Records a stream interrupted by an error (usually the client went away).
+     *
+     * @param bytes bytes sent before the error
+     */
+    public void failed(long bytes) {
+        failed.increment();
+        this.bytes.add(bytes);
+    }
+
+    /**
+     * Records a stream that did not complete in the allowed time.
+     *
+     * @param bytes bytes sent before the timeout
+     */
+    public void timedOut(long bytes) {
+        timedOut.increment();
+        this.bytes.add(bytes);
+    }
+
+    /**
+     * @return the number of streams started and not ended yet
+     */
+    public long getInFlight() {
+        // read in the opposite order of the updates, never negative
+        long ended = completed.sum() + failed.sum() + timedOut.sum();
+        return Math.max(0, started.sum() - ended);
+    }
+
+    public long getStarted() {
+        return started.sum();
+    }
+
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getTimedOut() {
+        return timedOut.sum();
+    }
+
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    /**
+     * @return the durations of the completed streams
+     */
+    public LatencyHistogram getDuration() {
+        return duration;
+    }
+}
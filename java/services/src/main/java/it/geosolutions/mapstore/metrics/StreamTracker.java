@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package it.geosolutions.mapstore.metrics;
+
+import jakarta.servlet.ServletRequest;
+
+/**
+ * Tells how the response of a request streamed asynchronously ended, to the components that measure the request.
+ * The stream is still running when the handler returns, so the request can be measured only when it ends:
+ * the tracker is set as a request attribute when the stream starts and notifies its listener when it ends,
+ * or at once if it already ended.
+ */
+public final class StreamTracker {
+
+    /**
+     * Request attribute with the tracker of the response stream, if streamed asynchronously.
+     */
+    public static final String ATTRIBUTE = StreamTracker.class.getName();
+
+    /**
+     * How a stream ended.
+     */
+    public enum Outcome {
+        COMPLETED, FAILED, TIMED_OUT
+    }
+
+    /**
+     * Notified when the stream ends.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * @param outcome how the stream ended
+         * @param bytes   bytes sent
+         */
+        void ended(Outcome outcome, long bytes);
+    }
+
+    private Outcome outcome;
+    private long bytes;
+    private Listener listener;
+
+    /**
+     * Creates the tracker of the response of a request, set as its attribute.
+     */
+    public static StreamTracker start(ServletRequest request) {
+        StreamTracker tracker = new StreamTracker();
+        request.setAttribute(ATTRIBUTE, tracker);
+        return tracker;
+    }
+
+    /**
+     * @return the tracker of the response of the request, null if not streamed asynchronously
+     */
+    public static StreamTracker get(ServletRequest request) {
+        Object tracker = request.getAttribute(ATTRIBUTE);
+        return tracker instanceof StreamTracker ? (StreamTracker) tracker : null;
+    }
+
+    /**
+     * Records the end of the stream and notifies the listener, if any. Only the first call counts.
+     */
+    public void end(Outcome outcome, long bytes) {
+        Listener notified;
+        synchronized (this) {
+            if (this.outcome != null) {
+                return;
+            }
+            this.outcome = outcome;
+            this.bytes = bytes;
+            notified = listener;
+        }
+        if (notified != null) {
+            notified.ended(outcome, bytes);
+        }
+    }
+
+    /**
+     * Sets the listener notified when the stream ends, called at once if it already ended.
+     */
+    public void onEnd(Listener listener) {
+        synchronized (this) {
+            if (outcome == null) {
+                this.listener = listener;
+                return;
+            }
+        }
+        listener.ended(outcome, bytes);
+    }
+}
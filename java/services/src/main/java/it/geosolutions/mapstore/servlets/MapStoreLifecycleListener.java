@@ -0,0 +1,33 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package it.geosolutions.mapstore.servlets;
+
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+
+import it.geosolutions.mapstore.cache.ConfigStore;
+import it.geosolutions.mapstore.cache.DataDirWatcher;
+import it.geosolutions.mapstore.utils.FolderCleaner;
+
+/**
+ * Stops the background components of the services when the web application is stopped, so that their threads
+ * do not outlive it: the datadir watcher, the writer of the {@link ConfigStore} and the {@link FolderCleaner}.
+ * They are started by the first controller that needs them and shared by all the dispatcher servlets,
+ * so they are not stopped when one of them is destroyed.
+ */
+public class MapStoreLifecycleListener implements ServletContextListener {
+
+    @Override
+    public void contextDestroyed(ServletContextEvent event) {
+        DataDirWatcher.shutdown();
+        // the pending changes are written before stopping
+        ConfigStore.getInstance().shutdown();
+        // the folders still to delete are removed at the next startup
+        FolderCleaner.getInstance().shutdown();
+    }
+}
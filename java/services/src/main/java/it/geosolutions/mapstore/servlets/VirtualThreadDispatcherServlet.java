@@ -0,0 +1,202 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package it.geosolutions.mapstore.servlets;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import it.geosolutions.mapstore.utils.VirtualThreads;
+
+/**
+ * Dispatcher servlet that can handle the requests on virtual threads (JDK 21+), so that blocking file I/O
+ * does not keep a container thread busy: the request is put in asynchronous mode and dispatched on a new virtual thread,
+ * while the container thread goes back to the pool.
+ * The requests handled at the same time are limited by a semaphore, one for each servlet (i.e. for each type of resource:
+ * configurations, extensions...), so that spikes of clients do not open thousands of files at once;
+ * requests that cannot get a permit in time are answered with 503.
+ * <p>
+ * The mode is opt-in and configured in <code>mapstore.properties</code>:
+ *  - virtual.threads.enabled: handle the requests on virtual threads, ignored on JDKs before 21 (default: false)
+ *  - virtual.threads.permits: requests handled at the same time by each servlet (default: 1024)
+ *  - virtual.threads.&lt;servlet name&gt;.permits: requests handled at the same time by the servlet, e.g. virtual.threads.extensions.permits (default: virtual.threads.permits)
+ *  - virtual.threads.queue.timeout: time in milliseconds a request waits for a permit before it is rejected (default: 10000)
+ *  - virtual.threads.timeout: time in milliseconds a request can take, 0 for the container default (default: 300000)
+ * <p>
+ * The servlet and all the filters of its chain must support asynchronous requests (<code>async-supported</code>).
+ * Filters must not change the response after the chain returns, as the response is then written by the virtual thread;
+ * they can change it when it is committed, as Spring Security does with its headers.
+ * The security context of the request is propagated to the virtual thread. The chain has already returned when the
+ * handler runs, so the security exceptions of the handler (e.g. of <code>@Secured</code> methods) cannot be translated
+ * by Spring Security: they are sent as 401, if the user is not authenticated, or 403.
+ */
+public class VirtualThreadDispatcherServlet extends DispatcherServlet {
+
+    private static final Logger LOGGER = LogManager.getLogger(VirtualThreadDispatcherServlet.class);
+
+    private ExecutorService executor;
+    private Semaphore permits;
+    private long queueTimeout;
+    private long timeout;
+
+    @Override
+    protected void initFrameworkServlet() throws ServletException {
+        super.initFrameworkServlet();
+        if (!Boolean.parseBoolean(getProperty("virtual.threads.enabled", "false"))) {
+            return;
+        }
+        if (!VirtualThreads.isSupported()) {
+            LOGGER.warn("virtual.threads.enabled is set, but virtual threads require JDK 21 or later: "
+                + "{} requests are handled by the container threads", getServletName());
+            return;
+        }
+        int count = Integer.parseInt(getProperty("virtual.threads." + getServletName() + ".permits",
+            getProperty("virtual.threads.permits", "1024")).trim());
+        permits = new Semaphore(Math.max(1, count));
+        queueTimeout = Long.parseLong(getProperty("virtual.threads.queue.timeout", "10000").trim());
+        timeout = Long.parseLong(getProperty("virtual.threads.timeout", "300000").trim());
+        executor = VirtualThreads.newExecutor("mapstore-" + getServletName() + "-");
+        LOGGER.info("{} requests are handled on virtual threads, {} at a time", getServletName(), count);
+    }
+
+    /**
+     * Resolves a property with the placeholders of the servlet context (<code>mapstore.properties</code>).
+     */
+    private String getProperty(String name, String defaultValue) {
+        ApplicationContext context = getWebApplicationContext();
+        if (context instanceof ConfigurableApplicationContext) {
+            String value = ((ConfigurableApplicationContext) context).getBeanFactory()
+                .resolveEmbeddedValue("${" + name + ":" + defaultValue + "}");
+            if (value != null && !value.trim().isEmpty()) {
+                return value;
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * @return true if the requests are handled on virtual threads
+     */
+    public boolean isVirtual() {
+        return executor != null;
+    }
+
+    @Override
+    protected void service(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        if (executor == null || request.getDispatcherType() != DispatcherType.REQUEST || !request.isAsyncSupported()
+                || request.isAsyncStarted()) {
+            super.service(request, response);
+            return;
+        }
+        // the filters clean up the security context of the container thread when the chain returns
+        SecurityContext security = SecurityContextHolder.getContext();
+        AsyncContext async = request.startAsync(request, response);
+        if (timeout > 0) {
+            async.setTimeout(timeout);
+        }
+        try {
+            executor.execute(() -> handle(async, request, response, security));
+        } catch (RejectedExecutionException e) {
+            // shutting down
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            async.complete();
+        }
+    }
+
+    private void handle(AsyncContext async, HttpServletRequest request, HttpServletResponse response, SecurityContext security) {
+        boolean acquired = false;
+        try {
+            acquired = permits.tryAcquire(queueTimeout, TimeUnit.MILLISECONDS);
+            if (!acquired) {
+                LOGGER.debug("No permit for {} in {} ms", request.getRequestURI(), queueTimeout);
+                response.setHeader("Retry-After", "1");
+                response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                return;
+            }
+            SecurityContextHolder.setContext(security);
+            super.service(request, response);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            sendError(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        } catch (ServletException | IOException | RuntimeException e) {
+            int status = getSecurityStatus(e, request);
+            if (status > 0) {
+                LOGGER.debug("Access denied to {}", request.getRequestURI(), e);
+                sendError(response, status);
+            } else {
+                LOGGER.error("Error handling {}", request.getRequestURI(), e);
+                sendError(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            }
+        } finally {
+            if (acquired) {
+                permits.release();
+            }
+            SecurityContextHolder.clearContext();
+            try {
+                async.complete();
+            } catch (IllegalStateException e) {
+                // already completed by the container (timeout, client gone)
+            }
+        }
+    }
+
+    /**
+     * Returns the status of a security exception, as Spring Security would send it: 401 if the user is not authenticated
+     * (anonymous users have no principal), 403 otherwise.
+     *
+     * @return the status, 0 if the exception is not caused by a security exception
+     */
+    static int getSecurityStatus(Throwable e, HttpServletRequest request) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof AuthenticationException) {
+                return HttpServletResponse.SC_UNAUTHORIZED;
+            }
+            if (cause instanceof AccessDeniedException) {
+                return request.getUserPrincipal() == null ? HttpServletResponse.SC_UNAUTHORIZED : HttpServletResponse.SC_FORBIDDEN;
+            }
+        }
+        return 0;
+    }
+
+    private static void sendError(HttpServletResponse response, int status) {
+        if (response.isCommitted()) {
+            return;
+        }
+        try {
+            response.sendError(status);
+        } catch (IOException | IllegalStateException e) {
+            LOGGER.debug("Cannot send the error", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+        super.destroy();
+    }
+}
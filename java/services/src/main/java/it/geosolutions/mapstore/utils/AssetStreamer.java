@@ -0,0 +1,223 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package it.geosolutions.mapstore.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import it.geosolutions.mapstore.metrics.StreamMetrics;
+import it.geosolutions.mapstore.metrics.StreamTracker;
+import it.geosolutions.mapstore.metrics.StreamTracker.Outcome;
+
+/**
+ * Streams asset bytes with the Servlet non-blocking I/O: the request is put in asynchronous mode and the bytes are
+ * written by a {@link WriteListener} only when the connection can take them, so the request thread goes back to the
+ * container instead of waiting for slow clients to download big bundles.
+ * <p>
+ * Responses are streamed only when the request supports asynchronous processing (<code>async-supported</code> must be set
+ * on the servlet and on all the filters of the chain) and are big enough to be worth it; smaller ones fit in the
+ * socket buffers and are written directly.
+ * <p>
+ * The request of a streamed response has a {@link StreamTracker}, that tells when and how the stream ended.
+ */
+public class AssetStreamer {
+
+    private static final Logger LOGGER = LogManager.getLogger(AssetStreamer.class);
+
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    private final long minSize;
+    private final long timeout;
+    private final StreamMetrics metrics;
+
+    /**
+     * @param minSize smaller responses are written directly
+     * @param timeout time in milliseconds a stream can take before it is aborted, 0 for the container default
+     * @param metrics where the streams are recorded
+     */
+    public AssetStreamer(long minSize, long timeout, StreamMetrics metrics) {
+        this.minSize = minSize;
+        this.timeout = timeout;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Tells if a response of the given length can be streamed asynchronously for the request.
+     */
+    public boolean canStream(HttpServletRequest request, long count) {
+        return count >= minSize && request.isAsyncSupported() && !request.isAsyncStarted();
+    }
+
+    /**
+     * Streams the remaining bytes of a buffer. Headers must be already set.
+     */
+    public void stream(ByteBuffer data, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        start(new Stream(data, null, 0, 0), request, response);
+    }
+
+    /**
+     * Streams a window of a file. Headers must be already set.
+     * The channel is closed when the stream ends, the caller must not close it.
+     */
+    public void stream(FileChannel channel, long position, long count, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        start(new Stream(null, channel, position, position + count), request, response);
+    }
+
+    private void start(Stream stream, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ServletOutputStream out;
+        try {
+            out = response.getOutputStream();
+            stream.async = request.startAsync();
+        } catch (IOException | RuntimeException e) {
+            stream.close();
+            throw e;
+        }
+        stream.out = out;
+        if (timeout > 0) {
+            stream.async.setTimeout(timeout);
+        }
+        stream.async.addListener(stream);
+        stream.tracker = StreamTracker.start(request);
+        metrics.started();
+        // the container calls onWritePossible as soon as the output is ready
+        out.setWriteListener(stream);
+    }
+
+    /**
+     * A response being streamed, from a buffer or a file window.
+     */
+    private final class Stream implements WriteListener, AsyncListener {
+
+        private final ByteBuffer data;
+        private final FileChannel channel;
+        private long position;
+        private final long end;
+        private final byte[] chunk;
+        private final long begin = System.nanoTime();
+        private final AtomicBoolean ended = new AtomicBoolean();
+        private long sent;
+        private AsyncContext async;
+        private ServletOutputStream out;
+        private StreamTracker tracker;
+
+        Stream(ByteBuffer data, FileChannel channel, long position, long end) {
+            this.data = data;
+            this.channel = channel;
+            this.position = position;
+            this.end = end;
+            long count = data != null ? data.remaining() : end - position;
+            this.chunk = new byte[(int) Math.min(CHUNK_SIZE, Math.max(count, 1))];
+        }
+
+        @Override
+        public void onWritePossible() throws IOException {
+            while (out.isReady()) {
+                int count = next();
+                if (count <= 0) {
+                    if (ended.compareAndSet(false, true)) {
+                        close();
+                        metrics.completed(System.nanoTime() - begin, sent);
+                        tracker.end(Outcome.COMPLETED, sent);
+                        async.complete();
+                    }
+                    return;
+                }
+                out.write(chunk, 0, count);
+                sent += count;
+            }
+        }
+
+        /**
+         * Copies the next bytes to send in the chunk.
+         * @return the number of bytes copied, 0 when there is nothing left (also when the file has been truncated)
+         */
+        private int next() throws IOException {
+            if (data != null) {
+                int count = Math.min(chunk.length, data.remaining());
+                data.get(chunk, 0, count);
+                return count;
+            }
+            if (position >= end) {
+                return 0;
+            }
+            ByteBuffer target = ByteBuffer.wrap(chunk, 0, (int) Math.min(chunk.length, end - position));
+            int read = channel.read(target, position);
+            if (read <= 0) {
+                return 0;
+            }
+            position += read;
+            return read;
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            LOGGER.debug("Asset stream interrupted after {} bytes", sent, t);
+            if (ended.compareAndSet(false, true)) {
+                close();
+                metrics.failed(sent);
+                tracker.end(Outcome.FAILED, sent);
+                async.complete();
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            LOGGER.debug("Asset stream timed out after {} bytes", sent);
+            if (ended.compareAndSet(false, true)) {
+                close();
+                metrics.timedOut(sent);
+                tracker.end(Outcome.TIMED_OUT, sent);
+            }
+            async.complete();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            onError(event.getThrowable());
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            // completed by the container (e.g. connection closed), without any other event
+            if (ended.compareAndSet(false, true)) {
+                close();
+                metrics.failed(sent);
+                tracker.end(Outcome.FAILED, sent);
+            }
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // not restarted
+        }
+
+        private void close() {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    LOGGER.debug("Error closing the asset file", e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,433 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package it.geosolutions.mapstore.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.GZIPOutputStream;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Utilities to send static assets (extension bundles, translations, images...) to the client as raw bytes,
+ * without decoding them.
+ */
+public class AssetUtils {
+
+    public static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+    public static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+    public static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+    public static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * Files smaller than this are written directly, as Tomcat does for its static resources.
+     */
+    public static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
+    public static final String GZIP = "gzip";
+
+    /**
+     * Requests with more ranges are answered with the whole file.
+     */
+    public static final int MAX_RANGES = 16;
+
+    private static final String BYTES = "bytes";
+    private static final String ACCEPT_RANGES = "Accept-Ranges";
+    private static final String CONTENT_RANGE = "Content-Range";
+    private static final String CONTENT_TYPE = "Content-Type";
+    private static final String IF_RANGE = "If-Range";
+    private static final String LAST_MODIFIED = "Last-Modified";
+    private static final String RANGE = "Range";
+
+    /**
+     * Smaller files are not compressed, the gain would not be worth the headers and the CPU.
+     */
+    public static final long COMPRESSION_MIN_SIZE = 1024;
+
+    /**
+     * Sends the content of a file, setting the Content-Length of the response.
+     * When the container supports it (Tomcat with NIO/APR connectors), big files are sent by the container using
+     * sendfile, otherwise the file channel is transferred to the response output stream.
+     * <p>
+     * Byte range requests are supported: a single range is sent as 206 Partial Content, many ranges as a
+     * multipart/byteranges response. Each range is read from its position in the file, so only the requested
+     * bytes are read. Not satisfiable ranges get a 416 response.
+     *
+     * @param file     the file to send
+     * @param request  the current request
+     * @param response the response, with its content type already set
+     */
+    public static void sendFile(File file, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        sendFile(file, request, response, null);
+    }
+
+    /**
+     * Sends the content of a file, as {@link #sendFile(File, HttpServletRequest, HttpServletResponse)}.
+     * Whole files and single ranges that are not left to sendfile are streamed asynchronously by the streamer, when possible.
+     *
+     * @param streamer the streamer of big responses, null to always write them on the request thread
+     */
+    public static void sendFile(File file, HttpServletRequest request, HttpServletResponse response, AssetStreamer streamer)
+            throws IOException {
+        sendFile(file, null, request, response, streamer);
+    }
+
+    /**
+     * Sends the content of a file, as {@link #sendFile(File, HttpServletRequest, HttpServletResponse, AssetStreamer)},
+     * with a known strong ETag, that can be used by the client to resume a download (If-Range).
+     *
+     * @param etag the entity tag of the file, quoted, null if not known
+     */
+    public static void sendFile(File file, String etag, HttpServletRequest request, HttpServletResponse response,
+            AssetStreamer streamer) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        boolean streamed = false;
+        try {
+            long length = channel.size();
+            long lastModified = file.lastModified();
+            response.setHeader(ACCEPT_RANGES, BYTES);
+            if (lastModified > 0) {
+                response.setDateHeader(LAST_MODIFIED, lastModified);
+            }
+            String rangeHeader = request.getHeader(RANGE);
+            List<long[]> ranges = rangeHeader != null && isIfRangeValid(request, lastModified, etag)
+                    ? parseRanges(rangeHeader, length)
+                    : null;
+            if (ranges == null) {
+                response.setContentLengthLong(length);
+                streamed = send(file, channel, 0, length, request, response, streamer);
+            } else if (ranges.isEmpty()) {
+                response.setHeader(CONTENT_RANGE, BYTES + " */" + length);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            } else if (ranges.size() == 1) {
+                long[] range = ranges.get(0);
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(CONTENT_RANGE, contentRange(range, length));
+                response.setContentLengthLong(range[1] - range[0] + 1);
+                streamed = send(file, channel, range[0], range[1] - range[0] + 1, request, response, streamer);
+            } else {
+                sendMultipart(channel, ranges, length, response);
+            }
+        } finally {
+            // once streamed, the channel is closed at the end of the stream
+            if (!streamed) {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * @return true if the window is streamed asynchronously, and the channel is now owned by the stream
+     */
+    private static boolean send(File file, FileChannel channel, long start, long count, HttpServletRequest request,
+            HttpServletResponse response, AssetStreamer streamer) throws IOException {
+        if (canSendFile(request, count)) {
+            request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, file.getCanonicalPath());
+            request.setAttribute(SENDFILE_START_ATTRIBUTE, start);
+            // exclusive
+            request.setAttribute(SENDFILE_END_ATTRIBUTE, start + count);
+            return false;
+        }
+        if (streamer != null && streamer.canStream(request, count)) {
+            streamer.stream(channel, start, count, request, response);
+            return true;
+        }
+        transfer(channel, start, count, Channels.newChannel(response.getOutputStream()));
+        return false;
+    }
+
+    /**
+     * Tells if the container will send the given number of bytes from the file by itself, using sendfile.
+     */
+    public static boolean canSendFile(HttpServletRequest request, long count) {
+        return count >= SENDFILE_MIN_SIZE && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE));
+    }
+
+    /**
+     * Sends a whole asset from memory, setting the same headers as {@link #sendFile(File, HttpServletRequest, HttpServletResponse)}.
+     *
+     * @param data         the content of the asset
+     * @param lastModified the last modified time of the asset file
+     * @param response     the response, with its content type already set
+     */
+    public static void sendBuffer(ByteBuffer data, long lastModified, HttpServletResponse response) throws IOException {
+        sendBuffer(data, lastModified, null, response, null);
+    }
+
+    /**
+     * Sends a whole asset from memory, as {@link #sendBuffer(ByteBuffer, long, HttpServletResponse)},
+     * streaming it asynchronously when possible.
+     *
+     * @param streamer the streamer of big responses, null to always write them on the request thread
+     */
+    public static void sendBuffer(ByteBuffer data, long lastModified, HttpServletRequest request, HttpServletResponse response,
+            AssetStreamer streamer) throws IOException {
+        response.setHeader(ACCEPT_RANGES, BYTES);
+        if (lastModified > 0) {
+            response.setDateHeader(LAST_MODIFIED, lastModified);
+        }
+        response.setContentLength(data.remaining());
+        write(data, request, response, streamer);
+    }
+
+    /**
+     * Writes the remaining bytes of the buffer to the response, streaming them asynchronously when possible.
+     *
+     * @param streamer the streamer of big responses, null to always write them on the request thread
+     */
+    public static void write(ByteBuffer data, HttpServletRequest request, HttpServletResponse response, AssetStreamer streamer)
+            throws IOException {
+        if (streamer != null && request != null && streamer.canStream(request, data.remaining())) {
+            streamer.stream(data, request, response);
+            return;
+        }
+        write(data, response.getOutputStream());
+    }
+
+    /**
+     * Writes the remaining bytes of the buffer to the output stream.
+     */
+    public static void write(ByteBuffer data, OutputStream out) throws IOException {
+        WritableByteChannel target = Channels.newChannel(out);
+        while (data.hasRemaining()) {
+            target.write(data);
+        }
+    }
+
+    private static void sendMultipart(FileChannel channel, List<long[]> ranges, long length, HttpServletResponse response)
+            throws IOException {
+        String contentType = response.getContentType();
+        String boundary = "MAPSTORE_" + Long.toHexString(ThreadLocalRandom.current().nextLong());
+        List<byte[]> partHeaders = new ArrayList<>(ranges.size());
+        long contentLength = 0;
+        for (long[] range : ranges) {
+            StringBuilder header = new StringBuilder("\r\n--").append(boundary).append("\r\n");
+            if (contentType != null) {
+                header.append(CONTENT_TYPE).append(": ").append(contentType).append("\r\n");
+            }
+            header.append(CONTENT_RANGE).append(": ").append(contentRange(range, length)).append("\r\n\r\n");
+            byte[] bytes = header.toString().getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(bytes);
+            contentLength += bytes.length + range[1] - range[0] + 1;
+        }
+        byte[] end = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        contentLength += end.length;
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength);
+        OutputStream out = response.getOutputStream();
+        WritableByteChannel target = Channels.newChannel(out);
+        for (int i = 0; i < ranges.size(); i++) {
+            long[] range = ranges.get(i);
+            out.write(partHeaders.get(i));
+            transfer(channel, range[0], range[1] - range[0] + 1, target);
+        }
+        out.write(end);
+    }
+
+    private static String contentRange(long[] range, long length) {
+        return BYTES + " " + range[0] + "-" + range[1] + "/" + length;
+    }
+
+    /**
+     * The range is applied only if the representation did not change since the one the client has (If-Range).
+     * An entity tag matches only if it is strong and equal to the one of the asset, if known; weak ones never match.
+     */
+    private static boolean isIfRangeValid(HttpServletRequest request, long lastModified, String etag) {
+        String ifRange = request.getHeader(IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("W/")) {
+            return false;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            long date = request.getDateHeader(IF_RANGE);
+            return date >= 0 && lastModified / 1000 <= date / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Parses a Range header (e.g. <code>bytes=0-499,-500,9500-</code>) into a list of inclusive [first, last] ranges,
+     * sorted and with overlapping ranges merged.
+     *
+     * @param header the Range header
+     * @param length the length of the file
+     * @return the satisfiable ranges (empty if none is), or null if the header is not valid or must be ignored,
+     *         so that the whole file is sent
+     */
+    public static List<long[]> parseRanges(String header, long length) {
+        String value = header.trim();
+        if (!value.regionMatches(true, 0, BYTES + "=", 0, BYTES.length() + 1)) {
+            return null;
+        }
+        String[] specs = value.substring(BYTES.length() + 1).split(",");
+        if (specs.length > MAX_RANGES) {
+            return null;
+        }
+        List<long[]> ranges = new ArrayList<>(specs.length);
+        for (String spec : specs) {
+            String range = spec.trim();
+            int dash = range.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+            long first;
+            long last;
+            try {
+                if (dash == 0) {
+                    // suffix range, the last N bytes
+                    long suffix = Long.parseLong(range.substring(1));
+                    if (suffix <= 0) {
+                        continue;
+                    }
+                    first = Math.max(0, length - suffix);
+                    last = length - 1;
+                } else {
+                    first = Long.parseLong(range.substring(0, dash));
+                    last = dash == range.length() - 1 ? Long.MAX_VALUE : Long.parseLong(range.substring(dash + 1));
+                    if (last < first) {
+                        return null;
+                    }
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (first >= length) {
+                // not satisfiable
+                continue;
+            }
+            ranges.add(new long[] { first, Math.min(last, length - 1) });
+        }
+        ranges.sort(Comparator.comparingLong(range -> range[0]));
+        List<long[]> merged = new ArrayList<>(ranges.size());
+        for (long[] range : ranges) {
+            long[] previous = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (previous != null && range[0] <= previous[1] + 1) {
+                previous[1] = Math.max(previous[1], range[1]);
+            } else {
+                merged.add(range);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Tells if the client accepts gzip encoded responses.
+     *
+     * @param acceptEncoding the Accept-Encoding header of the request (may be null)
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean accepted = false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            if (!name.equals(GZIP) && !name.equals("x-gzip") && !name.equals("*")) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        refused = Double.parseDouble(param.substring(2).trim()) <= 0;
+                    } catch (NumberFormatException e) {
+                        refused = true;
+                    }
+                }
+            }
+            if (!name.equals("*")) {
+                // an explicit gzip coding wins over the wildcard
+                return !refused;
+            }
+            accepted = !refused;
+        }
+        return accepted;
+    }
+
+    /**
+     * Tells if a content type is worth to be compressed (text, javascript, JSON, XML, SVG).
+     */
+    public static boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        return type.startsWith("text/")
+            || type.startsWith("application/javascript")
+            || type.startsWith("application/x-javascript")
+            || type.startsWith("application/json")
+            || type.startsWith("application/xml")
+            || type.startsWith("image/svg+xml")
+            || type.contains("+json")
+            || type.contains("+xml");
+    }
+
+    /**
+     * Compresses data with gzip.
+     */
+    public static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out, 8192)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            // not expected writing to memory
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Returns the ETag of the gzip variant of a resource, from the ETag of the resource.
+     * Variants must have different strong ETags.
+     */
+    public static String gzipETag(String etag) {
+        if (etag.endsWith("\"")) {
+            return etag.substring(0, etag.length() - 1) + "-" + GZIP + "\"";
+        }
+        return etag + "-" + GZIP;
+    }
+
+    /**
+     * Transfers a window of the file channel to the target channel.
+     */
+    public static void transfer(FileChannel channel, long position, long count, WritableByteChannel target) throws IOException {
+        long end = position + count;
+        while (position < end) {
+            long transferred = channel.transferTo(position, end - position, target);
+            if (transferred <= 0) {
+                // file truncated while sending
+                break;
+            }
+            position += transferred;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package it.geosolutions.mapstore.utils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Removes files and folders after a delay, on a background thread.
+ * Used for the folders that are replaced while requests may still be reading from them (e.g. the versions of an
+ * extension), so that the downloads in progress can complete before the files are deleted.
+ * Pending tasks are lost on shutdown (see {@link #shutdown()}): the folders are then left on disk, they are not used
+ * anymore (the ones of the extensions are removed at the next startup).
+ */
+public final class FolderCleaner {
+
+    /**
+     * A clean up task.
+     */
+    @FunctionalInterface
+    public interface Task {
+        void run() throws IOException;
+    }
+
+    private static final Logger LOGGER = LogManager.getLogger(FolderCleaner.class);
+
+    private static final FolderCleaner INSTANCE = new FolderCleaner();
+
+    private ScheduledExecutorService executor;
+
+    private FolderCleaner() {
+    }
+
+    public static FolderCleaner getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Runs a task after a delay.
+     *
+     * @param description what the task does, for the logs
+     * @param delay       delay in milliseconds, the task runs immediately (in the calling thread) when 0 or less
+     */
+    public void schedule(String description, Task task, long delay) {
+        if (delay <= 0) {
+            run(description, task);
+        } else {
+            getExecutor().schedule(() -> run(description, task), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Deletes a file or a folder, with all its contents, after a delay.
+     *
+     * @param delay delay in milliseconds, the file is deleted immediately when 0 or less
+     */
+    public void deleteLater(Path path, long delay) {
+        schedule("delete " + path, () -> {
+            if (path.toFile().exists()) {
+                FileUtils.forceDelete(path.toFile());
+            }
+        }, delay);
+    }
+
+    /**
+     * Stops the background thread, discarding the pending tasks. A new thread is started by the next delayed task.
+     */
+    public void shutdown() {
+        ScheduledExecutorService stopped;
+        synchronized (this) {
+            stopped = executor;
+            executor = null;
+        }
+        if (stopped != null) {
+            stopped.shutdownNow();
+        }
+    }
+
+    private synchronized ScheduledExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "mapstore-folder-cleaner");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    private static void run(String description, Task task) {
+        try {
+            task.run();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Unable to {}", description, e);
+        }
+    }
+}
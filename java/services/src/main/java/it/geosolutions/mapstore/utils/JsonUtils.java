@@ -0,0 +1,43 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package it.geosolutions.mapstore.utils;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Shared JSON facilities for the services.
+ * The {@link ObjectMapper} is thread safe once configured, so a single instance is shared, to reuse its
+ * caches and buffers instead of building a new mapper for each controller or request.
+ */
+public class JsonUtils {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static ObjectMapper getMapper() {
+        return MAPPER;
+    }
+
+    /**
+     * Parses a JSON file into a tree, straight from its bytes (the encoding is detected by the parser),
+     * without building the file content as a String.
+     */
+    public static JsonNode readTree(File file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file.toPath()), BUFFER_SIZE)) {
+            return MAPPER.readTree(in);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package it.geosolutions.mapstore.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import eu.medsea.mimeutil.MimeType;
+import eu.medsea.mimeutil.MimeUtil;
+
+/**
+ * Resolves the MIME type of the served files from their extension, using an immutable table built once:
+ * the types in the {@code mime-types.properties} file of the classpath, with the configured overrides on top.
+ * Extensions not in the table are detected once by mime-util, and the result is remembered, so mime-util
+ * is not used on each request.
+ */
+public final class MimeTypes {
+
+    public static final String RESOURCE = "mime-types.properties";
+
+    private static final MimeTypes DEFAULT = new MimeTypes(loadDefaults(), "");
+
+    // types detected by mime-util, for the extensions not in the table
+    private static final Map<String, Optional<String>> DETECTED = new ConcurrentHashMap<>();
+
+    private final Map<String, String> types;
+    private final String overrides;
+
+    private MimeTypes(Map<String, String> types, String overrides) {
+        this.types = types;
+        this.overrides = overrides;
+    }
+
+    /**
+     * @return the resolver with the types of the classpath table
+     */
+    public static MimeTypes getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Builds a resolver with the given types on top of the default ones.
+     *
+     * @param overrides comma-separated list of {@code <extension>=<type>} (e.g. {@code glb=model/gltf-binary,wasm=application/wasm}).
+     *                  Entries without a type are skipped.
+     */
+    public static MimeTypes withOverrides(String overrides) {
+        if (overrides == null || overrides.trim().isEmpty()) {
+            return DEFAULT;
+        }
+        Map<String, String> types = new HashMap<>(DEFAULT.types);
+        for (String mapping : overrides.split(",")) {
+            String[] parts = mapping.split("=", 2);
+            if (parts.length == 2 && !parts[1].trim().isEmpty()) {
+                types.put(normalize(parts[0]), parts[1].trim());
+            }
+        }
+        return new MimeTypes(Collections.unmodifiableMap(types), overrides);
+    }
+
+    /**
+     * Tells if this resolver has been built from the given overrides.
+     */
+    public boolean isBuiltFrom(String overrides) {
+        return Objects.equals(this.overrides, overrides == null || overrides.trim().isEmpty() ? "" : overrides);
+    }
+
+    /**
+     * @return the MIME type of the file, null if unknown
+     */
+    public String getType(File file) {
+        return getType(file.getName());
+    }
+
+    /**
+     * @param fileName name of the file
+     * @return the MIME type of the file, null if unknown
+     */
+    public String getType(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        String extension = dot >= 0 ? normalize(fileName.substring(dot + 1)) : "";
+        String type = types.get(extension);
+        if (type != null) {
+            return type;
+        }
+        return DETECTED.computeIfAbsent(extension, key -> Optional.ofNullable(detect(fileName))).orElse(null);
+    }
+
+    private static String detect(String fileName) {
+        MimeType type = MimeUtil.getMostSpecificMimeType(MimeUtil.getMimeTypes(fileName));
+        return type != null ? type.toString() : null;
+    }
+
+    private static String normalize(String extension) {
+        return extension.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Map<String, String> loadDefaults() {
+        Properties properties = new Properties();
+        try (InputStream input = MimeTypes.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+            if (input != null) {
+                properties.load(input);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Map<String, String> types = new HashMap<>();
+        for (String extension : properties.stringPropertyNames()) {
+            types.put(normalize(extension), properties.getProperty(extension).trim());
+        }
+        return Collections.unmodifiableMap(types);
+    }
+}
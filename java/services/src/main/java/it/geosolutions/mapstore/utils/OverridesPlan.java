@@ -0,0 +1,143 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package it.geosolutions.mapstore.utils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+/**
+ * The overrides mappings (<code>overrides.mappings</code>), compiled once with the values of the overrides
+ * properties file.
+ * Each mapping <code>json.path=propertyName</code> becomes a target (the parent JSON pointer and the property, or
+ * array index, to replace) with its value, so that applying the plan does not need to parse anything.
+ * As for a json-patch <code>replace</code> operation, only existing properties are replaced.
+ */
+public final class OverridesPlan {
+
+    public static final OverridesPlan EMPTY = new OverridesPlan("", null, -1, -1, Collections.emptyList());
+
+    private final String mappings;
+    private final File source;
+    private final long lastModified;
+    private final long size;
+    private final List<Target> targets;
+
+    private OverridesPlan(String mappings, File source, long lastModified, long size, List<Target> targets) {
+        this.mappings = mappings;
+        this.source = source;
+        this.lastModified = lastModified;
+        this.size = size;
+        this.targets = targets;
+    }
+
+    /**
+     * Compiles the mappings.
+     *
+     * @param mappings comma-separated list of <code>json.path=propertyName</code>
+     * @param props    the overrides properties
+     * @param source   the overrides properties file, to check if the plan is still valid
+     * @param lastModified last modified time of the source, when the properties were read
+     * @param size     size of the source, when the properties were read
+     */
+    public static OverridesPlan compile(String mappings, Properties props, File source, long lastModified, long size) {
+        List<Target> targets = new ArrayList<>();
+        for (String mapping : mappings.split(",")) {
+            String[] parts = mapping.split("=");
+            if (parts.length != 2 || parts[0].trim().isEmpty() || parts[1].trim().isEmpty()) {
+                continue;
+            }
+            String[] path = parts[0].split("\\.");
+            String value = props.getProperty(parts[1], "");
+            StringBuilder parent = new StringBuilder();
+            for (int i = 0; i < path.length - 1; i++) {
+                parent.append('/').append(path[i]);
+            }
+            try {
+                String property = path[path.length - 1].replace("~1", "/").replace("~0", "~");
+                targets.add(new Target(JsonPointer.compile(parent.toString()), property, TextNode.valueOf(value)));
+            } catch (IllegalArgumentException e) {
+                // not a valid pointer, the mapping can not match anything
+            }
+        }
+        return new OverridesPlan(mappings, source, lastModified, size, Collections.unmodifiableList(targets));
+    }
+
+    /**
+     * Tells if the plan has been compiled from the given mappings and the current version of the given properties file.
+     */
+    public boolean isCompiledFrom(String mappings, File source, long lastModified, long size) {
+        return this.mappings.equals(mappings) && Objects.equals(this.source, source)
+            && this.lastModified == lastModified && this.size == size;
+    }
+
+    public boolean isEmpty() {
+        return targets.isEmpty();
+    }
+
+    /**
+     * Applies the overrides to the tree, mutating it in place.
+     * The tree must be private to the caller (e.g. just parsed or patched).
+     *
+     * @param tree the configuration
+     * @return the same tree, with the overrides applied
+     */
+    public JsonNode apply(JsonNode tree) {
+        for (Target target : targets) {
+            target.apply(tree);
+        }
+        return tree;
+    }
+
+    private static final class Target {
+        private final JsonPointer parent;
+        private final String property;
+        private final int index;
+        private final TextNode value;
+
+        Target(JsonPointer parent, String property, TextNode value) {
+            this.parent = parent;
+            this.property = property;
+            this.index = toIndex(property);
+            this.value = value;
+        }
+
+        void apply(JsonNode tree) {
+            JsonNode node = tree.at(parent);
+            if (node.isObject()) {
+                if (node.has(property)) {
+                    ((ObjectNode) node).set(property, value);
+                }
+            } else if (node.isArray() && index >= 0 && index < node.size()) {
+                ((ArrayNode) node).set(index, value);
+            }
+        }
+
+        private static int toIndex(String property) {
+            if (property.isEmpty() || property.length() > 9 || (property.length() > 1 && property.charAt(0) == '0')) {
+                return -1;
+            }
+            for (int i = 0; i < property.length(); i++) {
+                char c = property.charAt(i);
+                if (c < '0' || c > '9') {
+                    return -1;
+                }
+            }
+            return Integer.parseInt(property);
+        }
+    }
+}
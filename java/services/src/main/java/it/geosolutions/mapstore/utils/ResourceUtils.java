@@ -9,10 +9,23 @@ package it.geosolutions.mapstore.utils;
 
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.IntFunction;
 import java.util.function.Predicate;
@@ -22,6 +35,10 @@ import jakarta.servlet.ServletContext;
 
 public class ResourceUtils {
 
+    private static final int MAX_CANONICAL_BASES = 64;
+
+    private static final ConcurrentHashMap<String, Path> CANONICAL_BASES = new ConcurrentHashMap<>();
+
     public static Optional<String> findExisting(String[] candidates) {
         return Stream.of(candidates)
             .filter(new Predicate<String>() {
@@ -36,13 +53,22 @@ public class ResourceUtils {
     /**
      * Finds a resource, recursively looking at a list of folders, and at last at
      * the web application context path.
+     * The file-system is checked on each call, use the resolution cache of the controllers to avoid it.
      *
      * @param baseFolders  comma-delimited list of folders, in order of search
      * @param context      web application context (last resource)
      * @param resourceName name of the resource to be found
      */
     public static Optional<File> findResource(String baseFolders, ServletContext context, String resourceName) {
-        String[] candidates = Stream.concat(
+        return findExisting(getCandidates(baseFolders, context, resourceName)).map(File::new);
+    }
+
+    /**
+     * Returns the paths where a resource is looked for, in order of search: the folders of the list
+     * and the web application context path (null if not available) as last element.
+     */
+    public static String[] getCandidates(String baseFolders, ServletContext context, String resourceName) {
+        return Stream.concat(
             Stream.of(baseFolders.split(","))
                 // remove empty string, to avoid to add "/" to the allowed paths
                 .filter(new Predicate<String>() {
@@ -64,8 +90,6 @@ public class ResourceUtils {
                 return new String[size];
             }
         });
-        Optional<String> resourcePath = findExisting(candidates);
-        return resourcePath.map(File::new);
     }
 
     public static String getResourcePath(String baseFolder, ServletContext context, String path) {
@@ -74,7 +98,7 @@ public class ResourceUtils {
 
     /**
      * Builds a path relative to a trusted base folder or the webapp root.
-     * Includes canonicalization and containment checks to prevent path traversal (CWE-23 / Zip-Slip).
+     * Includes containment checks to prevent path traversal (CWE-23 / Zip-Slip).
      *
      * Compatibility notes:
      * - If baseFolder is empty, we FIRST try context.getRealPath(path) (legacy behavior).
@@ -85,7 +109,7 @@ public class ResourceUtils {
      * @param context    ServletContext
      * @param path       relative path (e.g., "dist/extensions/My/index.js")
      * @param write      true for write targets (enforce containment); false for read resolution
-     * @return canonical, absolute path as String; or null if unresolved and write==false
+     * @return absolute path as String, normalized under the canonical base folder; or null if unresolved and write==false
      * @throws IllegalArgumentException if the base cannot be determined
      * @throws SecurityException        if traversal outside the base is attempted or absolute path is provided
      */
@@ -93,8 +117,8 @@ public class ResourceUtils {
         try {
             // If we have an explicit base folder, resolve safely against it
             if (baseFolder != null && !baseFolder.isEmpty()) {
-                File baseDir = resolveBaseDirectory(baseFolder, context);
-                return canonicalChild(baseDir, path).getPath();
+                Path baseDir = resolveBaseDirectory(baseFolder, context);
+                return canonicalChild(baseDir, path).toString();
             }
 
             // Legacy compatibility: if servlet resolves this specific path, use it.
@@ -111,7 +135,7 @@ public class ResourceUtils {
                 if (root == null || root.isEmpty()) {
                     throw new IllegalArgumentException("Cannot determine servlet context root path");
                 }
-                return canonicalChild(new File(root).getCanonicalFile(), path).getPath();
+                return canonicalChild(getCanonicalBase(root), path).toString();
             }
 
             // Read path unresolved (legacy returned null in this case)
@@ -121,58 +145,87 @@ public class ResourceUtils {
         }
     }
 
+    /**
+     * Returns the canonical path of a base folder (datadir, write storage, webapp root).
+     * Base folders are canonicalized once, then the result is cached, since resolving symbolic links
+     * takes several system calls and the base folders do not change while the application runs.
+     *
+     * @param folder the base folder, as configured
+     */
+    public static Path getCanonicalBase(String folder) throws IOException {
+        Path base = CANONICAL_BASES.get(folder);
+        if (base == null) {
+            base = new File(folder).getCanonicalFile().toPath();
+            if (CANONICAL_BASES.size() >= MAX_CANONICAL_BASES) {
+                CANONICAL_BASES.clear();
+            }
+            CANONICAL_BASES.put(folder, base);
+        }
+        return base;
+    }
+
+    /**
+     * Forgets the canonical paths of the base folders, e.g. after a symbolic link to a base folder has been changed.
+     */
+    public static void clearCanonicalBases() {
+        CANONICAL_BASES.clear();
+    }
+
     /**
      * Resolve and canonicalize the base directory:
      *  - if baseFolder is provided, use it;
      *  - otherwise use the servlet context root.
      */
-    private static File resolveBaseDirectory(String baseFolder, ServletContext context) throws IOException {
-        final File base;
+    private static Path resolveBaseDirectory(String baseFolder, ServletContext context) throws IOException {
         if (baseFolder != null && !baseFolder.isEmpty()) {
-            base = new File(baseFolder);
-        } else {
-            String root = context != null ? context.getRealPath("") : null;
-            if (root == null || root.isEmpty()) {
-                throw new IllegalArgumentException("Cannot determine servlet context root path");
-            }
-            base = new File(root);
+            return getCanonicalBase(baseFolder);
+        }
+        String root = context != null ? context.getRealPath("") : null;
+        if (root == null || root.isEmpty()) {
+            throw new IllegalArgumentException("Cannot determine servlet context root path");
         }
-        return base.getCanonicalFile();
+        return getCanonicalBase(root);
     }
 
     /**
-     * Returns the canonical file obtained by joining {@code baseDir} and {@code childRelativePath}
+     * Returns the path obtained by joining {@code baseDir} and {@code childRelativePath}
      * and ensures the result remains within {@code baseDir}. Blocks traversal attempts.
      *
+     * The check is done on the normalized path (<code>.</code> and <code>..</code> collapsed), against the canonical base,
+     * so it does not need to access the file-system. Symbolic links inside the base folder are trusted,
+     * as they can only be created by the administrator.
+     *
      * This also rejects absolute {@code childRelativePath}.
      */
-    private static File canonicalChild(File baseDir, String childRelativePath) throws IOException {
+    private static Path canonicalChild(Path baseDir, String childRelativePath) {
         if (childRelativePath == null) {
             throw new IllegalArgumentException("Path must not be null");
         }
 
         // Reject absolute inputs (e.g., "/etc/passwd" or "C:\\windows\\...").
-        File child = new File(childRelativePath);
-        if (child.isAbsolute()) {
+        if (new File(childRelativePath).isAbsolute()) {
             throw new SecurityException("Absolute paths are not allowed: " + childRelativePath);
         }
 
-        // Join and canonicalize to collapse ".." and resolve any symlinks on existing segments.
-        File joined = new File(baseDir, childRelativePath);
-        File canonicalJoined = joined.getCanonicalFile();
-        File canonicalBase = baseDir.getCanonicalFile();
-
-        // Ensure final path is inside base (prefix check with separator to avoid "/tmp/baseX" issues).
-        String basePath = canonicalBase.getPath();
-        String targetPath = canonicalJoined.getPath();
+        // Join and normalize to collapse "." and "..".
+        Path joined;
+        try {
+            joined = baseDir.resolve(childRelativePath).normalize();
+        } catch (InvalidPathException e) {
+            throw new IllegalArgumentException("Unable to resolve resource path", e);
+        }
 
-        if (!targetPath.equals(basePath) && !targetPath.startsWith(basePath + File.separator)) {
+        // Ensure final path is inside base (compared by name elements, so "/tmp/baseX" is not inside "/tmp/base").
+        if (!joined.startsWith(baseDir)) {
             throw new SecurityException("Path traversal attempt blocked: " + childRelativePath);
         }
 
-        return canonicalJoined;
+        return joined;
     }
 
+    /**
+     * Writes a configuration file. Cached resolutions of the file are not invalidated, that is up to the caller.
+     */
     public static void storeJSONConfig(String baseFolder, ServletContext context, Object config, String configName)
         throws FileNotFoundException, IOException {
         // Resolve a SAFE write path
@@ -182,9 +235,65 @@ public class ResourceUtils {
         if (parent != null && !parent.exists() && !parent.mkdirs()) {
             throw new IOException("Unable to create parent directories for: " + outputFile);
         }
-        try (FileOutputStream output = new FileOutputStream(out)) {
-            byte[] bytes = String.valueOf(config).getBytes(StandardCharsets.UTF_8);
-            output.write(bytes);
+        writeAtomically(out.toPath(), String.valueOf(config).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Replaces the content of a file atomically: the bytes are written to a temporary file in the same folder,
+     * synced to the disk and then renamed over the target, so readers see either the old or the new content, never a part,
+     * and a crash does not leave a truncated file. The permissions of the replaced file are kept, where supported.
+     *
+     * @param target the file to write, its folder must exist
+     * @param bytes  the new content
+     */
+    public static void writeAtomically(Path target, byte[] bytes) throws IOException {
+        Path folder = target.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(folder, "." + target.getFileName(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            keepPermissions(target, temp);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            syncFolder(folder);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Temporary files are created readable by the owner only, the new file gets the permissions of the one it replaces
+     * (or the usual ones of a new file, rw-r--r--).
+     */
+    private static void keepPermissions(Path target, Path temp) throws IOException {
+        if (Files.getFileAttributeView(temp, PosixFileAttributeView.class) == null) {
+            return;
+        }
+        Set<PosixFilePermission> permissions;
+        try {
+            permissions = Files.getPosixFilePermissions(target);
+        } catch (NoSuchFileException e) {
+            permissions = PosixFilePermissions.fromString("rw-r--r--");
+        }
+        Files.setPosixFilePermissions(temp, permissions);
+    }
+
+    /**
+     * Syncs the folder entry of a renamed file, so that the rename survives a crash. Not supported on every platform (e.g. Windows).
+     */
+    private static void syncFolder(Path folder) {
+        try (FileChannel channel = FileChannel.open(folder, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // best effort
         }
     }
 
@@ -199,17 +308,37 @@ public class ResourceUtils {
      */
     public static String toPosix(String path) {
         if (path == null) return null;
-        String p = path.replace('\\', '/');
-        // collapse multiple slashes (but keep leading single slash if present)
-        while (p.contains("//")) {
-            p = p.replace("//", "/");
+        int length = path.length();
+        int i = 0;
+        boolean slash = false;
+        // most paths are already in POSIX form: scan them without allocating
+        for (; i < length; i++) {
+            char c = path.charAt(i);
+            if (c == '\\' || (c == '/' && slash)) {
+                break;
+            }
+            slash = c == '/';
         }
-        return p;
+        if (i == length) {
+            return path;
+        }
+        StringBuilder sb = new StringBuilder(length).append(path, 0, i);
+        for (; i < length; i++) {
+            char c = path.charAt(i) == '\\' ? '/' : path.charAt(i);
+            // collapse multiple slashes (but keep leading single slash if present)
+            if (c == '/' && slash) {
+                continue;
+            }
+            slash = c == '/';
+            sb.append(c);
+        }
+        return sb.toString();
     }
 
     /**
      * Join segments into a RELATIVE POSIX path suitable for ServletContext#getRealPath lookups
      * and JSON fields. Rejects absolute segments and any '..' traversal.
+     * Each segment is converted, checked and appended in a single scan.
      *
      * Example:
      *   posixJoinStrict("custom", "My", "index.js") -> "custom/My/index.js"
@@ -219,33 +348,45 @@ public class ResourceUtils {
             throw new IllegalArgumentException("At least one segment is required");
         }
         StringBuilder sb = new StringBuilder();
-        boolean first = true;
         for (String raw : segments) {
             if (raw == null) {
                 throw new IllegalArgumentException("Null segment not allowed");
             }
-            String s = toPosix(raw).trim();
+            String s = raw.trim();
+            int length = s.length();
 
             // reject absolute segments or drive-like paths
-            if (s.startsWith("/") || s.matches("^[A-Za-z]:.*")) {
+            if (length > 0 && (s.charAt(0) == '/' || s.charAt(0) == '\\')
+                    || length > 1 && s.charAt(1) == ':' && isAsciiLetter(s.charAt(0))) {
                 throw new SecurityException("Absolute segment not allowed: " + raw);
             }
 
-            // strip leading/trailing slashes to avoid accidental absolutes
-            if (s.startsWith("/")) s = s.substring(1);
-            if (s.endsWith("/")) s = s.substring(0, s.length() - 1);
-
-            // reject traversal
-            if (s.equals("..") || s.contains("/../") || s.startsWith("../") || s.endsWith("/..")) {
-                throw new SecurityException("Traversal not allowed in path segment: " + raw);
+            int mark = sb.length();
+            if (mark > 0) sb.append('/');
+            int start = sb.length();
+            int element = start;
+            for (int i = 0; i < length; i++) {
+                char c = s.charAt(i) == '\\' ? '/' : s.charAt(i);
+                if (c == '/') {
+                    if (sb.length() == element) {
+                        continue; // duplicate slash
+                    }
+                    checkElement(sb, element, raw);
+                    sb.append('/');
+                    element = sb.length();
+                } else {
+                    sb.append(c);
+                }
             }
-            if (s.equals(".") || s.isEmpty()) {
-                continue; // ignore no-op segments
+            checkElement(sb, element, raw);
+            // strip trailing slash
+            if (sb.length() > start && sb.charAt(sb.length() - 1) == '/') {
+                sb.setLength(sb.length() - 1);
+            }
+            int segmentLength = sb.length() - start;
+            if (segmentLength == 0 || segmentLength == 1 && sb.charAt(start) == '.') {
+                sb.setLength(mark); // ignore no-op segments
             }
-
-            if (!first) sb.append('/');
-            sb.append(s);
-            first = false;
         }
         if (sb.length() == 0) {
             // if everything collapsed, return "." (relative no-op)
@@ -253,4 +394,17 @@ public class ResourceUtils {
         }
         return sb.toString();
     }
+
+    /**
+     * Rejects traversal: the path element starting at the given index must not be <code>..</code>.
+     */
+    private static void checkElement(StringBuilder sb, int element, String raw) {
+        if (sb.length() - element == 2 && sb.charAt(element) == '.' && sb.charAt(element + 1) == '.') {
+            throw new SecurityException("Traversal not allowed in path segment: " + raw);
+        }
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package it.geosolutions.mapstore.utils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to the virtual threads of JDK 21+.
+ * MapStore is built for Java 17, so they are looked up by reflection and are only available when running on a newer JDK.
+ */
+public final class VirtualThreads {
+
+    private static final ThreadFactory UNNAMED = factory(null);
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return true if the JDK supports virtual threads
+     */
+    public static boolean isSupported() {
+        return UNNAMED != null;
+    }
+
+    /**
+     * Creates an executor that runs each task in a new virtual thread.
+     *
+     * @param prefix prefix of the names of the threads, followed by a counter
+     * @throws UnsupportedOperationException if the JDK does not support virtual threads
+     */
+    public static ExecutorService newExecutor(String prefix) {
+        ThreadFactory factory = isSupported() ? factory(prefix) : null;
+        if (factory == null) {
+            throw new UnsupportedOperationException("Virtual threads require JDK 21 or later, running on " + Runtime.version());
+        }
+        try {
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, factory);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            throw new UnsupportedOperationException("Virtual threads are not available", e);
+        }
+    }
+
+    /**
+     * Returns the factory of virtual threads <code>Thread.ofVirtual().name(prefix, 0).factory()</code>, null if not supported.
+     */
+    private static ThreadFactory factory(String prefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            if (prefix != null) {
+                builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            }
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // JDK 17 (or virtual threads disabled, as preview in older JDKs)
+            return null;
+        }
+    }
+}
@@ -7,18 +7,42 @@
 */
 package it.geosolutions.mapstore;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
 
 import jakarta.servlet.ServletContext;
 
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
+import it.geosolutions.mapstore.cache.ConfigCache;
+import it.geosolutions.mapstore.cache.DataDirWatcher;
 import it.geosolutions.mapstore.controllers.configs.ConfigsController;
+import it.geosolutions.mapstore.metrics.MetricsRegistry;
+import it.geosolutions.mapstore.metrics.ServerTiming;
+import it.geosolutions.mapstore.servlets.MapStoreLifecycleListener;
+import it.geosolutions.mapstore.utils.JsonUtils;
 
 public class ConfigControllerTest {
     ConfigsController controller;
@@ -98,6 +122,23 @@ public class ConfigControllerTest {
         tempResource.delete();
     }
 
+    @Test
+    public void testOverridesChange() throws IOException {
+        File dataDir = TestUtils.getDataDir();
+        controller.setDataDir(dataDir.getAbsolutePath());
+        TestUtils.copyTo(ConfigControllerTest.class.getResourceAsStream("/localConfigFull.json"), dataDir, "configs/localConfig.json");
+        File properties = TestUtils.copyTo(ConfigControllerTest.class.getResourceAsStream("/mapstore.properties"), dataDir, "env.properties");
+        controller.setContext(Mockito.mock(ServletContext.class));
+        controller.setOverrides("env.properties");
+        controller.setMappings("header.height=headerHeight,header.url=headerUrl");
+        String resource = new String(controller.loadResource("localConfig", true), "UTF-8");
+        assertEquals("{\"header\":{\"height\":\"200\",\"url\":\"https://mapstore2.geo-solutions.it\"}}", resource.trim());
+        FileUtils.writeStringToFile(properties, "headerHeight=300\nheaderUrl=https://example.com", StandardCharsets.UTF_8);
+        resource = new String(controller.loadResource("localConfig", true), "UTF-8");
+        assertEquals("{\"header\":{\"height\":\"300\",\"url\":\"https://example.com\"}}", resource.trim());
+        FileUtils.deleteDirectory(dataDir);
+    }
+
     @Test
     public void testPatch() throws IOException {
         File dataDir = TestUtils.getDataDir();
@@ -130,6 +171,164 @@ public class ConfigControllerTest {
         tempPatch.delete();
     }
 
+    @Test
+    public void testPatchChangeIsNotCached() throws IOException {
+        File dataDir = TestUtils.getDataDir();
+        controller.setDataDir(dataDir.getAbsolutePath());
+        File tempResource = TestUtils.copyTo(ConfigControllerTest.class.getResourceAsStream("/pluginsConfig.json"), dataDir, "configs/pluginsConfig.json");
+        ServletContext context = Mockito.mock(ServletContext.class);
+        controller.setContext(context);
+        String resource = new String(controller.loadResource("pluginsConfig", true), "UTF-8");
+        assertEquals("{\"plugins\":[]}", resource.trim());
+        File tempPatch = TestUtils.copyTo(ConfigControllerTest.class.getResourceAsStream("/pluginsConfig.json.patch"), dataDir,
+                "configs/pluginsConfig.json.patch");
+        resource = new String(controller.loadResource("pluginsConfig", true), "UTF-8");
+        assertEquals("{\"plugins\":[{\"name\":\"My\",\"dependencies\":[\"Toolbar\"],\"extension\":true}]}", resource.trim());
+        tempResource.delete();
+        tempPatch.delete();
+    }
+
+    @Test
+    public void testNotModified() throws IOException {
+        File dataDir = TestUtils.getDataDir();
+        controller.setDataDir(dataDir.getAbsolutePath());
+        File tempResource = TestUtils.copyTo(ConfigControllerTest.class.getResourceAsStream("/pluginsConfig.json"), dataDir, "configs/pluginsConfig.json");
+        ServletContext context = Mockito.mock(ServletContext.class);
+        controller.setContext(context);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        byte[] resource = controller.loadResource("pluginsConfig", true, new ServletWebRequest(new MockHttpServletRequest("GET", "/configs/pluginsConfig"), response));
+        assertNotNull(resource);
+        String etag = response.getHeader("ETag");
+        assertNotNull(etag);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/configs/pluginsConfig");
+        request.addHeader("If-None-Match", etag);
+        response = new MockHttpServletResponse();
+        assertNull(controller.loadResource("pluginsConfig", true, new ServletWebRequest(request, response)));
+        assertEquals(304, response.getStatus());
+
+        // a patch changes the resource, so the ETag
+        File tempPatch = TestUtils.copyTo(ConfigControllerTest.class.getResourceAsStream("/pluginsConfig.json.patch"), dataDir,
+                "configs/pluginsConfig.json.patch");
+        response = new MockHttpServletResponse();
+        assertNotNull(controller.loadResource("pluginsConfig", true, new ServletWebRequest(request, response)));
+        assertEquals(200, response.getStatus());
+        assertNotEquals(etag, response.getHeader("ETag"));
+        tempResource.delete();
+        tempPatch.delete();
+    }
+
+    @Test
+    public void testCompressed() throws IOException {
+        File dataDir = TestUtils.getDataDir();
+        controller.setDataDir(dataDir.getAbsolutePath());
+        File tempResource = TestUtils.copyTo(ConfigControllerTest.class.getResourceAsStream("/pluginsConfig.json"), dataDir, "configs/pluginsConfig.json");
+        controller.setContext(Mockito.mock(ServletContext.class));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        byte[] plain = controller.loadResource("pluginsConfig", true, new ServletWebRequest(new MockHttpServletRequest("GET", "/configs/pluginsConfig"), response));
+        String etag = response.getHeader("ETag");
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/configs/pluginsConfig");
+        request.addHeader("Accept-Encoding", "gzip");
+        response = new MockHttpServletResponse();
+        byte[] compressed = controller.loadResource("pluginsConfig", true, new ServletWebRequest(request, response));
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+        // each variant has its own ETag
+        assertNotEquals(etag, response.getHeader("ETag"));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(plain, IOUtils.toByteArray(in));
+        }
+        tempResource.delete();
+    }
+
+    @Test
+    public void testServerTiming() throws IOException {
+        File dataDir = TestUtils.getDataDir();
+        controller.setDataDir(dataDir.getAbsolutePath());
+        File tempResource = TestUtils.copyTo(ConfigControllerTest.class.getResourceAsStream("/pluginsConfig.json"), dataDir, "configs/pluginsConfig.json");
+        File tempPatch = TestUtils.copyTo(ConfigControllerTest.class.getResourceAsStream("/pluginsConfig.json.patch"), dataDir,
+                "configs/pluginsConfig.json.patch");
+        controller.setContext(Mockito.mock(ServletContext.class));
+
+        // not sent by default, nor to users that are not administrators
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/rest/config/load/pluginsConfig");
+        request.setServletPath("/rest/config");
+        request.setParameter("timing", "true");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.loadResource("pluginsConfig", true, new ServletWebRequest(request, response));
+        assertNull(response.getHeader("Server-Timing"));
+
+        // the roles are not known on the paths not filtered by Spring Security
+        MockHttpServletRequest unsecured = new MockHttpServletRequest("GET", "/configs/pluginsConfig");
+        unsecured.setServletPath("/configs");
+        unsecured.setParameter("timing", "true");
+        unsecured.addUserRole("ADMIN");
+        response = new MockHttpServletResponse();
+        controller.loadResource("pluginsConfig", true, new ServletWebRequest(unsecured, response));
+        assertNull(response.getHeader("Server-Timing"));
+
+        request.addUserRole("ADMIN");
+        response = new MockHttpServletResponse();
+        controller.loadResource("pluginsConfig", true, new ServletWebRequest(request, response));
+        String timing = response.getHeader("Server-Timing");
+        assertTrue(timing, timing.matches("resolve;dur=\\d+\\.\\d{3}, etag;dur=\\d+\\.\\d{3}, load;dur=\\d+\\.\\d{3};desc=\"hit\", total;dur=\\d+\\.\\d{3}"));
+
+        // enabled for all the requests, the phases of the materialization are listed on cache miss
+        controller.setServerTimingEnabled(true);
+        ConfigCache.getInstance().clear();
+        response = new MockHttpServletResponse();
+        controller.loadResource("pluginsConfig", true, new ServletWebRequest(new MockHttpServletRequest("GET", "/configs/pluginsConfig"), response));
+        timing = response.getHeader("Server-Timing");
+        assertTrue(timing, timing.contains("load;dur="));
+        assertTrue(timing, timing.contains(";desc=\"miss\", read;dur="));
+        assertTrue(timing, timing.contains(", patch;dur="));
+        assertTrue(timing, timing.contains(", serialize;dur="));
+        assertTrue(MetricsRegistry.getInstance().getPhase(ServerTiming.Phase.PATCH).getCount() > 0);
+        tempResource.delete();
+        tempPatch.delete();
+    }
+
+    @Test
+    public void testBootstrap() throws IOException {
+        File dataDir = TestUtils.getDataDir();
+        controller.setDataDir(dataDir.getAbsolutePath());
+        File localConfig = TestUtils.copyTo(ConfigControllerTest.class.getResourceAsStream("/localConfig.json"), dataDir, "configs/localConfig.json");
+        File pluginsConfig = TestUtils.copyTo(ConfigControllerTest.class.getResourceAsStream("/pluginsConfig.json"), dataDir, "configs/pluginsConfig.json");
+        File registry = TestUtils.copyTo(ConfigControllerTest.class.getResourceAsStream("/extensions.json"), dataDir, "extensions/extensions.json");
+        controller.setContext(Mockito.mock(ServletContext.class));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        byte[] bootstrap = controller.loadBootstrap("localConfig,pluginsConfig,missingConfig", true,
+                new ServletWebRequest(new MockHttpServletRequest("GET", "/configs/bootstrap"), response));
+        JsonNode json = JsonUtils.getMapper().readTree(bootstrap);
+        assertEquals(3, json.size());
+        assertEquals(JsonUtils.getMapper().readTree(controller.loadResource("localConfig", true)), json.get("localConfig"));
+        assertEquals(JsonUtils.getMapper().readTree(controller.loadResource("pluginsConfig", true)), json.get("pluginsConfig"));
+        assertEquals(JsonUtils.getMapper().readTree(registry), json.get("extensions"));
+        String etag = response.getHeader("ETag");
+        assertNotNull(etag);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/configs/bootstrap");
+        request.addHeader("If-None-Match", etag);
+        response = new MockHttpServletResponse();
+        assertNull(controller.loadBootstrap("localConfig,pluginsConfig,missingConfig", true, new ServletWebRequest(request, response)));
+        assertEquals(304, response.getStatus());
+
+        // a patch of any of the configurations changes the ETag
+        File patch = TestUtils.copyTo(ConfigControllerTest.class.getResourceAsStream("/pluginsConfig.json.patch"), dataDir,
+                "configs/pluginsConfig.json.patch");
+        response = new MockHttpServletResponse();
+        bootstrap = controller.loadBootstrap("localConfig,pluginsConfig,missingConfig", true, new ServletWebRequest(request, response));
+        assertNotNull(bootstrap);
+        assertNotEquals(etag, response.getHeader("ETag"));
+        assertEquals(JsonUtils.getMapper().readTree(controller.loadResource("pluginsConfig", true)),
+                JsonUtils.getMapper().readTree(bootstrap).get("pluginsConfig"));
+        localConfig.delete();
+        pluginsConfig.delete();
+        registry.delete();
+        patch.delete();
+    }
+
     @Test(expected = IOException.class)
     public void testPathTraversalAttempt() throws IOException {
         // Attempt to load a resource with path traversal characters
@@ -149,4 +348,37 @@ public class ConfigControllerTest {
 
         tempResource.delete();
     }
+
+    @Test
+    public void testDataDirWatcherSharedAndRestarted() throws IOException {
+        File dataDir = TestUtils.getDataDir();
+        File config = TestUtils.copyTo(ConfigControllerTest.class.getResourceAsStream("/localConfig.json"), dataDir, "configs/localConfig.json");
+        ServletContext context = Mockito.mock(ServletContext.class);
+        ConfigsController other = new ConfigsController();
+        for (ConfigsController configs : new ConfigsController[] {controller, other}) {
+            configs.setDataDir(dataDir.getAbsolutePath());
+            configs.setDataDirWatchEnabled(true);
+            configs.setContext(context);
+        }
+        try {
+            controller.loadResource("localConfig.json", false);
+            DataDirWatcher watcher = DataDirWatcher.getActive();
+            assertNotNull(watcher);
+            assertTrue(watcher.isWatched(config));
+            // one watcher for all the dispatchers
+            other.loadResource("localConfig.json", false);
+            assertSame(watcher, DataDirWatcher.getActive());
+
+            // stopped with the webapp, started again on next request
+            new MapStoreLifecycleListener().contextDestroyed(null);
+            assertNull(DataDirWatcher.getActive());
+            assertFalse(watcher.isWatched(config));
+            other.loadResource("localConfig.json", false);
+            assertNotSame(watcher, DataDirWatcher.getActive());
+            assertTrue(DataDirWatcher.getActive().isWatched(config));
+        } finally {
+            DataDirWatcher.shutdown();
+            FileUtils.deleteDirectory(dataDir);
+        }
+    }
 }
@@ -9,13 +9,18 @@ package it.geosolutions.mapstore;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
 
 import jakarta.servlet.ServletContext;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
@@ -46,7 +51,21 @@ public class ExtensionsControllerTest {
     	request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "index.js");
     	controller.loadAsset(request, response);
         assertEquals(response.getContentType(), "application/javascript");
-        assertEquals("console.log('hello')\n", response.getContentAsString()); // \n should not be there, but is not a mess
+        assertEquals("console.log('hello')", response.getContentAsString());
+        tempResource.delete();
+    }
+    @Test
+    public void testLoadAssetWithConfiguredMimeType() throws IOException {
+        ServletContext context = Mockito.mock(ServletContext.class);
+        File tempResource = TestUtils.copyToTemp(ConfigControllerTest.class, "/index.js");
+        Mockito.when(context.getRealPath(Mockito.anyString())).thenReturn(tempResource.getAbsolutePath());
+        controller.setContext(context);
+        controller.setMimeTypesOverrides("js=text/javascript");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/index.js");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "index.js");
+        controller.loadAsset(request, response);
+        assertEquals("text/javascript", response.getContentType());
         tempResource.delete();
     }
     @Test
@@ -137,7 +156,7 @@ public class ExtensionsControllerTest {
     	request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "style.css");
         controller.loadAsset(request, response);
         assertEquals(response.getContentType(), "text/css");
-        assertEquals(".test{background: none}\n", response.getContentAsString()); // \n should not be there, but is not a mess
+        assertEquals(".test{background: none}", response.getContentAsString());
         tempResource.delete();
     }
 
@@ -154,7 +173,7 @@ public class ExtensionsControllerTest {
     	request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "SomeExtension/index.js");
         controller.loadAsset(request, response);
         assertEquals(response.getContentType(), "application/javascript");
-        assertEquals("console.log('hello')\n", response.getContentAsString()); // \n should not be there, but is not a mess
+        assertEquals("console.log('hello')", response.getContentAsString());
         tempResource.delete();
     }
     @Test
@@ -177,5 +196,121 @@ public class ExtensionsControllerTest {
         }
         tempResource.delete();
     }
+    @Test
+    public void testLoadCompressedAsset() throws IOException {
+        File dataDir = TestUtils.getDataDir();
+        StringBuilder bundle = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            bundle.append("console.log('hello');\n");
+        }
+        File tempResource = new File(dataDir, "extensions/SomeExtension/index.js");
+        FileUtils.writeStringToFile(tempResource, bundle.toString(), StandardCharsets.UTF_8);
+        controller.setDataDir(dataDir.getAbsolutePath());
+        controller.setContext(Mockito.mock(ServletContext.class));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "SomeExtension/index.js");
+        request.addHeader("Accept-Encoding", "gzip, deflate, br");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "SomeExtension/index.js");
+        controller.loadAsset(request, response);
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+        assertEquals(response.getContentAsByteArray().length, response.getContentLength());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertEquals(bundle.toString(), IOUtils.toString(in, StandardCharsets.UTF_8));
+        }
+
+        // not compressed when the client does not accept it
+        request = new MockHttpServletRequest("GET", "SomeExtension/index.js");
+        response = new MockHttpServletResponse();
+        request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "SomeExtension/index.js");
+        controller.loadAsset(request, response);
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+        assertEquals(bundle.toString(), response.getContentAsString());
+        FileUtils.deleteDirectory(dataDir);
+    }
 
+    @Test
+    public void testLoadFingerprintedBundle() throws IOException {
+        File dataDir = TestUtils.getDataDir();
+        String digest = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef";
+        FileUtils.writeStringToFile(new File(dataDir, "extensions/extensions.json"),
+            "{\"My\":{\"bundle\":\"My/index.js\",\"digest\":\"" + digest + "\"}}", StandardCharsets.UTF_8);
+        FileUtils.writeStringToFile(new File(dataDir, "extensions/My/index.js"), "console.log('hello')", StandardCharsets.UTF_8);
+        controller.setDataDir(dataDir.getAbsolutePath());
+        controller.setContext(Mockito.mock(ServletContext.class));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "My/index.0123456789abcdef.js");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "My/index.0123456789abcdef.js");
+        controller.loadAsset(request, response);
+        assertEquals("console.log('hello')", response.getContentAsString());
+        assertEquals("\"" + digest + "\"", response.getHeader("ETag"));
+        assertEquals("public, max-age=31536000, immutable", response.getHeader("Cache-Control"));
+
+        // the digest is the entity tag
+        request = new MockHttpServletRequest("GET", "My/index.0123456789abcdef.js");
+        request.addHeader("If-None-Match", "\"" + digest + "\"");
+        response = new MockHttpServletResponse();
+        request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "My/index.0123456789abcdef.js");
+        controller.loadAsset(request, response);
+        assertEquals(304, response.getStatus());
+
+        // the fingerprint of another version is not found
+        request = new MockHttpServletRequest("GET", "My/index.fedcba9876543210.js");
+        response = new MockHttpServletResponse();
+        request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "My/index.fedcba9876543210.js");
+        Exception found = null;
+        try {
+            controller.loadAsset(request, response);
+        } catch (Exception e) {
+            found = e;
+        }
+        assertNotNull(found);
+        // the version may be installed later, the error is not cached
+        assertEquals("no-cache", response.getHeader("Cache-Control"));
+
+        // the installed version is removed
+        FileUtils.deleteQuietly(new File(dataDir, "extensions/My/index.js"));
+        request = new MockHttpServletRequest("GET", "My/index.0123456789abcdef.js");
+        response = new MockHttpServletResponse();
+        request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "My/index.0123456789abcdef.js");
+        found = null;
+        try {
+            controller.loadAsset(request, response);
+        } catch (Exception e) {
+            found = e;
+        }
+        assertNotNull(found);
+        assertEquals("no-cache", response.getHeader("Cache-Control"));
+        FileUtils.deleteDirectory(dataDir);
+    }
+
+    @Test
+    public void testLoadPreviousVersionBundle() throws IOException {
+        File dataDir = TestUtils.getDataDir();
+        String digest = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef";
+        String previousDigest = "fedcba9876543210fedcba9876543210fedcba9876543210fedcba9876543210";
+        FileUtils.writeStringToFile(new File(dataDir, "extensions/extensions.json"),
+            "{\"My\":{\"bundle\":\"My/0123456789abcdef/index.js\",\"digest\":\"" + digest + "\",\"version\":\"0123456789abcdef\","
+            + "\"previous\":{\"bundle\":\"My/fedcba9876543210/index.js\",\"digest\":\"" + previousDigest + "\",\"version\":\"fedcba9876543210\"}}}",
+            StandardCharsets.UTF_8);
+        FileUtils.writeStringToFile(new File(dataDir, "extensions/My/0123456789abcdef/index.js"), "console.log('new')", StandardCharsets.UTF_8);
+        FileUtils.writeStringToFile(new File(dataDir, "extensions/My/fedcba9876543210/index.js"), "console.log('old')", StandardCharsets.UTF_8);
+        controller.setDataDir(dataDir.getAbsolutePath());
+        controller.setContext(Mockito.mock(ServletContext.class));
+        // clients that loaded the registry before the upgrade still get the version they expect
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "My/fedcba9876543210/index.fedcba9876543210.js");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "My/fedcba9876543210/index.fedcba9876543210.js");
+        controller.loadAsset(request, response);
+        assertEquals("console.log('old')", response.getContentAsString());
+        assertEquals("\"" + previousDigest + "\"", response.getHeader("ETag"));
+
+        request = new MockHttpServletRequest("GET", "My/0123456789abcdef/index.0123456789abcdef.js");
+        response = new MockHttpServletResponse();
+        request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "My/0123456789abcdef/index.0123456789abcdef.js");
+        controller.loadAsset(request, response);
+        assertEquals("console.log('new')", response.getContentAsString());
+        FileUtils.deleteDirectory(dataDir);
+    }
 }
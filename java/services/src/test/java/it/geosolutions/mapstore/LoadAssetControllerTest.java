@@ -105,7 +105,7 @@ public class LoadAssetControllerTest {
     	request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "index.js");
         controller.loadAsset(request, response);
         assertEquals(response.getContentType(), "application/javascript");
-        assertEquals("console.log('hello')\n", response.getContentAsString()); // \n should not be there, but is not a mess
+        assertEquals("console.log('hello')", response.getContentAsString());
         tempResource.delete();
     }
     @Test
@@ -177,7 +177,7 @@ public class LoadAssetControllerTest {
     	request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "style.css");
         controller.loadAsset(request, response);
         assertEquals(response.getContentType(), "text/css");
-        assertEquals(".test{background: none}\n", response.getContentAsString()); // \n should not be there, but is not a mess
+        assertEquals(".test{background: none}", response.getContentAsString());
         tempResource.delete();
     }
 
@@ -194,7 +194,7 @@ public class LoadAssetControllerTest {
     	request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "index.js");
         controller.loadAsset(request, response);
         assertEquals(response.getContentType(), "application/javascript");
-        assertEquals("console.log('hello')\n", response.getContentAsString()); // \n should not be there, but is not a mess
+        assertEquals("console.log('hello')", response.getContentAsString());
         tempResource.delete();
     }
     @Test
@@ -7,11 +7,17 @@
  */
 package it.geosolutions.mapstore;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import it.geosolutions.mapstore.controllers.rest.config.UploadPluginController;
+import it.geosolutions.mapstore.utils.FolderCleaner;
+import it.geosolutions.mapstore.utils.JsonUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 import org.mockito.stubbing.Answer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 
 import jakarta.servlet.ServletContext;
 import java.io.ByteArrayInputStream;
@@ -27,6 +33,7 @@ import java.util.zip.ZipOutputStream;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -100,7 +107,7 @@ public class UploadPluginControllerTest {
         InputStream zipStream = UploadPluginControllerTest.class.getResourceAsStream("/plugin.zip");
         String result = controller.uploadPlugin(zipStream);
         assertEquals("{\"name\":\"My\",\"dependencies\":[\"Toolbar\"],\"extension\":true}", result);
-        String extensions = TestUtils.getContent(tempExtensions);
+        String extensions = withoutVersions(TestUtils.getContent(tempExtensions));
         assertEquals("{\"My\":{\"bundle\":\"My/index.js\",\"translations\":\"My/translations\"}}", extensions);
         tempConfig.delete();
         tempExtensions.delete();
@@ -124,7 +131,7 @@ public class UploadPluginControllerTest {
         InputStream zipStream = UploadPluginControllerTest.class.getResourceAsStream("/plugin.zip");
         String result = controller.uploadPlugin(zipStream);
         assertEquals("{\"name\":\"My\",\"dependencies\":[\"Toolbar\"],\"extension\":true}", result);
-        String extensions = TestUtils.getContent(tempExtensions);
+        String extensions = withoutVersions(TestUtils.getContent(tempExtensions));
         assertEquals("{\"My\":{\"bundle\":\"My/index.js\",\"translations\":\"My/translations\"}}", extensions);
         tempConfig.delete();
         tempExtensions.delete();
@@ -176,7 +183,9 @@ public class UploadPluginControllerTest {
                 });
         InputStream zipStream = UploadPluginControllerTest.class.getResourceAsStream("/plugin.zip");
         controller.uploadPlugin(zipStream);
-        assertTrue(new File(tempDist.getAbsolutePath() + File.separator + "My" + File.separator + "index.js").exists());
+        // custom/extensions.json is mapped in tempDist too
+        String version = getVersion(new File(tempDist, "extensions.json"), "My");
+        assertTrue(new File(tempDist.getAbsolutePath() + File.separator + "My" + File.separator + version + File.separator + "index.js").exists());
         tempConfig.delete();
         tempExtensions.delete();
     }
@@ -217,11 +226,346 @@ public class UploadPluginControllerTest {
         File tempExtensions = TestUtils.copyTo(UploadPluginControllerTest.class.getResourceAsStream("/extensions.json"), dataDir, "/extensions/extensions.json");
         InputStream zipStream = UploadPluginControllerTest.class.getResourceAsStream("/plugin.zip");
         controller.uploadPlugin(zipStream);
-        assertTrue(new File(dataDir.getAbsolutePath() + File.separator + "extensions" + File.separator + "My" + File.separator + "index.js").exists());
+        String version = getVersion(tempExtensions, "My");
+        assertTrue(new File(dataDir.getAbsolutePath() + File.separator + "extensions" + File.separator + "My" + File.separator + version + File.separator + "index.js").exists());
         tempConfig.delete();
         tempExtensions.delete();
     }
 
+    @Test
+    public void testUploadReplacesPluginFolder() throws IOException {
+        File dataDir = TestUtils.getDataDir();
+        controller.setDataDir(dataDir.getAbsolutePath());
+        ServletContext context = Mockito.mock(ServletContext.class);
+        controller.setContext(context);
+        Mockito.when(context.getAttribute(ServletContext.TEMPDIR)).thenReturn(TestUtils.getDataDir());
+        TestUtils.copyTo(UploadPluginControllerTest.class.getResourceAsStream("/pluginsConfig.json"), dataDir, "/configs/pluginsConfig.json");
+        File tempExtensions = TestUtils.copyTo(UploadPluginControllerTest.class.getResourceAsStream("/extensionsWithPlugin.json"), dataDir, "/extensions/extensions.json");
+        File extensionsFolder = new File(dataDir, "extensions");
+        File pluginFolder = new File(extensionsFolder, "My");
+        TestUtils.copyTo(ConfigControllerTest.class.getResourceAsStream("/index.js"), pluginFolder, "old.js");
+        // the files installed before versions were introduced are removed as an old version
+        controller.setExtensionsCleanupDelay(0L);
+        Map<String, byte[]> extras = new HashMap<>();
+        extras.put("assets/i18n/it.json", "{\"ok\":true}".getBytes(StandardCharsets.UTF_8));
+        controller.uploadPlugin(makePluginZip("My", "index.js", extras));
+        File versionFolder = new File(pluginFolder, getVersion(tempExtensions, "My"));
+        assertTrue(new File(versionFolder, "index.js").exists());
+        assertTrue(new File(versionFolder, "assets" + File.separator + "i18n" + File.separator + "it.json").exists());
+        assertFalse(new File(pluginFolder, "old.js").exists());
+        // no staging or replaced folders left behind
+        assertEquals(2, extensionsFolder.list().length);
+        assertEquals(1, pluginFolder.list().length);
+    }
+
+    @Test
+    public void testUploadInvalidBundleIsNotPublished() throws IOException {
+        File dataDir = TestUtils.getDataDir();
+        controller.setDataDir(dataDir.getAbsolutePath());
+        ServletContext context = Mockito.mock(ServletContext.class);
+        controller.setContext(context);
+        Mockito.when(context.getAttribute(ServletContext.TEMPDIR)).thenReturn(TestUtils.getDataDir());
+        File tempExtensions = TestUtils.copyTo(UploadPluginControllerTest.class.getResourceAsStream("/extensions.json"), dataDir, "/extensions/extensions.json");
+        String extensions = TestUtils.getContent(tempExtensions);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(bos)) {
+            putZipEntry(zos, "index.js", "console.log('ok');".getBytes(StandardCharsets.UTF_8));
+        }
+        try {
+            controller.uploadPlugin(new ByteArrayInputStream(bos.toByteArray()));
+            fail();
+        } catch (IOException e) {
+            assertNotNull(e);
+        }
+        assertEquals(extensions, TestUtils.getContent(tempExtensions));
+        assertEquals(1, new File(dataDir, "extensions").list().length);
+    }
+
+    @Test
+    public void testUploadPlugins() throws IOException {
+        File dataDir = TestUtils.getDataDir();
+        controller.setDataDir(dataDir.getAbsolutePath());
+        ServletContext context = Mockito.mock(ServletContext.class);
+        controller.setContext(context);
+        Mockito.when(context.getAttribute(ServletContext.TEMPDIR)).thenReturn(TestUtils.getDataDir());
+        File tempConfig = TestUtils.copyTo(UploadPluginControllerTest.class.getResourceAsStream("/pluginsConfig.json"), dataDir, "/configs/pluginsConfig.json");
+        File tempExtensions = TestUtils.copyTo(UploadPluginControllerTest.class.getResourceAsStream("/extensions.json"), dataDir, "/extensions/extensions.json");
+        ByteArrayOutputStream invalid = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(invalid)) {
+            putZipEntry(zos, "index.js", "console.log('ok');".getBytes(StandardCharsets.UTF_8));
+        }
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(bos)) {
+            putZipEntry(zos, "My.zip", makePluginZip("My", "index.js", null).readAllBytes());
+            putZipEntry(zos, "Other.zip", makePluginZip("Other", "index.js", null).readAllBytes());
+            putZipEntry(zos, "Invalid.zip", invalid.toByteArray());
+            putZipEntry(zos, "Duplicate.zip", makePluginZip("My", "index.js", null).readAllBytes());
+        }
+        ResponseEntity<String> response = controller.uploadPlugins(new ByteArrayInputStream(bos.toByteArray()));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        String result = response.getBody();
+        assertEquals("[{\"bundle\":\"My.zip\",\"name\":\"My\",\"status\":\"installed\","
+                + "\"plugin\":{\"name\":\"My\",\"dependencies\":[\"Toolbar\"],\"extension\":true}},"
+                + "{\"bundle\":\"Other.zip\",\"name\":\"Other\",\"status\":\"installed\","
+                + "\"plugin\":{\"name\":\"Other\",\"dependencies\":[\"Toolbar\"],\"extension\":true}},"
+                + "{\"bundle\":\"Invalid.zip\",\"status\":\"failed\",\"error\":\"Invalid bundle: index.json missing\"},"
+                + "{\"bundle\":\"Duplicate.zip\",\"name\":\"My\",\"status\":\"failed\",\"error\":\"Duplicate plugin in batch: My\"}]", result);
+        assertEquals("{\"My\":{\"bundle\":\"My/index.js\"},\"Other\":{\"bundle\":\"Other/index.js\"}}",
+                withoutVersions(TestUtils.getContent(tempExtensions)));
+        String plugins = TestUtils.getContent(tempConfig);
+        assertTrue(plugins.contains("{\"name\":\"My\",\"dependencies\":[\"Toolbar\"],\"extension\":true}"));
+        assertTrue(plugins.contains("{\"name\":\"Other\",\"dependencies\":[\"Toolbar\"],\"extension\":true}"));
+        // extensions.json, My, Other: no staging folders left behind
+        assertEquals(3, new File(dataDir, "extensions").list().length);
+    }
+
+    @Test
+    public void testUploadPluginsRolledBack() throws IOException {
+        File dataDir = TestUtils.getDataDir();
+        controller.setDataDir(dataDir.getAbsolutePath());
+        ServletContext context = Mockito.mock(ServletContext.class);
+        controller.setContext(context);
+        Mockito.when(context.getAttribute(ServletContext.TEMPDIR)).thenReturn(TestUtils.getDataDir());
+        // the plugins configuration cannot be changed
+        File tempConfig = TestUtils.copyTo(new ByteArrayInputStream("{\"plugins\":{}}".getBytes(StandardCharsets.UTF_8)), dataDir,
+                "/configs/pluginsConfig.json");
+        File tempExtensions = TestUtils.copyTo(UploadPluginControllerTest.class.getResourceAsStream("/extensionsWithPlugin.json"), dataDir,
+                "/extensions/extensions.json");
+        String extensions = TestUtils.getContent(tempExtensions);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(bos)) {
+            putZipEntry(zos, "My.zip", makePluginZip("My", "index.js", null).readAllBytes());
+            putZipEntry(zos, "Other.zip", makePluginZip("Other", "index.js", null).readAllBytes());
+        }
+        ResponseEntity<String> response = controller.uploadPlugins(new ByteArrayInputStream(bos.toByteArray()));
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        // the report tells why they were not installed
+        JsonNode report = JsonUtils.getMapper().readTree(response.getBody());
+        assertEquals(2, report.size());
+        for (JsonNode item : report) {
+            assertEquals("failed", item.get("status").asText());
+            assertTrue(item.get("error").asText().startsWith("Rolled back: "));
+            assertFalse(item.has("plugin"));
+        }
+        // none of the plugins is installed: the registry is restored and the version folders are removed
+        assertEquals(JsonUtils.getMapper().readTree(extensions), JsonUtils.getMapper().readTree(tempExtensions));
+        assertEquals("{\"plugins\":{}}", TestUtils.getContent(tempConfig));
+        assertEquals(1, new File(dataDir, "extensions").list().length);
+    }
+
+    @Test
+    public void testUploadStoresDigest() throws IOException {
+        File dataDir = TestUtils.getDataDir();
+        controller.setDataDir(dataDir.getAbsolutePath());
+        ServletContext context = Mockito.mock(ServletContext.class);
+        controller.setContext(context);
+        Mockito.when(context.getAttribute(ServletContext.TEMPDIR)).thenReturn(TestUtils.getDataDir());
+        TestUtils.copyTo(UploadPluginControllerTest.class.getResourceAsStream("/pluginsConfig.json"), dataDir, "/configs/pluginsConfig.json");
+        File tempExtensions = TestUtils.copyTo(UploadPluginControllerTest.class.getResourceAsStream("/extensions.json"), dataDir, "/extensions/extensions.json");
+        Map<String, byte[]> extras = new HashMap<>();
+        extras.put("assets/i18n/it.json", "{\"ok\":true}".getBytes(StandardCharsets.UTF_8));
+        controller.uploadPlugin(makePluginZip("My", "index.js", extras));
+        String digest = JsonUtils.getMapper().readTree(tempExtensions).get("My").get("digest").asText();
+        // same content, same digest
+        controller.uploadPlugin(makePluginZip("My", "index.js", extras));
+        assertEquals(digest, JsonUtils.getMapper().readTree(tempExtensions).get("My").get("digest").asText());
+        // any file changed, new digest
+        extras.put("assets/i18n/it.json", "{\"ok\":false}".getBytes(StandardCharsets.UTF_8));
+        controller.uploadPlugin(makePluginZip("My", "index.js", extras));
+        assertNotEquals(digest, JsonUtils.getMapper().readTree(tempExtensions).get("My").get("digest").asText());
+    }
+
+    @Test
+    public void testUploadNewVersion() throws IOException {
+        File dataDir = TestUtils.getDataDir();
+        controller.setDataDir(dataDir.getAbsolutePath());
+        ServletContext context = Mockito.mock(ServletContext.class);
+        controller.setContext(context);
+        Mockito.when(context.getAttribute(ServletContext.TEMPDIR)).thenReturn(TestUtils.getDataDir());
+        TestUtils.copyTo(UploadPluginControllerTest.class.getResourceAsStream("/pluginsConfig.json"), dataDir, "/configs/pluginsConfig.json");
+        File tempExtensions = TestUtils.copyTo(UploadPluginControllerTest.class.getResourceAsStream("/extensions.json"), dataDir, "/extensions/extensions.json");
+        File pluginFolder = new File(dataDir, "extensions" + File.separator + "My");
+        controller.uploadPlugin(makePluginZip("My", "index.js", null));
+        String first = getVersion(tempExtensions, "My");
+        controller.uploadPlugin(makePluginZip("My", "assets/index.js", null));
+        String second = getVersion(tempExtensions, "My");
+        assertNotEquals(first, second);
+        ObjectNode entry = (ObjectNode) JsonUtils.getMapper().readTree(tempExtensions).get("My");
+        assertEquals("My/" + second + "/assets/index.js", entry.get("bundle").asText());
+        assertEquals(first, entry.get("previous").get("version").asText());
+        assertEquals("My/" + first + "/index.js", entry.get("previous").get("bundle").asText());
+        assertFalse(entry.get("previous").has("previous"));
+        // the replaced version is not changed, it can still be downloaded
+        assertTrue(new File(pluginFolder, first + File.separator + "index.js").exists());
+        assertTrue(new File(pluginFolder, second + File.separator + "assets" + File.separator + "index.js").exists());
+
+        // the same version installed again keeps the previous one
+        controller.uploadPlugin(makePluginZip("My", "assets/index.js", null));
+        assertEquals(first, JsonUtils.getMapper().readTree(tempExtensions).get("My").get("previous").get("version").asText());
+
+        // older versions are removed
+        controller.setExtensionsCleanupDelay(0L);
+        Map<String, byte[]> extras = new HashMap<>();
+        extras.put("assets/i18n/it.json", "{\"ok\":true}".getBytes(StandardCharsets.UTF_8));
+        controller.uploadPlugin(makePluginZip("My", "index.js", extras));
+        String third = getVersion(tempExtensions, "My");
+        assertFalse(new File(pluginFolder, first).exists());
+        assertTrue(new File(pluginFolder, second).exists());
+        assertTrue(new File(pluginFolder, third).exists());
+        assertEquals(2, pluginFolder.list().length);
+    }
+
+    @Test
+    public void testRollbackPlugin() throws IOException {
+        File dataDir = TestUtils.getDataDir();
+        controller.setDataDir(dataDir.getAbsolutePath());
+        ServletContext context = Mockito.mock(ServletContext.class);
+        controller.setContext(context);
+        Mockito.when(context.getAttribute(ServletContext.TEMPDIR)).thenReturn(TestUtils.getDataDir());
+        File tempConfig = TestUtils.copyTo(UploadPluginControllerTest.class.getResourceAsStream("/pluginsConfig.json"), dataDir, "/configs/pluginsConfig.json");
+        File tempExtensions = TestUtils.copyTo(UploadPluginControllerTest.class.getResourceAsStream("/extensions.json"), dataDir, "/extensions/extensions.json");
+        assertEquals("{}", controller.rollbackPlugin("My"));
+        controller.uploadPlugin(makePluginZip("My", "index.js", null));
+        String first = getVersion(tempExtensions, "My");
+        // nothing to restore
+        assertEquals("{}", controller.rollbackPlugin("My"));
+        assertEquals(first, getVersion(tempExtensions, "My"));
+
+        controller.uploadPlugin(makePluginZip("My", "assets/index.js", null));
+        String second = getVersion(tempExtensions, "My");
+        String result = controller.rollbackPlugin("My");
+        ObjectNode entry = (ObjectNode) JsonUtils.getMapper().readTree(tempExtensions).get("My");
+        assertEquals(entry.toString(), result);
+        assertEquals(first, entry.get("version").asText());
+        assertEquals("My/" + first + "/index.js", entry.get("bundle").asText());
+        assertEquals(second, entry.get("previous").get("version").asText());
+        assertTrue(TestUtils.getContent(tempConfig).contains("{\"name\":\"My\",\"dependencies\":[\"Toolbar\"],\"extension\":true}"));
+
+        // the rollback can be undone
+        controller.rollbackPlugin("My");
+        assertEquals(second, getVersion(tempExtensions, "My"));
+        assertEquals(first, JsonUtils.getMapper().readTree(tempExtensions).get("My").get("previous").get("version").asText());
+    }
+
+    @Test
+    public void testUninstallVersionedPlugin() throws IOException {
+        File dataDir = TestUtils.getDataDir();
+        controller.setDataDir(dataDir.getAbsolutePath());
+        ServletContext context = Mockito.mock(ServletContext.class);
+        controller.setContext(context);
+        Mockito.when(context.getAttribute(ServletContext.TEMPDIR)).thenReturn(TestUtils.getDataDir());
+        File tempConfig = TestUtils.copyTo(UploadPluginControllerTest.class.getResourceAsStream("/pluginsConfig.json"), dataDir, "/configs/pluginsConfig.json");
+        File tempExtensions = TestUtils.copyTo(UploadPluginControllerTest.class.getResourceAsStream("/extensions.json"), dataDir, "/extensions/extensions.json");
+        controller.uploadPlugin(makePluginZip("My", "index.js", null));
+        controller.uploadPlugin(makePluginZip("My", "assets/index.js", null));
+        File extensionsFolder = new File(dataDir, "extensions");
+        File pluginFolder = new File(extensionsFolder, "My");
+        File versionFolder = new File(pluginFolder, getVersion(tempExtensions, "My"));
+
+        // the plugin folder is moved aside until the downloads in progress complete
+        controller.uninstallPlugin("My");
+        assertFalse(pluginFolder.exists());
+        assertEquals("{}", TestUtils.getContent(tempExtensions));
+        assertFalse(TestUtils.getContent(tempConfig).contains("\"My\""));
+        assertEquals(2, extensionsFolder.list().length);
+        assertFalse(versionFolder.exists());
+
+        controller.setExtensionsCleanupDelay(0L);
+        controller.uploadPlugin(makePluginZip("My", "index.js", null));
+        controller.uninstallPlugin("My");
+        assertEquals(2, extensionsFolder.list().length);
+    }
+
+    @Test
+    public void testUninstallPluginWithoutFolder() throws IOException {
+        File dataDir = TestUtils.getDataDir();
+        controller.setDataDir(dataDir.getAbsolutePath());
+        ServletContext context = Mockito.mock(ServletContext.class);
+        controller.setContext(context);
+        File tempConfig = TestUtils.copyTo(ConfigControllerTest.class.getResourceAsStream("/pluginsConfigWithPlugin.json"), dataDir, "/configs/pluginsConfig.json");
+        File tempExtensions = TestUtils.copyTo(ConfigControllerTest.class.getResourceAsStream("/extensionsWithPlugin.json"), dataDir, "/extensions/extensions.json");
+        // the registry is updated even if the folder was already removed
+        assertEquals("{\"bundle\":\"My/index.js\",\"translations\":\"My/translations\"}", controller.uninstallPlugin("My"));
+        assertEquals("{}", TestUtils.getContent(tempExtensions));
+        assertEquals("{\"plugins\":[]}", TestUtils.getContent(tempConfig));
+    }
+
+    @Test
+    public void testCleanupAtStartup() throws IOException {
+        File dataDir = TestUtils.getDataDir();
+        controller.setDataDir(dataDir.getAbsolutePath());
+        ServletContext context = Mockito.mock(ServletContext.class);
+        controller.setContext(context);
+        Mockito.when(context.getAttribute(ServletContext.TEMPDIR)).thenReturn(TestUtils.getDataDir());
+        TestUtils.copyTo(UploadPluginControllerTest.class.getResourceAsStream("/pluginsConfig.json"), dataDir, "/configs/pluginsConfig.json");
+        File tempExtensions = TestUtils.copyTo(UploadPluginControllerTest.class.getResourceAsStream("/extensions.json"), dataDir, "/extensions/extensions.json");
+        File extensionsFolder = new File(dataDir, "extensions");
+        File pluginFolder = new File(extensionsFolder, "My");
+        // the clean up of the oldest version is still pending on shutdown
+        controller.uploadPlugin(makePluginZip("My", "index.js", null));
+        String oldest = getVersion(tempExtensions, "My");
+        controller.uploadPlugin(makePluginZip("My", "assets/index.js", null));
+        String previous = getVersion(tempExtensions, "My");
+        controller.uploadPlugin(makePluginZip("My", "assets/js/index.js", null));
+        String current = getVersion(tempExtensions, "My");
+        // left by operations that did not complete
+        assertTrue(new File(extensionsFolder, ".Other-1234.old").mkdirs());
+        assertTrue(new File(extensionsFolder, ".mapstore-upload-1234").mkdirs());
+        assertTrue(new File(pluginFolder, "." + current + "-1234.new").mkdirs());
+        File uninstalled = new File(extensionsFolder, "Uninstalled");
+        TestUtils.copyTo(ConfigControllerTest.class.getResourceAsStream("/index.js"), new File(uninstalled, "0123456789abcdef"), "index.js");
+        File other = new File(extensionsFolder, "other");
+        assertTrue(other.mkdirs());
+
+        UploadPluginController restarted = new UploadPluginController();
+        restarted.setDataDir(dataDir.getAbsolutePath());
+        restarted.setContext(context);
+        restarted.setExtensionsCleanupDelay(0L);
+        restarted.afterPropertiesSet();
+        assertFalse(new File(pluginFolder, oldest).exists());
+        assertTrue(new File(pluginFolder, previous).exists());
+        assertTrue(new File(pluginFolder, current).exists());
+        assertEquals(2, pluginFolder.list().length);
+        assertFalse(uninstalled.exists());
+        // folders not created by the service are kept
+        assertTrue(other.exists());
+        assertEquals(3, extensionsFolder.list().length);
+    }
+
+    @Test
+    public void testPendingCleanupAfterRestart() throws IOException {
+        File dataDir = TestUtils.getDataDir();
+        controller.setDataDir(dataDir.getAbsolutePath());
+        ServletContext context = Mockito.mock(ServletContext.class);
+        controller.setContext(context);
+        Mockito.when(context.getAttribute(ServletContext.TEMPDIR)).thenReturn(TestUtils.getDataDir());
+        TestUtils.copyTo(UploadPluginControllerTest.class.getResourceAsStream("/pluginsConfig.json"), dataDir, "/configs/pluginsConfig.json");
+        TestUtils.copyTo(UploadPluginControllerTest.class.getResourceAsStream("/extensions.json"), dataDir, "/extensions/extensions.json");
+        File extensionsFolder = new File(dataDir, "extensions");
+        controller.uploadPlugin(makePluginZip("My", "index.js", null));
+        controller.uninstallPlugin("My");
+        // the webapp is stopped before the uninstalled folder is deleted
+        FolderCleaner.getInstance().shutdown();
+        assertEquals(2, extensionsFolder.list().length);
+
+        UploadPluginController restarted = new UploadPluginController();
+        restarted.setDataDir(dataDir.getAbsolutePath());
+        restarted.setContext(context);
+        restarted.setExtensionsCleanupDelay(0L);
+        restarted.afterPropertiesSet();
+        assertEquals(1, extensionsFolder.list().length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRollbackPluginWithInvalidName() throws IOException {
+        controller.rollbackPlugin("../outside");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUninstallPluginWithDotsName() throws IOException {
+        controller.uninstallPlugin("..");
+    }
+
     @Test
     public void testUploadValidBundleWithMultipleDataDir() throws IOException {
         File dataDir1 = TestUtils.getDataDir();
@@ -240,7 +584,8 @@ public class UploadPluginControllerTest {
         InputStream zipStream = UploadPluginControllerTest.class.getResourceAsStream("/plugin.zip");
         controller.uploadPlugin(zipStream);
         // we save to dataDir1
-        assertTrue(new File(dataDir1.getAbsolutePath() + File.separator + "extensions" + File.separator + "My" + File.separator + "index.js").exists());
+        String version = getVersion(new File(dataDir1, "extensions" + File.separator + "extensions.json"), "My");
+        assertTrue(new File(dataDir1.getAbsolutePath() + File.separator + "extensions" + File.separator + "My" + File.separator + version + File.separator + "index.js").exists());
         tempConfig.delete();
         tempExtensions.delete();
     }
@@ -447,10 +792,11 @@ public class UploadPluginControllerTest {
         String result = controller.uploadPlugin(zip);
         assertEquals("{\"name\":\"My\",\"dependencies\":[\"Toolbar\"],\"extension\":true}", result);
 
-        // Accept any of the legitimate destinations
-        File expected1 = new File(tempDist, "My" + File.separator + "assets" + File.separator + "i18n" + File.separator + "it.json");
-        File expected2 = new File(tempDist, "extensions" + File.separator + "My" + File.separator + "assets" + File.separator + "i18n" + File.separator + "it.json");
-        File expected3 = new File(tempDist, "dist" + File.separator + "extensions" + File.separator + "My" + File.separator + "assets" + File.separator + "i18n" + File.separator + "it.json");
+        // Accept any of the legitimate destinations (the registry is written where extensions/ is mapped)
+        String version = getVersion(new File(tempDist, "extensions.json"), "My");
+        File expected1 = new File(tempDist, "My" + File.separator + version + File.separator + "assets" + File.separator + "i18n" + File.separator + "it.json");
+        File expected2 = new File(tempDist, "extensions" + File.separator + "My" + File.separator + version + File.separator + "assets" + File.separator + "i18n" + File.separator + "it.json");
+        File expected3 = new File(tempDist, "dist" + File.separator + "extensions" + File.separator + "My" + File.separator + version + File.separator + "assets" + File.separator + "i18n" + File.separator + "it.json");
 
         assertTrue("Expected nested asset to be written",
                 expected1.exists() || expected2.exists() || expected3.exists());
@@ -495,4 +841,32 @@ public class UploadPluginControllerTest {
         }
         zos.closeEntry();
     }
+
+    /**
+     * Removes the digests and the versions from the entries of the extensions registry, checking they are SHA-256 digests
+     * and that each version is the beginning of the digest: e.g. <code>My/0123456789abcdef/index.js</code> becomes <code>My/index.js</code>.
+     */
+    private static String withoutVersions(String extensions) throws IOException {
+        ObjectNode registry = (ObjectNode) JsonUtils.getMapper().readTree(extensions);
+        registry.elements().forEachRemaining(node -> {
+            ObjectNode entry = (ObjectNode) node;
+            String digest = entry.remove("digest").asText();
+            assertTrue(digest.matches("[0-9a-f]{64}"));
+            String version = entry.remove("version").asText();
+            assertEquals(digest.substring(0, 16), version);
+            entry.remove("previous");
+            entry.put("bundle", entry.get("bundle").asText().replace("/" + version + "/", "/"));
+            if (entry.has("translations")) {
+                entry.put("translations", entry.get("translations").asText().replace("/" + version + "/", "/"));
+            }
+        });
+        return registry.toString();
+    }
+
+    /**
+     * Returns the installed version of a plugin, from the extensions registry.
+     */
+    private static String getVersion(File extensions, String pluginName) throws IOException {
+        return JsonUtils.getMapper().readTree(extensions).get(pluginName).get("version").asText();
+    }
 }
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+*/
+package it.geosolutions.mapstore.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import it.geosolutions.mapstore.TestUtils;
+
+public class AssetCacheTest {
+    AssetCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new AssetCache(1024);
+    }
+
+    @Test
+    public void testContentReadAgainWhenFileChanges() throws IOException {
+        File dataDir = TestUtils.getDataDir();
+        File bundle = new File(dataDir, "index.js");
+        FileUtils.writeStringToFile(bundle, "console.log('hello')", StandardCharsets.UTF_8);
+        ByteBuffer first = cache.get(bundle);
+        assertTrue(first.isDirect());
+        assertTrue(first.isReadOnly());
+        assertEquals("console.log('hello')", toString(first));
+        // each call gets its own position
+        assertEquals("console.log('hello')", toString(cache.get(bundle)));
+        assertEquals(1, cache.getHits());
+
+        FileUtils.writeStringToFile(bundle, "console.log('hello world')", StandardCharsets.UTF_8);
+        assertEquals("console.log('hello world')", toString(cache.get(bundle)));
+        assertEquals(2, cache.getMisses());
+        assertEquals(1, cache.size());
+        FileUtils.deleteDirectory(dataDir);
+    }
+
+    @Test
+    public void testVariantRebuiltWhenFileChanges() throws IOException {
+        File dataDir = TestUtils.getDataDir();
+        File bundle = new File(dataDir, "index.js");
+        FileUtils.writeStringToFile(bundle, "console.log('hello')", StandardCharsets.UTF_8);
+        assertEquals("console.log('hello')", gunzip(cache.getGzip(bundle)));
+        assertEquals("console.log('hello')", gunzip(cache.getGzip(bundle)));
+        assertEquals(1, cache.getHits());
+
+        FileUtils.writeStringToFile(bundle, "console.log('hello world')", StandardCharsets.UTF_8);
+        assertEquals("console.log('hello world')", gunzip(cache.getGzip(bundle)));
+        assertEquals(2, cache.getMisses());
+        cache.get(bundle);
+        assertEquals(2, cache.size());
+
+        cache.invalidate(dataDir.toPath());
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getBytes());
+        FileUtils.deleteDirectory(dataDir);
+    }
+
+    @Test
+    public void testBounded() throws IOException {
+        File dataDir = TestUtils.getDataDir();
+        for (int i = 0; i < 50; i++) {
+            File bundle = new File(dataDir, "index" + i + ".js");
+            FileUtils.writeStringToFile(bundle, "console.log(" + i + ")", StandardCharsets.UTF_8);
+            cache.getGzip(bundle);
+        }
+        assertTrue(cache.getBytes() <= 1024);
+        assertTrue(cache.size() < 50);
+        cache.setMaxBytes(0);
+        assertEquals(0, cache.size());
+        FileUtils.deleteDirectory(dataDir);
+    }
+
+    @Test
+    public void testFrequentlyUsedEntriesSurvive() throws IOException {
+        File dataDir = TestUtils.getDataDir();
+        File hot = new File(dataDir, "hot.js");
+        FileUtils.writeStringToFile(hot, pad("hot", 400), StandardCharsets.UTF_8);
+        for (int i = 0; i < 10; i++) {
+            cache.get(hot);
+        }
+        for (int i = 0; i < 50; i++) {
+            File cold = new File(dataDir, "cold" + i + ".js");
+            FileUtils.writeStringToFile(cold, pad("cold" + i, 400), StandardCharsets.UTF_8);
+            cache.get(cold);
+        }
+        long hits = cache.getHits();
+        cache.get(hot);
+        assertEquals(hits + 1, cache.getHits());
+        assertTrue(cache.getBytes() <= 1024);
+        FileUtils.deleteDirectory(dataDir);
+    }
+
+    @Test
+    public void testNotAdmittedContentsOnHeap() throws IOException {
+        File dataDir = TestUtils.getDataDir();
+        File hot = new File(dataDir, "hot.js");
+        FileUtils.writeStringToFile(hot, pad("hot", 800), StandardCharsets.UTF_8);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(cache.get(hot).isDirect());
+        }
+        // rejected by the admission policy
+        File cold = new File(dataDir, "cold.js");
+        FileUtils.writeStringToFile(cold, pad("cold", 800), StandardCharsets.UTF_8);
+        ByteBuffer data = cache.get(cold);
+        assertFalse(data.isDirect());
+        assertTrue(data.isReadOnly());
+        assertEquals(pad("cold", 800), toString(data));
+        assertEquals(1, cache.size());
+
+        // cache disabled
+        cache.setMaxBytes(0);
+        assertFalse(cache.isEnabled());
+        assertFalse(cache.get(hot).isDirect());
+        assertFalse(cache.getGzip(hot).isDirect());
+        assertEquals(0, cache.size());
+        FileUtils.deleteDirectory(dataDir);
+    }
+
+    private static String toString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String gunzip(ByteBuffer data) throws IOException {
+        byte[] bytes = new byte[data.remaining()];
+        data.get(bytes);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return IOUtils.toString(in, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String pad(String text, int size) {
+        return text + " ".repeat(size - text.length());
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+*/
+package it.geosolutions.mapstore.cache;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import it.geosolutions.mapstore.ConfigControllerTest;
+import it.geosolutions.mapstore.TestUtils;
+
+public class ConfigCacheTest {
+    ConfigCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new ConfigCache(2);
+    }
+
+    @Test
+    public void testHitWhenInputsDoNotChange() throws IOException {
+        File config = TestUtils.copyToTemp(ConfigControllerTest.class, "/localConfig.json");
+        AtomicInteger loads = new AtomicInteger();
+        ConfigCache.Key key = new ConfigCache.Key(config, Optional.empty(), Optional.empty(), true, "");
+        cache.get(key, () -> {
+            loads.incrementAndGet();
+            return FileUtils.readFileToByteArray(config);
+        });
+        byte[] result = cache.get(key, () -> {
+            loads.incrementAndGet();
+            return FileUtils.readFileToByteArray(config);
+        });
+        assertEquals("{}", new String(result, StandardCharsets.UTF_8).trim());
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        config.delete();
+    }
+
+    @Test
+    public void testMissWhenPatchChanges() throws IOException {
+        File config = TestUtils.copyToTemp(ConfigControllerTest.class, "/pluginsConfig.json");
+        File patch = TestUtils.copyToTemp(ConfigControllerTest.class, "/pluginsConfig.json.patch");
+        AtomicInteger loads = new AtomicInteger();
+        ConfigCache.Key key = new ConfigCache.Key(config, Optional.of(patch), Optional.empty(), true, "");
+        ConfigCache.Loader loader = () -> {
+            loads.incrementAndGet();
+            return FileUtils.readFileToByteArray(patch);
+        };
+        cache.get(key, loader);
+        FileUtils.writeStringToFile(patch, "[]", StandardCharsets.UTF_8);
+        byte[] result = cache.get(key, loader);
+        assertEquals("[]", new String(result, StandardCharsets.UTF_8));
+        assertEquals(2, loads.get());
+        config.delete();
+        patch.delete();
+    }
+
+    @Test
+    public void testInvalidate() throws IOException {
+        File config = TestUtils.copyToTemp(ConfigControllerTest.class, "/localConfig.json");
+        ConfigCache.Key key = new ConfigCache.Key(config, Optional.empty(), Optional.empty(), false, null);
+        cache.get(key, () -> FileUtils.readFileToByteArray(config));
+        assertEquals(1, cache.size());
+        cache.invalidate(config);
+        assertEquals(0, cache.size());
+        config.delete();
+    }
+
+    @Test
+    public void testBounded() throws IOException {
+        File config = TestUtils.copyToTemp(ConfigControllerTest.class, "/localConfig.json");
+        for (int i = 0; i < 5; i++) {
+            ConfigCache.Key key = new ConfigCache.Key(config, Optional.empty(), Optional.empty(), true, "mapping" + i);
+            cache.get(key, () -> FileUtils.readFileToByteArray(config));
+        }
+        assertEquals(2, cache.size());
+        config.delete();
+    }
+}
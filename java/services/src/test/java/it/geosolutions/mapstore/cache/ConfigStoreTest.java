@@ -0,0 +1,131 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+*/
+package it.geosolutions.mapstore.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import it.geosolutions.mapstore.TestUtils;
+import it.geosolutions.mapstore.utils.JsonUtils;
+
+public class ConfigStoreTest {
+    ConfigStore store;
+    File folder;
+
+    @Before
+    public void setUp() throws IOException {
+        store = new ConfigStore();
+        folder = TestUtils.getDataDir();
+    }
+
+    @Test
+    public void testConcurrentUpdatesAreNotLost() throws Exception {
+        File config = new File(folder, "extensions.json");
+        FileUtils.writeStringToFile(config, "{\"count\":0}", StandardCharsets.UTF_8);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<JsonNode>> tasks = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                tasks.add(() -> store.update(config, config, current -> {
+                    ((ObjectNode) current).put("count", current.get("count").asInt() + 1);
+                    return current;
+                }));
+            }
+            for (Future<JsonNode> result : executor.invokeAll(tasks)) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(100, store.get(config).get("count").asInt());
+        assertEquals("{\"count\":100}", FileUtils.readFileToString(config, StandardCharsets.UTF_8));
+        // no temporary files left behind
+        assertEquals(1, folder.list().length);
+    }
+
+    @Test
+    public void testGetReturnsSnapshotUntilFileChanges() throws IOException {
+        File config = new File(folder, "extensions.json");
+        FileUtils.writeStringToFile(config, "{}", StandardCharsets.UTF_8);
+        JsonNode first = store.get(config);
+        assertSame(first, store.get(config));
+        FileUtils.writeStringToFile(config, "{\"My\":{}}", StandardCharsets.UTF_8);
+        JsonNode second = store.get(config);
+        assertNotSame(first, second);
+        assertEquals("{\"My\":{}}", second.toString());
+        config.delete();
+        assertNull(store.get(config));
+    }
+
+    @Test
+    public void testUpdateFromSource() throws IOException {
+        File source = new File(folder, "pluginsConfig.json");
+        FileUtils.writeStringToFile(source, "{\"plugins\":[]}", StandardCharsets.UTF_8);
+        File target = new File(new File(folder, "configs"), "pluginsConfig.json");
+        JsonNode result = store.update(source, target, current -> {
+            ((ObjectNode) current).put("extension", true);
+            return current;
+        });
+        assertEquals("{\"plugins\":[],\"extension\":true}", FileUtils.readFileToString(target, StandardCharsets.UTF_8));
+        assertSame(result, store.get(target));
+        // the source is not changed
+        assertEquals("{\"plugins\":[]}", FileUtils.readFileToString(source, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testNoChange() throws IOException {
+        File config = new File(folder, "extensions.json");
+        FileUtils.writeStringToFile(config, "{ }", StandardCharsets.UTF_8);
+        JsonNode current = store.get(config);
+        assertSame(current, store.update(config, config, document -> null));
+        assertEquals("{ }", FileUtils.readFileToString(config, StandardCharsets.UTF_8));
+        File missing = new File(folder, "missing.json");
+        assertNull(store.update(missing, missing, document -> null));
+        assertFalse(missing.exists());
+    }
+
+    @Test
+    public void testShutdown() throws IOException, InterruptedException {
+        File config = new File(folder, "extensions.json");
+        Thread[] writers = new Thread[1];
+        store.update(null, config, current -> {
+            writers[0] = Thread.currentThread();
+            return JsonUtils.getMapper().createObjectNode().put("count", 1);
+        });
+        store.shutdown();
+        // the thread ends right after the executor is terminated
+        writers[0].join(10000);
+        assertFalse(writers[0].isAlive());
+        // started again by the next change
+        store.update(config, config, current -> ((ObjectNode) current).put("count", 2));
+        assertEquals("{\"count\":2}", FileUtils.readFileToString(config, StandardCharsets.UTF_8));
+        store.shutdown();
+        assertTrue(store.get(config).has("count"));
+    }
+}
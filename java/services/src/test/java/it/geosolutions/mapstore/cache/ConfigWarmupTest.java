@@ -0,0 +1,58 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+*/
+package it.geosolutions.mapstore.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+public class ConfigWarmupTest {
+
+    @Test
+    public void testReadyWhenAllResourcesAreLoaded() throws Exception {
+        ConfigWarmup warmup = new ConfigWarmup();
+        CountDownLatch release = new CountDownLatch(1);
+        Map<String, ConfigWarmup.Task> tasks = new LinkedHashMap<>();
+        tasks.put("configs/localConfig.json", () -> release.await(10, TimeUnit.SECONDS));
+        tasks.put("configs/pluginsConfig.json", () -> { });
+        tasks.put("configs/broken.json", () -> {
+            throw new IOException("broken");
+        });
+        CompletableFuture<Void> done = warmup.start("test", tasks, 2);
+        assertFalse(warmup.isReady());
+        release.countDown();
+        done.get(10, TimeUnit.SECONDS);
+        assertTrue(warmup.isReady());
+
+        List<ConfigWarmup.Result> results = warmup.getResults();
+        assertEquals(3, results.size());
+        Map<String, ConfigWarmup.Result> byName = results.stream()
+            .collect(Collectors.toMap(ConfigWarmup.Result::getResource, result -> result));
+        assertNull(byName.get("configs/localConfig.json").getError());
+        assertEquals("broken", byName.get("configs/broken.json").getError());
+    }
+
+    @Test
+    public void testNothingToLoad() {
+        ConfigWarmup warmup = new ConfigWarmup();
+        assertTrue(warmup.start("test", new LinkedHashMap<>(), 0).isDone());
+        assertTrue(warmup.isReady());
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+*/
+package it.geosolutions.mapstore.cache;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Test;
+
+import it.geosolutions.mapstore.TestUtils;
+
+public class DataDirWatcherTest {
+    DataDirWatcher watcher;
+
+    @After
+    public void tearDown() {
+        if (watcher != null) {
+            watcher.stop();
+        }
+    }
+
+    @Test
+    public void testNativeEvents() throws IOException, InterruptedException {
+        watcher = new DataDirWatcher(false, 0);
+        assertChangesNotified();
+    }
+
+    @Test
+    public void testPolling() throws IOException, InterruptedException {
+        watcher = new DataDirWatcher(true, 50);
+        assertChangesNotified();
+    }
+
+    @Test
+    public void testNewExtensionFoldersAreWatched() throws IOException, InterruptedException {
+        watcher = new DataDirWatcher(false, 0);
+        File dataDir = TestUtils.getDataDir();
+        new File(dataDir, "extensions").mkdirs();
+        watcher.watchDataDir(dataDir.getAbsolutePath(), "configs", "extensions");
+        File bundle = new File(dataDir, "extensions/My/index.js");
+        CountDownLatch latch = new CountDownLatch(1);
+        watcher.addListener(path -> {
+            if (path.endsWith("index.js")) {
+                latch.countDown();
+            }
+        });
+        bundle.getParentFile().mkdirs();
+        // wait for the new folder to be registered
+        long start = System.currentTimeMillis();
+        while (!watcher.isWatched(bundle) && System.currentTimeMillis() - start < 10000) {
+            Thread.sleep(10);
+        }
+        FileUtils.writeStringToFile(bundle, "console.log('hello')", StandardCharsets.UTF_8);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        FileUtils.deleteDirectory(dataDir);
+    }
+
+    private void assertChangesNotified() throws IOException, InterruptedException {
+        File dataDir = TestUtils.getDataDir();
+        File configs = new File(dataDir, "configs");
+        configs.mkdirs();
+        File config = new File(configs, "localConfig.json");
+        FileUtils.writeStringToFile(config, "{}", StandardCharsets.UTF_8);
+        watcher.watchDataDir(dataDir.getAbsolutePath(), "configs", "extensions");
+        assertTrue(watcher.isWatched(config));
+        assertFalse(watcher.isWatched(new File(dataDir.getParentFile(), "other.json")));
+
+        Set<Path> changes = ConcurrentHashMap.newKeySet();
+        CountDownLatch latch = new CountDownLatch(1);
+        watcher.addListener(path -> {
+            changes.add(path);
+            latch.countDown();
+        });
+        FileUtils.writeStringToFile(config, "{\"changed\":true}", StandardCharsets.UTF_8);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertTrue(changes.contains(config.toPath().toAbsolutePath().normalize()));
+        FileUtils.deleteDirectory(dataDir);
+    }
+}
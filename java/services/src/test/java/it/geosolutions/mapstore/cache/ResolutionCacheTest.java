@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+*/
+package it.geosolutions.mapstore.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import it.geosolutions.mapstore.TestUtils;
+
+public class ResolutionCacheTest {
+    ResolutionCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new ResolutionCache(16);
+    }
+
+    @Test
+    public void testNegativeResolutionCached() throws IOException {
+        cache.setTtl(60000);
+        File dataDir = TestUtils.getDataDir();
+        File patch = new File(dataDir, "localConfig.json.patch");
+        assertFalse(resolve(dataDir, patch).isPresent());
+        assertFalse(resolve(dataDir, patch).isPresent());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        // not visible until the time to live expires or the cache is invalidated
+        FileUtils.writeStringToFile(patch, "[]", StandardCharsets.UTF_8);
+        assertFalse(resolve(dataDir, patch).isPresent());
+        cache.invalidate(patch);
+        assertEquals(0, cache.size());
+        assertEquals(patch, resolve(dataDir, patch).get());
+        assertEquals(2, cache.getMisses());
+        FileUtils.deleteDirectory(dataDir);
+    }
+
+    @Test
+    public void testExpiration() throws IOException, InterruptedException {
+        cache.setTtl(1);
+        File dataDir = TestUtils.getDataDir();
+        File config = new File(dataDir, "localConfig.json");
+        assertFalse(resolve(dataDir, config).isPresent());
+        FileUtils.writeStringToFile(config, "{}", StandardCharsets.UTF_8);
+        Thread.sleep(5);
+        assertEquals(config, resolve(dataDir, config).get());
+        FileUtils.deleteDirectory(dataDir);
+    }
+
+    @Test
+    public void testNotCachedWithoutTtl() throws IOException {
+        cache.setTtl(0);
+        File dataDir = TestUtils.getDataDir();
+        File config = new File(dataDir, "localConfig.json");
+        assertFalse(resolve(dataDir, config).isPresent());
+        FileUtils.writeStringToFile(config, "{}", StandardCharsets.UTF_8);
+        assertTrue(resolve(dataDir, config).isPresent());
+        assertEquals(0, cache.size());
+        FileUtils.deleteDirectory(dataDir);
+    }
+
+    @Test
+    public void testBounded() throws IOException {
+        cache.setTtl(60000);
+        File dataDir = TestUtils.getDataDir();
+        for (int i = 0; i < 50; i++) {
+            resolve(dataDir, new File(dataDir, "config" + i + ".json"));
+        }
+        assertTrue(cache.size() <= 16);
+        FileUtils.deleteDirectory(dataDir);
+    }
+
+    private Optional<File> resolve(File dataDir, File file) {
+        return cache.resolve(dataDir.getAbsolutePath(), null, file.getName(),
+            () -> new String[] { file.getAbsolutePath(), null });
+    }
+}
@@ -0,0 +1,142 @@
+package it.geosolutions.mapstore.filters;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Map;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.FilterConfig;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import static org.mockito.Mockito.*;
+
+import static org.junit.Assert.assertEquals;
+
+public class CachePolicyFilterTest {
+
+    private static final String RULES = String.join("\n",
+        "# index",
+        "/ | * | no-store",
+        "/index.html | * | no-store",
+        "/configs/** | * | no-cache",
+        "**.{hash}.* | * | public, max-age=31536000, immutable",
+        "/extensions/** | application/json | no-cache",
+        "/extensions/** | * | -",
+        "");
+
+    private CachePolicyFilter filter;
+    private FilterChain chain;
+
+    @Before
+    public void setUp() throws ServletException {
+        filter = new CachePolicyFilter();
+        FilterConfig config = mock(FilterConfig.class);
+        when(config.getInitParameter("rules")).thenReturn(RULES);
+        when(config.getInitParameter("default")).thenReturn("no-cache");
+        filter.init(config);
+        chain = mock(FilterChain.class);
+    }
+
+    @Test
+    public void testIndexIsNotStored() throws IOException, ServletException {
+        HttpServletResponse response = filter("/");
+        verify(response).setHeader("Cache-Control", "no-store");
+        verify(response).setHeader("Pragma", "no-cache");
+        verify(response).setDateHeader("Expires", 0L);
+        verify(filter("/index.html")).setHeader("Cache-Control", "no-store");
+    }
+
+    @Test
+    public void testConfigsAreRevalidated() throws IOException, ServletException {
+        HttpServletResponse response = filter("/configs/localConfig.json");
+        verify(response).setHeader("Cache-Control", "no-cache");
+        verify(response, never()).setHeader("Pragma", "no-cache");
+    }
+
+    @Test
+    public void testHashedBundlesAreImmutable() throws IOException, ServletException {
+        verify(filter("/dist/1234.5a4e4c2a1b3d8f9e0c7b.chunk.js")).setHeader("Cache-Control", "public, max-age=31536000, immutable");
+        verify(filter("/extensions/My/assets/js/main.1a2b3c4d.js")).setHeader("Cache-Control", "public, max-age=31536000, immutable");
+        // not a hash
+        verify(filter("/dist/mapstore.main.js")).setHeader("Cache-Control", "no-cache");
+    }
+
+    @Test
+    public void testErrorsAreNotCachedForLong() throws IOException, ServletException {
+        HttpServletResponse response = filter("/dist/1234.5a4e4c2a1b3d8f9e0c7b.chunk.js", HttpServletResponse.SC_NOT_FOUND);
+        verify(response).setHeader("Cache-Control", "no-cache");
+        verify(response, never()).setHeader("Cache-Control", "public, max-age=31536000, immutable");
+        // revalidated responses keep the rule
+        verify(filter("/dist/1234.5a4e4c2a1b3d8f9e0c7b.chunk.js", HttpServletResponse.SC_NOT_MODIFIED))
+            .setHeader("Cache-Control", "public, max-age=31536000, immutable");
+        // rules that do not let clients keep the response are applied as is
+        verify(filter("/index.html", HttpServletResponse.SC_NOT_FOUND)).setHeader("Cache-Control", "no-store");
+    }
+
+    @Test
+    public void testHeaderSetByTheApplication() throws IOException, ServletException {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getContextPath()).thenReturn("/mapstore");
+        when(request.getRequestURI()).thenReturn("/mapstore/dist/1234.5a4e4c2a1b3d8f9e0c7b.chunk.js");
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(response.getStatus()).thenReturn(HttpServletResponse.SC_OK);
+        when(response.getHeader("Cache-Control")).thenReturn("private");
+        filter.doFilter(request, response, chain);
+        verify(response, never()).setHeader(eq("Cache-Control"), anyString());
+    }
+
+    @Test
+    public void testContentTypeRules() throws IOException, ServletException {
+        verify(filter("/extensions/extensions.json")).setHeader("Cache-Control", "no-cache");
+        HttpServletResponse response = filter("/extensions/My/index.js");
+        verify(response, never()).setHeader(eq("Cache-Control"), anyString());
+    }
+
+    @Test
+    public void testServedCounts() throws IOException, ServletException {
+        filter("/");
+        filter("/configs/localConfig.json");
+        filter("/configs/new.json");
+        filter("/other.txt");
+        Map<String, Long> counts = filter.getServedCounts();
+        assertEquals(Long.valueOf(1), counts.get("/ | * | no-store"));
+        assertEquals(Long.valueOf(2), counts.get("/configs/** | * | no-cache"));
+        assertEquals(Long.valueOf(0), counts.get("/index.html | * | no-store"));
+        assertEquals(Long.valueOf(1), counts.get("default"));
+    }
+
+    @Test(expected = ServletException.class)
+    public void testInvalidRule() throws ServletException {
+        FilterConfig config = mock(FilterConfig.class);
+        when(config.getInitParameter("rules")).thenReturn("/configs/** | no-cache");
+        new CachePolicyFilter().init(config);
+    }
+
+    private HttpServletResponse filter(String path) throws IOException, ServletException {
+        return filter(path, HttpServletResponse.SC_OK);
+    }
+
+    /**
+     * Filters a request whose response has the given status, and a body unless not modified.
+     */
+    private HttpServletResponse filter(String path, int status) throws IOException, ServletException {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getContextPath()).thenReturn("/mapstore");
+        when(request.getRequestURI()).thenReturn("/mapstore" + path);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(response.getStatus()).thenReturn(status);
+        doAnswer(invocation -> {
+            if (status != HttpServletResponse.SC_NOT_MODIFIED) {
+                ((ServletResponse) invocation.getArgument(1)).getOutputStream();
+            }
+            return null;
+        }).when(chain).doFilter(eq(request), any(ServletResponse.class));
+        filter.doFilter(request, response, chain);
+        verify(chain).doFilter(eq(request), any(ServletResponse.class));
+        return response;
+    }
+}
@@ -7,6 +7,8 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
 import jakarta.servlet.FilterChain;
+import jakarta.servlet.FilterConfig;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import static org.mockito.Mockito.*;
@@ -37,6 +39,29 @@ public class NoCacheFilterTest {
         verify(chain).doFilter(request, response);
     }
 
+    @Test
+    public void testDoFilterRevalidatePaths() throws IOException, ServletException {
+        FilterConfig config = mock(FilterConfig.class);
+        when(config.getInitParameter("revalidatePaths")).thenReturn("/configs/, /rest/config/load/");
+        filter.init(config);
+        FilterChain chain = mock(FilterChain.class);
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getContextPath()).thenReturn("/mapstore");
+        when(request.getRequestURI()).thenReturn("/mapstore/configs/localConfig.json");
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        filter.doFilter(request, response, chain);
+        verify(response).setHeader("Cache-Control", "no-cache");
+        verify(response, never()).setHeader("Pragma", "no-cache");
+
+        request = mock(HttpServletRequest.class);
+        when(request.getContextPath()).thenReturn("/mapstore");
+        when(request.getRequestURI()).thenReturn("/mapstore/extensions/extensions.json");
+        response = mock(HttpServletResponse.class);
+        filter.doFilter(request, response, chain);
+        verify(response).setHeader("Cache-Control", "no-cache, no-store, must-revalidate");
+    }
+
     @Test
     public void testDoFilterSetsHeadersWhenChainThrowsException() throws IOException {
         ServletRequest request = mock(ServletRequest.class);
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package it.geosolutions.mapstore.metrics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import it.geosolutions.mapstore.controllers.configs.ConfigsController;
+import it.geosolutions.mapstore.utils.JsonUtils;
+
+public class MetricsRegistryTest {
+
+    @Test
+    public void testLatencyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(500));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(1));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(30));
+        histogram.record(TimeUnit.SECONDS.toNanos(20));
+        long[] counts = histogram.getCounts();
+        assertArrayEquals(new long[] { 2, 0, 0, 0, 0, 1, 0, 0, 0, 0, 0, 0, 0, 1 }, counts);
+        assertEquals(4, histogram.getCount());
+        assertEquals(1, LatencyHistogram.percentile(counts, 0.5));
+        assertEquals(50, LatencyHistogram.percentile(counts, 0.75));
+        assertEquals(-1, LatencyHistogram.percentile(counts, 0.99));
+        assertEquals(0, LatencyHistogram.percentile(new long[counts.length], 0.5));
+    }
+
+    @Test
+    public void testServiceMetrics() {
+        MetricsRegistry registry = new MetricsRegistry();
+        ServiceMetrics metrics = registry.getService("ConfigsController");
+        metrics.record(1000, 200, 512);
+        metrics.record(1000, 304, -1);
+        metrics.record(1000, 404, 10);
+        metrics.record(1000, 500, -1);
+        assertTrue(metrics == registry.getService("ConfigsController"));
+        assertEquals(4, metrics.getRequests());
+        assertEquals(1, metrics.getClientErrors());
+        assertEquals(1, metrics.getServerErrors());
+        assertEquals(522, metrics.getBytes());
+
+        ObjectNode json = JsonUtils.getMapper().createObjectNode();
+        registry.writeJson(json, null);
+        assertEquals(4, json.get("services").get("ConfigsController").get("requests").asLong());
+        assertTrue(json.get("caches").has("configs"));
+        assertTrue(json.get("caches").get("resolutions").has("notFound"));
+        assertNull(json.get("cachePolicy"));
+    }
+
+    @Test
+    public void testPrometheus() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.getService("ExtensionsController").record(TimeUnit.MILLISECONDS.toNanos(3), 200, 100);
+        registry.getService("ExtensionsController").record(TimeUnit.MILLISECONDS.toNanos(7), 200, 100);
+        String text = registry.toPrometheus(Collections.singletonMap("/configs/** | * | \"no-cache\"", 3L));
+        assertTrue(text.contains("# TYPE mapstore_requests_total counter\n"));
+        assertTrue(text.contains("mapstore_requests_total{controller=\"ExtensionsController\"} 2\n"));
+        assertTrue(text.contains("mapstore_response_bytes_total{controller=\"ExtensionsController\"} 200\n"));
+        // buckets are cumulative
+        assertTrue(text.contains("mapstore_request_duration_seconds_bucket{controller=\"ExtensionsController\",le=\"0.002\"} 0\n"));
+        assertTrue(text.contains("mapstore_request_duration_seconds_bucket{controller=\"ExtensionsController\",le=\"0.005\"} 1\n"));
+        assertTrue(text.contains("mapstore_request_duration_seconds_bucket{controller=\"ExtensionsController\",le=\"0.01\"} 2\n"));
+        assertTrue(text.contains("mapstore_request_duration_seconds_bucket{controller=\"ExtensionsController\",le=\"+Inf\"} 2\n"));
+        assertTrue(text.contains("mapstore_request_duration_seconds_count{controller=\"ExtensionsController\"} 2\n"));
+        assertTrue(text.contains("mapstore_cache_policy_responses_total{rule=\"/configs/** | * | \\\"no-cache\\\"\"} 3\n"));
+    }
+
+    @Test
+    public void testInterceptor() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        MetricsInterceptor interceptor = new MetricsInterceptor(registry);
+        HandlerMethod handler = new HandlerMethod(new ConfigsController(),
+            ConfigsController.class.getMethod("loadResource", String.class, boolean.class));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/configs/localConfig.json");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertTrue(interceptor.preHandle(request, response, handler));
+        response.setContentLength(1024);
+        interceptor.afterCompletion(request, response, handler, null);
+
+        request = new MockHttpServletRequest("GET", "/configs/missing.json");
+        response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, handler);
+        interceptor.afterCompletion(request, response, handler, new IllegalStateException());
+
+        ServiceMetrics metrics = registry.getServices().get("ConfigsController");
+        assertEquals(2, metrics.getRequests());
+        assertEquals(1024, metrics.getBytes());
+        assertEquals(1, metrics.getServerErrors());
+        assertFalse(registry.getServices().containsKey("MetricsController"));
+    }
+
+    @Test
+    public void testInterceptorStreamedResponses() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        MetricsInterceptor interceptor = new MetricsInterceptor(registry);
+        HandlerMethod handler = new HandlerMethod(new ConfigsController(),
+            ConfigsController.class.getMethod("loadResource", String.class, boolean.class));
+        // still streaming when the handler returns, recorded when the stream ends
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/configs/big.js");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, handler);
+        StreamTracker tracker = StreamTracker.start(request);
+        interceptor.afterCompletion(request, response, handler, null);
+        assertFalse(registry.getServices().containsKey("ConfigsController"));
+        tracker.end(StreamTracker.Outcome.FAILED, 512);
+        ServiceMetrics metrics = registry.getServices().get("ConfigsController");
+        assertEquals(1, metrics.getRequests());
+        assertEquals(1, metrics.getServerErrors());
+        assertEquals(512, metrics.getBytes());
+        // ended before the handler returned
+        request = new MockHttpServletRequest("GET", "/configs/big.js");
+        response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, handler);
+        StreamTracker.start(request).end(StreamTracker.Outcome.COMPLETED, 1024);
+        interceptor.afterCompletion(request, response, handler, null);
+        assertEquals(2, metrics.getRequests());
+        assertEquals(1, metrics.getServerErrors());
+        assertEquals(1536, metrics.getBytes());
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+*/
+package it.geosolutions.mapstore.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import it.geosolutions.mapstore.TestUtils;
+import it.geosolutions.mapstore.metrics.StreamMetrics;
+
+public class AssetStreamerTest {
+
+    /**
+     * Output that takes a single write each time it is ready, as a slow client would.
+     */
+    static class SlowOutputStream extends ServletOutputStream {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        WriteListener listener;
+        boolean ready = true;
+
+        @Override
+        public boolean isReady() {
+            boolean wasReady = ready;
+            ready = false;
+            return wasReady;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void write(int b) {
+            bytes.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes.write(b, off, len);
+        }
+
+        /**
+         * Drains the written bytes, calling the listener until it does not write anymore.
+         */
+        void drain() throws IOException {
+            int size;
+            do {
+                size = bytes.size();
+                ready = true;
+                listener.onWritePossible();
+            } while (bytes.size() > size);
+        }
+    }
+
+    private static MockHttpServletResponse response(SlowOutputStream out) {
+        return new MockHttpServletResponse() {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return out;
+            }
+        };
+    }
+
+    @Test
+    public void testCanStream() {
+        AssetStreamer streamer = new AssetStreamer(1024, 0, new StreamMetrics());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/index.js");
+        assertFalse(streamer.canStream(request, 4096));
+        request.setAsyncSupported(true);
+        assertTrue(streamer.canStream(request, 4096));
+        assertFalse(streamer.canStream(request, 100));
+    }
+
+    @Test
+    public void testStreamBuffer() throws IOException {
+        byte[] content = new byte[AssetStreamer.CHUNK_SIZE * 3 + 100];
+        new Random().nextBytes(content);
+        StreamMetrics metrics = new StreamMetrics();
+        AssetStreamer streamer = new AssetStreamer(1024, 0, metrics);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/index.js");
+        request.setAsyncSupported(true);
+        SlowOutputStream out = new SlowOutputStream();
+
+        streamer.stream(ByteBuffer.wrap(content), request, response(out));
+        // the request thread is released before anything is written
+        assertTrue(request.isAsyncStarted());
+        assertNotNull(out.listener);
+        assertEquals(1, metrics.getInFlight());
+
+        out.drain();
+        assertArrayEquals(content, out.bytes.toByteArray());
+        assertFalse(request.isAsyncStarted());
+        assertEquals(0, metrics.getInFlight());
+        assertEquals(1, metrics.getCompleted());
+        assertEquals(content.length, metrics.getBytes());
+    }
+
+    @Test
+    public void testStreamFile() throws IOException {
+        File dataDir = TestUtils.getDataDir();
+        File bundle = new File(dataDir, "index.js");
+        byte[] content = new byte[AssetStreamer.CHUNK_SIZE * 2 + 10];
+        new Random().nextBytes(content);
+        FileUtils.writeByteArrayToFile(bundle, content);
+
+        StreamMetrics metrics = new StreamMetrics();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/index.js");
+        request.setAsyncSupported(true);
+        request.addHeader("Range", "bytes=10-");
+        SlowOutputStream out = new SlowOutputStream();
+        MockHttpServletResponse response = response(out);
+        AssetUtils.sendFile(bundle, request, response, new AssetStreamer(1024, 0, metrics));
+        assertEquals(206, response.getStatus());
+        assertTrue(request.isAsyncStarted());
+
+        out.drain();
+        assertArrayEquals(Arrays.copyOfRange(content, 10, content.length), out.bytes.toByteArray());
+        assertEquals(1, metrics.getCompleted());
+        FileUtils.deleteDirectory(dataDir);
+    }
+
+    @Test
+    public void testStreamError() throws IOException {
+        StreamMetrics metrics = new StreamMetrics();
+        AssetStreamer streamer = new AssetStreamer(1024, 0, metrics);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/index.js");
+        request.setAsyncSupported(true);
+        SlowOutputStream out = new SlowOutputStream();
+        streamer.stream(ByteBuffer.wrap(new byte[AssetStreamer.CHUNK_SIZE * 2]), request, response(out));
+        out.listener.onWritePossible();
+        // the client goes away
+        out.listener.onError(new IOException("Broken pipe"));
+        assertFalse(request.isAsyncStarted());
+        assertEquals(0, metrics.getInFlight());
+        assertEquals(1, metrics.getFailed());
+        assertEquals(AssetStreamer.CHUNK_SIZE, metrics.getBytes());
+    }
+}
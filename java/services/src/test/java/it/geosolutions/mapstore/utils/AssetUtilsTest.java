@@ -0,0 +1,204 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+*/
+package it.geosolutions.mapstore.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import it.geosolutions.mapstore.ConfigControllerTest;
+import it.geosolutions.mapstore.TestUtils;
+
+public class AssetUtilsTest {
+
+    @Test
+    public void testSendFile() throws IOException {
+        File tempResource = TestUtils.copyToTemp(ConfigControllerTest.class, "/test.png");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/test.png");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AssetUtils.sendFile(tempResource, request, response);
+        byte[] expected = FileUtils.readFileToByteArray(tempResource);
+        assertEquals(expected.length, response.getContentLength());
+        assertArrayEquals(expected, response.getContentAsByteArray());
+        tempResource.delete();
+    }
+
+    @Test
+    public void testSendFileWithSendfile() throws IOException {
+        File dataDir = TestUtils.getDataDir();
+        File bundle = new File(dataDir, "index.js");
+        byte[] content = new byte[(int) AssetUtils.SENDFILE_MIN_SIZE * 2];
+        new Random().nextBytes(content);
+        FileUtils.writeByteArrayToFile(bundle, content);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/index.js");
+        request.setAttribute(AssetUtils.SENDFILE_SUPPORT_ATTRIBUTE, Boolean.TRUE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AssetUtils.sendFile(bundle, request, response);
+        // the container sends the file
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(content.length, response.getContentLength());
+        assertEquals(bundle.getCanonicalPath(), request.getAttribute(AssetUtils.SENDFILE_FILENAME_ATTRIBUTE));
+        assertEquals(0L, request.getAttribute(AssetUtils.SENDFILE_START_ATTRIBUTE));
+        assertEquals((long) content.length, request.getAttribute(AssetUtils.SENDFILE_END_ATTRIBUTE));
+
+        // small files are written directly
+        File small = TestUtils.copyToTemp(ConfigControllerTest.class, "/index.js");
+        request = new MockHttpServletRequest("GET", "/index.js");
+        request.setAttribute(AssetUtils.SENDFILE_SUPPORT_ATTRIBUTE, Boolean.TRUE);
+        response = new MockHttpServletResponse();
+        AssetUtils.sendFile(small, request, response);
+        assertNull(request.getAttribute(AssetUtils.SENDFILE_FILENAME_ATTRIBUTE));
+        assertEquals("console.log('hello')", response.getContentAsString());
+        small.delete();
+        FileUtils.deleteDirectory(dataDir);
+    }
+
+    @Test
+    public void testAcceptsGzip() {
+        assertTrue(AssetUtils.acceptsGzip("gzip, deflate, br"));
+        assertTrue(AssetUtils.acceptsGzip("*"));
+        assertTrue(AssetUtils.acceptsGzip("*;q=0, gzip;q=0.5"));
+        assertFalse(AssetUtils.acceptsGzip(null));
+        assertFalse(AssetUtils.acceptsGzip("br"));
+        assertFalse(AssetUtils.acceptsGzip("gzip;q=0"));
+        assertFalse(AssetUtils.acceptsGzip("gzip;q=0, *"));
+    }
+
+    @Test
+    public void testSingleRange() throws IOException {
+        File tempResource = TestUtils.copyToTemp(ConfigControllerTest.class, "/test.png");
+        byte[] expected = FileUtils.readFileToByteArray(tempResource);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/test.png");
+        request.addHeader("Range", "bytes=10-19");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AssetUtils.sendFile(tempResource, request, response);
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 10-19/" + expected.length, response.getHeader("Content-Range"));
+        assertEquals(10, response.getContentLength());
+        assertArrayEquals(Arrays.copyOfRange(expected, 10, 20), response.getContentAsByteArray());
+
+        // suffix range
+        request = new MockHttpServletRequest("GET", "/test.png");
+        request.addHeader("Range", "bytes=-5");
+        response = new MockHttpServletResponse();
+        AssetUtils.sendFile(tempResource, request, response);
+        assertEquals(206, response.getStatus());
+        assertArrayEquals(Arrays.copyOfRange(expected, expected.length - 5, expected.length), response.getContentAsByteArray());
+        tempResource.delete();
+    }
+
+    @Test
+    public void testMultipleRanges() throws IOException {
+        File tempResource = TestUtils.copyToTemp(ConfigControllerTest.class, "/index.js");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/index.js");
+        request.addHeader("Range", "bytes=0-6,8-12");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setContentType("application/javascript");
+        AssetUtils.sendFile(tempResource, request, response);
+        assertEquals(206, response.getStatus());
+        assertTrue(response.getContentType().startsWith("multipart/byteranges; boundary="));
+        String boundary = response.getContentType().substring(response.getContentType().indexOf('=') + 1);
+        String body = response.getContentAsString();
+        assertEquals(body.length(), response.getContentLength());
+        assertEquals("\r\n--" + boundary + "\r\n"
+            + "Content-Type: application/javascript\r\n"
+            + "Content-Range: bytes 0-6/20\r\n\r\n"
+            + "console"
+            + "\r\n--" + boundary + "\r\n"
+            + "Content-Type: application/javascript\r\n"
+            + "Content-Range: bytes 8-12/20\r\n\r\n"
+            + "log('"
+            + "\r\n--" + boundary + "--\r\n", body);
+        tempResource.delete();
+    }
+
+    @Test
+    public void testRangeNotSatisfiable() throws IOException {
+        File tempResource = TestUtils.copyToTemp(ConfigControllerTest.class, "/index.js");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/index.js");
+        request.addHeader("Range", "bytes=100-200");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AssetUtils.sendFile(tempResource, request, response);
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */20", response.getHeader("Content-Range"));
+        tempResource.delete();
+    }
+
+    @Test
+    public void testIfRange() throws IOException {
+        File tempResource = TestUtils.copyToTemp(ConfigControllerTest.class, "/index.js");
+        // changed after the date of the client copy, the whole file is sent
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/index.js");
+        request.addHeader("Range", "bytes=0-6");
+        request.addHeader("If-Range", tempResource.lastModified() - 60000);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AssetUtils.sendFile(tempResource, request, response);
+        assertEquals(200, response.getStatus());
+        assertEquals("console.log('hello')", response.getContentAsString());
+
+        request = new MockHttpServletRequest("GET", "/index.js");
+        request.addHeader("Range", "bytes=0-6");
+        request.addHeader("If-Range", tempResource.lastModified());
+        response = new MockHttpServletResponse();
+        AssetUtils.sendFile(tempResource, request, response);
+        assertEquals(206, response.getStatus());
+        assertEquals("console", response.getContentAsString());
+        tempResource.delete();
+    }
+
+    @Test
+    public void testIfRangeETag() throws IOException {
+        File tempResource = TestUtils.copyToTemp(ConfigControllerTest.class, "/index.js");
+        String etag = "\"5a4e4c2a1b3d8f9e\"";
+        // same strong entity tag, the download is resumed
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/index.js");
+        request.addHeader("Range", "bytes=8-10");
+        request.addHeader("If-Range", etag);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AssetUtils.sendFile(tempResource, etag, request, response, null);
+        assertEquals(206, response.getStatus());
+        assertEquals("log", response.getContentAsString());
+
+        // other, weak or unknown entity tags, the whole file is sent
+        for (String[] tags : new String[][] {{"\"1234\"", etag}, {"W/" + etag, etag}, {etag, null}}) {
+            request = new MockHttpServletRequest("GET", "/index.js");
+            request.addHeader("Range", "bytes=8-10");
+            request.addHeader("If-Range", tags[0]);
+            response = new MockHttpServletResponse();
+            AssetUtils.sendFile(tempResource, tags[1], request, response, null);
+            assertEquals(200, response.getStatus());
+            assertEquals("console.log('hello')", response.getContentAsString());
+        }
+        tempResource.delete();
+    }
+
+    @Test
+    public void testParseRanges() {
+        assertNull(AssetUtils.parseRanges("items=0-1", 100));
+        assertNull(AssetUtils.parseRanges("bytes=5-3", 100));
+        assertEquals(0, AssetUtils.parseRanges("bytes=200-", 100).size());
+        List<long[]> ranges = AssetUtils.parseRanges("bytes=50-60,0-10,5-20", 100);
+        assertEquals(2, ranges.size());
+        assertArrayEquals(new long[] {0, 20}, ranges.get(0));
+        assertArrayEquals(new long[] {50, 60}, ranges.get(1));
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+*/
+package it.geosolutions.mapstore.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import it.geosolutions.mapstore.TestUtils;
+
+public class JsonUtilsTest {
+
+    @Test
+    public void testReadTree() throws IOException {
+        File dataDir = TestUtils.getDataDir();
+        File config = new File(dataDir, "localConfig.json");
+        FileUtils.writeStringToFile(config, "{\"header\": {\"title\": \"Città\"},\r\n \"plugins\": [1, 2]}", StandardCharsets.UTF_8);
+        JsonNode tree = JsonUtils.readTree(config);
+        assertEquals("Città", tree.at("/header/title").asText());
+        assertEquals(2, tree.get("plugins").size());
+        assertEquals("{\"header\":{\"title\":\"Città\"},\"plugins\":[1,2]}",
+            new String(JsonUtils.getMapper().writeValueAsBytes(tree), StandardCharsets.UTF_8));
+        FileUtils.deleteDirectory(dataDir);
+    }
+}
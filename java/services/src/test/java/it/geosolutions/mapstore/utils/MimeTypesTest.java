@@ -0,0 +1,42 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+*/
+package it.geosolutions.mapstore.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.junit.Test;
+
+public class MimeTypesTest {
+
+    @Test
+    public void testDefaults() {
+        MimeTypes types = MimeTypes.getDefault();
+        assertEquals("application/javascript", types.getType(new File("extensions/My/index.js")));
+        assertEquals("application/json", types.getType("translations/data.en-US.json"));
+        assertEquals("image/jpeg", types.getType("test.JPG"));
+        assertEquals("text/css", types.getType("style.css"));
+    }
+
+    @Test
+    public void testOverrides() {
+        assertSame(MimeTypes.getDefault(), MimeTypes.withOverrides(""));
+        MimeTypes types = MimeTypes.withOverrides("glb=model/gltf-binary, JS=text/javascript,invalid,empty=");
+        assertEquals("model/gltf-binary", types.getType("assets/model.glb"));
+        assertEquals("text/javascript", types.getType("index.js"));
+        assertEquals("image/png", types.getType("test.png"));
+        assertEquals("application/javascript", MimeTypes.getDefault().getType("index.js"));
+        assertTrue(types.isBuiltFrom("glb=model/gltf-binary, JS=text/javascript,invalid,empty="));
+        assertFalse(types.isBuiltFrom(""));
+        assertTrue(MimeTypes.getDefault().isBuiltFrom(null));
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+*/
+package it.geosolutions.mapstore.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Properties;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+public class OverridesPlanTest {
+
+    @Test
+    public void testApply() throws IOException {
+        Properties props = new Properties();
+        props.setProperty("headerHeight", "200");
+        props.setProperty("title", "My \"quoted\" title");
+        props.setProperty("firstService", "wms");
+        OverridesPlan plan = OverridesPlan.compile(
+            "header.height=headerHeight,header.title=title,services.0=firstService,header.missing=title,other.height=headerHeight,invalid",
+            props, null, -1, -1);
+        JsonNode tree = JsonUtils.getMapper().readTree("{\"header\":{\"height\":10,\"title\":\"\"},\"services\":[\"wfs\"]}");
+        JsonNode result = plan.apply(tree);
+        assertEquals("{\"header\":{\"height\":\"200\",\"title\":\"My \\\"quoted\\\" title\"},\"services\":[\"wms\"]}",
+            JsonUtils.getMapper().writeValueAsString(result));
+    }
+
+    @Test
+    public void testMissingPropertyIsEmpty() throws IOException {
+        OverridesPlan plan = OverridesPlan.compile("header.url=headerUrl", new Properties(), null, -1, -1);
+        JsonNode tree = JsonUtils.getMapper().readTree("{\"header\":{\"url\":\"http://localhost\"}}");
+        assertEquals("", plan.apply(tree).at("/header/url").asText());
+    }
+
+    @Test
+    public void testIsCompiledFrom() {
+        File source = new File("env.properties");
+        OverridesPlan plan = OverridesPlan.compile("header.url=headerUrl", new Properties(), source, 1000, 10);
+        assertTrue(plan.isCompiledFrom("header.url=headerUrl", source, 1000, 10));
+        assertFalse(plan.isCompiledFrom("header.url=headerUrl", source, 2000, 10));
+        assertFalse(plan.isCompiledFrom("header.url=headerUrl", source, 1000, 12));
+        assertFalse(plan.isCompiledFrom("header.height=headerHeight", source, 1000, 10));
+        assertTrue(OverridesPlan.compile("invalid", new Properties(), source, 1000, 10).isEmpty());
+    }
+}
@@ -8,11 +8,16 @@
 package it.geosolutions.mapstore.utils;
 
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 
 import jakarta.servlet.ServletContext;
@@ -50,6 +55,100 @@ public class ResourceUtilsTest {
     	assertFalse(f1.isPresent());
     	assertFalse(f2.isPresent());
     }
-    
-   
+
+    @Test
+    public void testGetResourcePathInsideBase() throws IOException {
+        File base = TestUtils.getDataDir();
+        String path = ResourceUtils.getResourcePath(base.getAbsolutePath(), null, "extensions/My/../My/./index.js", true);
+        assertEquals(new File(base.getCanonicalFile(), "extensions/My/index.js").getPath(), path);
+        assertEquals(base.getCanonicalPath(), ResourceUtils.getResourcePath(base.getAbsolutePath(), null, "extensions/..", true));
+    }
+
+    @Test
+    public void testGetResourcePathBlocksTraversal() throws IOException {
+        File base = TestUtils.getDataDir();
+        String[] attempts = {
+            "../outside.json",
+            "extensions/../../outside.json",
+            "extensions/My/../../../outside.json",
+            "..\\outside.json".replace('\\', File.separatorChar),
+            // sibling folder sharing the name prefix of the base
+            "../" + base.getName() + "X/outside.json"
+        };
+        for (String attempt : attempts) {
+            try {
+                ResourceUtils.getResourcePath(base.getAbsolutePath(), null, attempt, true);
+                fail("Traversal not blocked: " + attempt);
+            } catch (SecurityException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test(expected = SecurityException.class)
+    public void testGetResourcePathBlocksAbsolutePaths() throws IOException {
+        File base = TestUtils.getDataDir();
+        ResourceUtils.getResourcePath(base.getAbsolutePath(), null, new File(base, "file.json").getAbsolutePath(), true);
+    }
+
+    @Test
+    public void testGetResourcePathWithContextRoot() throws IOException {
+        File root = TestUtils.getDataDir();
+        ServletContext context = Mockito.mock(ServletContext.class);
+        Mockito.when(context.getRealPath("")).thenReturn(root.getAbsolutePath());
+        assertEquals(new File(root.getCanonicalFile(), "configs/new.json").getPath(),
+            ResourceUtils.getResourcePath("", context, "configs/new.json", true));
+        try {
+            ResourceUtils.getResourcePath("", context, "configs/../../new.json", true);
+            fail("Traversal not blocked");
+        } catch (SecurityException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testToPosix() {
+        assertEquals("custom/My/index.js", ResourceUtils.toPosix("custom\\My\\index.js"));
+        assertEquals("/custom/My/index.js", ResourceUtils.toPosix("//custom///My\\\\index.js"));
+        String posix = "custom/My/index.js";
+        assertSame(posix, ResourceUtils.toPosix(posix));
+        assertNull(ResourceUtils.toPosix(null));
+    }
+
+    @Test
+    public void testPosixJoinStrict() {
+        assertEquals("custom/My/index.js", ResourceUtils.posixJoinStrict("custom", "My", "index.js"));
+        assertEquals("custom/My/index.js", ResourceUtils.posixJoinStrict("custom\\", ".", "", "My//index.js"));
+        assertEquals(".", ResourceUtils.posixJoinStrict(".", " "));
+        assertEquals("My/..index.js", ResourceUtils.posixJoinStrict("My", "..index.js"));
+        String[][] rejected = {
+            { "custom", ".." },
+            { "custom", "My/../../index.js" },
+            { "custom", "..\\index.js" },
+            { "custom", "My/.." },
+            { "/custom" },
+            { "\\custom" },
+            { "C:\\custom" }
+        };
+        for (String[] segments : rejected) {
+            try {
+                ResourceUtils.posixJoinStrict(segments);
+                fail("Path not rejected: " + String.join(", ", segments));
+            } catch (SecurityException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testWriteAtomically() throws IOException {
+        File folder = TestUtils.getDataDir();
+        File file = new File(folder, "extensions.json");
+        ResourceUtils.writeAtomically(file.toPath(), "{}".getBytes(StandardCharsets.UTF_8));
+        assertEquals("{}", TestUtils.getContent(file));
+        ResourceUtils.writeAtomically(file.toPath(), "{\"My\":{}}".getBytes(StandardCharsets.UTF_8));
+        assertEquals("{\"My\":{}}", TestUtils.getContent(file));
+        // the temporary file has been renamed
+        assertEquals(1, folder.list().length);
+    }
 }
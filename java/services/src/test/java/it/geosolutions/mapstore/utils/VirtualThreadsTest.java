@@ -0,0 +1,43 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+*/
+package it.geosolutions.mapstore.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class VirtualThreadsTest {
+
+    @Test
+    public void testNewExecutor() throws Exception {
+        boolean supported = Runtime.version().feature() >= 21;
+        assertEquals(supported, VirtualThreads.isSupported());
+        if (!supported) {
+            try {
+                VirtualThreads.newExecutor("test-");
+                fail("virtual threads are not supported before JDK 21");
+            } catch (UnsupportedOperationException e) {
+                // expected
+            }
+            return;
+        }
+        ExecutorService executor = VirtualThreads.newExecutor("test-");
+        try {
+            Future<Thread> thread = executor.submit(Thread::currentThread);
+            assertTrue((Boolean) Thread.class.getMethod("isVirtual").invoke(thread.get()));
+            assertEquals("test-0", thread.get().getName());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2026, GeoSolutions Sas.
+ * All rights reserved.
+ *
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package it.geosolutions.mapstore;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.FilterConfig;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import it.geosolutions.mapstore.controllers.BaseConfigController;
+import it.geosolutions.mapstore.filters.CachePolicyFilter;
+import it.geosolutions.mapstore.servlets.VirtualThreadDispatcherServlet;
+
+public class WebXmlTest {
+    Document webXml;
+
+    @Before
+    public void setUp() throws Exception {
+        webXml = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+            .parse(new File("src/main/webapp/WEB-INF/web.xml"));
+    }
+
+    @Test
+    public void testServerTimingOnlyOnSecuredPaths() {
+        // the roles of the user, needed to send the Server-Timing header on request, are known only behind Spring Security
+        List<String> secured = getUrlPatterns("filter-mapping", "filter-name", "springSecurityFilterChain");
+        assertTrue(secured.toString(), secured.contains(BaseConfigController.SECURED_PATH + "*"));
+        for (String pattern : getUrlPatterns("servlet-mapping", "servlet-name", "loadAssets")) {
+            assertTrue(pattern, pattern.startsWith(BaseConfigController.SECURED_PATH));
+        }
+        // public paths, the timing parameter is ignored
+        for (String servlet : new String[] {"configs", "extensions"}) {
+            for (String pattern : getUrlPatterns("servlet-mapping", "servlet-name", servlet)) {
+                assertFalse(pattern, pattern.startsWith(BaseConfigController.SECURED_PATH));
+            }
+        }
+    }
+
+    @Test
+    public void testDispatchersOnVirtualThreads() {
+        NodeList servlets = webXml.getElementsByTagName("servlet");
+        List<String> virtual = new ArrayList<>();
+        for (int i = 0; i < servlets.getLength(); i++) {
+            Element servlet = (Element) servlets.item(i);
+            if (VirtualThreadDispatcherServlet.class.getName().equals(getText(servlet, "servlet-class"))) {
+                assertEquals("true", getText(servlet, "async-supported"));
+                virtual.add(getText(servlet, "servlet-name"));
+            }
+        }
+        assertEquals(Arrays.asList("loadAssets", "configs", "extensions"), virtual);
+    }
+
+    @Test
+    public void testConfigServicesAreRevalidated() throws Exception {
+        CachePolicyFilter filter = new CachePolicyFilter();
+        FilterConfig config = mock(FilterConfig.class);
+        when(config.getInitParameter(any())).thenAnswer(invocation -> getInitParameter("cachePolicyFilter", invocation.getArgument(0)));
+        filter.init(config);
+        List<String> filtered = getUrlPatterns("filter-mapping", "filter-name", "cachePolicyFilter");
+        // also the services without extension
+        for (String path : new String[] {"/configs/bootstrap", "/configs/localConfig", "/configs/localConfig.json",
+                "/rest/config/load/localConfig"}) {
+            assertTrue(path, filtered.stream().anyMatch(pattern -> matches(pattern, path)));
+            HttpServletRequest request = mock(HttpServletRequest.class);
+            when(request.getContextPath()).thenReturn("/mapstore");
+            when(request.getRequestURI()).thenReturn("/mapstore" + path);
+            HttpServletResponse response = mock(HttpServletResponse.class);
+            when(response.getStatus()).thenReturn(HttpServletResponse.SC_OK);
+            FilterChain chain = mock(FilterChain.class);
+            doAnswer(invocation -> ((ServletResponse) invocation.getArgument(1)).getOutputStream())
+                .when(chain).doFilter(eq(request), any(ServletResponse.class));
+            filter.doFilter(request, response, chain);
+            verify(response).setHeader("Cache-Control", "no-cache");
+        }
+    }
+
+    /**
+     * Tells if a servlet url-pattern matches a path (exact, path prefix or extension).
+     */
+    private static boolean matches(String pattern, String path) {
+        if (pattern.startsWith("*.")) {
+            return path.endsWith(pattern.substring(1));
+        }
+        if (pattern.endsWith("/*")) {
+            String prefix = pattern.substring(0, pattern.length() - 2);
+            return path.equals(prefix) || path.startsWith(prefix + "/");
+        }
+        return pattern.equals(path);
+    }
+
+    private static String getText(Element element, String child) {
+        NodeList children = element.getElementsByTagName(child);
+        return children.getLength() > 0 ? children.item(0).getTextContent().trim() : null;
+    }
+
+    private String getInitParameter(String filterName, String name) {
+        NodeList filters = webXml.getElementsByTagName("filter");
+        for (int i = 0; i < filters.getLength(); i++) {
+            Element filter = (Element) filters.item(i);
+            if (filterName.equals(filter.getElementsByTagName("filter-name").item(0).getTextContent().trim())) {
+                NodeList params = filter.getElementsByTagName("init-param");
+                for (int j = 0; j < params.getLength(); j++) {
+                    Element param = (Element) params.item(j);
+                    if (name.equals(param.getElementsByTagName("param-name").item(0).getTextContent().trim())) {
+                        return param.getElementsByTagName("param-value").item(0).getTextContent();
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private List<String> getUrlPatterns(String mapping, String nameElement, String name) {
+        List<String> patterns = new ArrayList<>();
+        NodeList mappings = webXml.getElementsByTagName(mapping);
+        for (int i = 0; i < mappings.getLength(); i++) {
+            Element element = (Element) mappings.item(i);
+            if (name.equals(element.getElementsByTagName(nameElement).item(0).getTextContent().trim())) {
+                NodeList urlPatterns = element.getElementsByTagName("url-pattern");
+                for (int j = 0; j < urlPatterns.getLength(); j++) {
+                    patterns.add(urlPatterns.item(j).getTextContent().trim());
+                }
+            }
+        }
+        assertFalse("No " + mapping + " for " + name, patterns.isEmpty());
+        return patterns;
+    }
+}
@@ -9,7 +9,7 @@ import expect from 'expect';
 import React from 'react';
 import ReactDOM from 'react-dom';
 import StandardApp from '../StandardApp';
-import withExtensions from '../withExtensions';
+import withExtensions, { getBundlePath } from '../withExtensions';
 
 import ConfigUtils from '../../../utils/ConfigUtils';
 import { LOAD_EXTENSIONS, PLUGIN_UNINSTALLED } from '../../../actions/contextcreator';
@@ -347,4 +347,10 @@ describe('StandardApp withExtensions', () => {
 
 
     });
+    it('getBundlePath', () => {
+        expect(getBundlePath({ bundle: "My/index.js" })).toBe("My/index.js");
+        expect(getBundlePath({ bundle: "My/index.js", digest: "0123456789abcdef0123456789abcdef" })).toBe("My/index.0123456789abcdef.js");
+        expect(getBundlePath({ bundle: "My/dist.v2/index", digest: "0123456789abcdef0123456789abcdef" })).toBe("My/dist.v2/index.0123456789abcdef");
+        expect(getBundlePath({ bundle: "My/0123456789abcdef/index.js", digest: "0123456789abcdef0123456789abcdef" })).toBe("My/0123456789abcdef/index.0123456789abcdef.js");
+    });
 });
@@ -18,6 +18,26 @@ import PluginsUtils from '../../utils/PluginsUtils';
 import { LOAD_EXTENSIONS, PLUGIN_UNINSTALLED } from '../../actions/contextcreator';
 import {reducersLoaded} from "../../actions/storemanager";
 
+/**
+ * Returns the path of the bundle of an extension, from its entry in the extensions registry.
+ * Extensions installed with a digest are loaded from a fingerprinted path (the first 16 digits of the digest
+ * added to the file name, e.g. `My/index.0123456789abcdef.js`) that the back-end serves as the bundle,
+ * so that the browser can cache it until a new version is installed.
+ * @param {object} extension the entry of the extensions registry (`bundle`, `digest`)
+ * @returns {string} the path of the bundle, relative to the extensions folder
+ */
+export const getBundlePath = ({ bundle, digest } = {}) => {
+    if (!digest || !bundle) {
+        return bundle;
+    }
+    const fingerprint = digest.substring(0, 16);
+    const dot = bundle.lastIndexOf('.');
+    if (dot <= bundle.lastIndexOf('/')) {
+        return `${bundle}.${fingerprint}`;
+    }
+    return `${bundle.substring(0, dot)}.${fingerprint}${bundle.substring(dot)}`;
+};
+
 /**
  * This HOC adds to StandardApp (or whatever customization) the
  * possibility to dynamically load extensions. For more info see
@@ -136,8 +156,8 @@ function withExtensions(AppComponent) {
                 ConfigUtils.setConfigProp("translationsPath",
                     castArray(translationsPath).filter(p => p !== this.getAssetPath(translations)));
             }
-            // remove the script element associated with the plugin, if it exists
-            const script = document.querySelector(`script[src^="${this.getAssetPath(plugin)}/index.js"]`);
+            // remove the script element associated with the plugin, if it exists (any version, e.g. `My/0123456789abcdef/index.js`)
+            const script = document.querySelector(`script[src^="${this.getAssetPath(plugin)}/"]`);
             script && script.remove();
         };
 
@@ -159,7 +179,7 @@ function withExtensions(AppComponent) {
                 return axios.get(path).then((response) => {
                     const plugins = response.data;
                     Promise.all(Object.keys(plugins).map((pluginName) => {
-                        const bundlePath = this.getAssetPath(plugins[pluginName].bundle);
+                        const bundlePath = this.getAssetPath(getBundlePath(plugins[pluginName]));
                         return PluginsUtils.loadPlugin(bundlePath, pluginName).then((loaded) => {
                             const impl = loaded.plugin?.default ?? loaded.plugin;
 